@@ -0,0 +1,87 @@
+#!/usr/bin/env bash
+#
+# Compares startup time and resident memory of the plain jar, the AOT + CDS jar and the native image.
+#
+#   ./mvnw -Paot -DskipTests package            # target/jenkins-0.0.1-SNAPSHOT.jar and target/cds/
+#   ./mvnw -Pnative -DskipTests native:compile  # target/jenkins
+#   RUNS=10 scripts/startup-compare.sh
+#
+# Each variant is started RUNS times against the in-memory test database. Startup is the wall time from
+# launch until /actuator/health answers UP; RSS is read from ps right after that. Variants whose
+# artifacts are missing are skipped. Prints the median of each.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18081}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-60}
+JAR=target/jenkins-0.0.1-SNAPSHOT.jar
+APP_ARGS=(--server.port="$PORT" --spring.profiles.active=test --spring.jpa.show-sql=false)
+
+now_millis() {
+    date +%s%3N
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+# Starts the command, waits for health and prints "<startup millis> <rss kB>"
+measure() {
+    local start pid rss
+    start=$(now_millis)
+    "$@" "${APP_ARGS[@]}" > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf "http://localhost:$PORT/actuator/health" | grep -q '"UP"'; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "process exited before becoming healthy: $*" >&2
+            return 1
+        fi
+        if (( $(now_millis) - start > TIMEOUT_SECONDS * 1000 )); then
+            kill "$pid"
+            echo "not healthy after ${TIMEOUT_SECONDS}s: $*" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    local elapsed=$(( $(now_millis) - start ))
+    rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$elapsed $rss"
+}
+
+run_variant() {
+    local name=$1
+    shift
+    local results=()
+    for ((i = 1; i <= RUNS; i++)); do
+        results+=("$(measure "$@")")
+    done
+    local startup rss
+    startup=$(printf '%s\n' "${results[@]}" | cut -d' ' -f1 | median)
+    rss=$(printf '%s\n' "${results[@]}" | cut -d' ' -f2 | median)
+    printf '%-10s %12s %10s\n' "$name" "$startup" "$(( rss / 1024 ))"
+}
+
+printf '%-10s %12s %10s\n' "variant" "startup(ms)" "rss(MB)"
+
+if [[ -f $JAR ]]; then
+    run_variant jar java -jar "$JAR"
+else
+    echo "skipping jar: $JAR not found" >&2
+fi
+
+if [[ -f target/cds/application.jsa ]]; then
+    run_variant aot-cds java -XX:SharedArchiveFile=target/cds/application.jsa -Dspring.aot.enabled=true \
+        -jar "target/cds/$(basename "$JAR")"
+else
+    echo "skipping aot-cds: build with ./mvnw -Paot -DskipTests package" >&2
+fi
+
+if [[ -x target/jenkins ]]; then
+    run_variant native target/jenkins
+else
+    echo "skipping native: build with ./mvnw -Pnative -DskipTests native:compile" >&2
+fi
@@ -0,0 +1,90 @@
+package com.vg.jenkins.benchmark;
+
+import com.vg.jenkins.JenkinsApplication;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.model.Product;
+import com.vg.jenkins.service.ProductService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixtures shared by the benchmark suites: sample products and a Spring context on the H2 test profile.
+ */
+final class BenchmarkData {
+
+    private static final int SEED_CHUNK = 10_000;
+
+    private BenchmarkData() {
+    }
+
+    static Product product(long id) {
+        return Product.builder()
+                .productId(id)
+                .name("Product " + id)
+                .description("Benchmark product number " + id)
+                .price(BigDecimal.valueOf(id % 100_000, 2))
+                .createdAt(LocalDate.of(2024, 1, 1).plusDays(id % 365))
+                .updatedAt(LocalDate.of(2024, 6, 1))
+                .version(1)
+                .build();
+    }
+
+    static ProductDTO productDTO(long id) {
+        return ProductDTO.builder()
+                .productId(id)
+                .name("Product " + id)
+                .description("Benchmark product number " + id)
+                .price(BigDecimal.valueOf(id % 100_000, 2))
+                .createdAt(LocalDate.of(2024, 1, 1).plusDays(id % 365))
+                .updatedAt(LocalDate.of(2024, 6, 1))
+                .version(1L)
+                .build();
+    }
+
+    static List<ProductDTO> productDTOs(int size) {
+        List<ProductDTO> products = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            products.add(productDTO(i));
+        }
+        return products;
+    }
+
+    /**
+     * Starts the application against an in-memory H2 database, quiet and with caching off so every
+     * invocation measures the real read path.
+     */
+    static ConfigurableApplicationContext startApplication(WebApplicationType webApplicationType, String... properties) {
+        List<String> defaults = new ArrayList<>(List.of(
+                "spring.profiles.active=test",
+                "spring.jpa.show-sql=false",
+                "spring.h2.console.enabled=false",
+                "spring.datasource.url=jdbc:h2:mem:benchmark-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                "product.cache.enabled=false",
+                "product.rate-limit.enabled=false",
+                "logging.level.root=warn"));
+        defaults.addAll(List.of(properties));
+        return new SpringApplicationBuilder(JenkinsApplication.class)
+                .web(webApplicationType)
+                .properties(defaults.toArray(String[]::new))
+                .run();
+    }
+
+    static void seed(ProductService productService, int rows) {
+        for (int offset = 0; offset < rows; offset += SEED_CHUNK) {
+            int size = Math.min(SEED_CHUNK, rows - offset);
+            List<ProductDTO> chunk = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ProductDTO product = productDTO(offset + i + 1L);
+                product.setProductId(null);
+                chunk.add(product);
+            }
+            productService.saveAll(chunk);
+        }
+    }
+}
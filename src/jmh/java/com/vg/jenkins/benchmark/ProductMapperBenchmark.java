@@ -0,0 +1,50 @@
+package com.vg.jenkins.benchmark;
+
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.mapper.ProductMapper;
+import com.vg.jenkins.mapper.ProductMapperImpl;
+import com.vg.jenkins.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMapperBenchmark {
+
+    private ProductMapper productMapper;
+
+    private Product product;
+
+    private ProductDTO productDTO;
+
+    @Setup
+    public void setUp() {
+        productMapper = new ProductMapperImpl();
+        product = BenchmarkData.product(42L);
+        productDTO = BenchmarkData.productDTO(42L);
+    }
+
+    @Benchmark
+    public ProductDTO mapToDTO() {
+        return productMapper.mapToDTO(product);
+    }
+
+    @Benchmark
+    public Product mapToEntity() {
+        return productMapper.mapToEntity(productDTO);
+    }
+}
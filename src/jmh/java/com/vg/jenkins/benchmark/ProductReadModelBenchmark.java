@@ -0,0 +1,92 @@
+package com.vg.jenkins.benchmark;
+
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.model.Product;
+import com.vg.jenkins.readmodel.ProductColumnStore;
+import com.vg.jenkins.repository.ProductRepository;
+import com.vg.jenkins.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point reads and pages from the off-heap column store against the {@link ProductRepository} path it
+ * replaces. Run with {@code -prof gc}: the store should allocate only the returned DTOs, and the heap should
+ * stay the same size whatever {@code rows} is; the {@code product.readmodel.bytes} gauge shows the direct
+ * memory it takes instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:MaxDirectMemorySize=2g"})
+public class ProductReadModelBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"100"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductRepository productRepository;
+
+    private ProductColumnStore columnStore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication(WebApplicationType.NONE, "product.read-model.enabled=true");
+        productRepository = context.getBean(ProductRepository.class);
+        columnStore = context.getBean(ProductColumnStore.class);
+        // Seeded after startup, so the store is filled by the write events rather than the initial load
+        BenchmarkData.seed(context.getBean(ProductService.class), rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Product repositoryFindById() {
+        return productRepository.findById(randomId()).orElseThrow();
+    }
+
+    @Benchmark
+    public ProductDTO columnStoreFindById() {
+        return columnStore.findById(randomId()).orElseThrow();
+    }
+
+    @Benchmark
+    public List<ProductDTO> repositoryPage() {
+        return productRepository.findPageProjected(randomId() - 1, Limit.of(pageSize));
+    }
+
+    @Benchmark
+    public List<ProductDTO> columnStorePage() {
+        return columnStore.findPage(randomId() - 1, pageSize);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, rows - pageSize);
+    }
+}
@@ -0,0 +1,100 @@
+package com.vg.jenkins.benchmark;
+
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductField;
+import com.vg.jenkins.mapper.ProductMapper;
+import com.vg.jenkins.model.Product;
+import com.vg.jenkins.service.ProductService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of the product list read three ways: hydrated entities mapped to DTOs (the read path before
+ * projections), the DTO constructor projection, and a two-field selection. Compare
+ * {@code gc.alloc.rate.norm} from the GC profiler for the bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ProductReadPathBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"100", "1000"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductService productService;
+
+    private ProductMapper productMapper;
+
+    private EntityManager entityManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private final Set<ProductField> fields = ProductField.parse("name,price");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication(WebApplicationType.NONE);
+        productService = context.getBean(ProductService.class);
+        productMapper = context.getBean(ProductMapper.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        BenchmarkData.seed(productService, ROWS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductDTO> hydratedEntities() {
+        return readOnlyTransaction.execute(status -> entityManager
+                .createQuery("select p from Product p where p.productId > :after order by p.productId asc",
+                        Product.class)
+                .setParameter("after", 0L)
+                .setMaxResults(pageSize)
+                .getResultList()
+                .stream()
+                .map(productMapper::mapToDTO)
+                .toList());
+    }
+
+    @Benchmark
+    public List<ProductDTO> dtoProjection() {
+        return productService.findPage(0L, pageSize, null);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> selectedFields() {
+        return productService.findPageFields(0L, pageSize, fields, null);
+    }
+}
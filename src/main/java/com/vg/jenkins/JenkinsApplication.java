@@ -1,9 +1,15 @@
 package com.vg.jenkins;
 
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.config.ProductRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@EnableConfigurationProperties(ProductProperties.class)
+@ImportRuntimeHints(ProductRuntimeHints.class)
 public class JenkinsApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,19 @@
+package com.vg.jenkins.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link ProductInvalidation}s between the replicas' near caches. Delivery may be delayed but must
+ * not be lost while a listener is subscribed; a listener may also receive invalidations of its own node.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Called once the write has committed.
+     */
+    void publish(ProductInvalidation invalidation);
+
+    void subscribe(Consumer<ProductInvalidation> listener);
+
+    void unsubscribe(Consumer<ProductInvalidation> listener);
+}
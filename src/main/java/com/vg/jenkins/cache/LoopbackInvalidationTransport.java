@@ -0,0 +1,47 @@
+package com.vg.jenkins.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers invalidations synchronously to every listener on the same {@link Hub}, so several application
+ * contexts in one JVM behave like replicas sharing a channel.
+ */
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    /**
+     * The hub of every loopback transport created without one of its own.
+     */
+    public static final Hub SHARED_HUB = new Hub();
+
+    public static final class Hub {
+
+        private final List<Consumer<ProductInvalidation>> listeners = new CopyOnWriteArrayList<>();
+    }
+
+    private final Hub hub;
+
+    public LoopbackInvalidationTransport() {
+        this(SHARED_HUB);
+    }
+
+    public LoopbackInvalidationTransport(Hub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void publish(ProductInvalidation invalidation) {
+        hub.listeners.forEach(listener -> listener.accept(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<ProductInvalidation> listener) {
+        hub.listeners.add(listener);
+    }
+
+    @Override
+    public void unsubscribe(Consumer<ProductInvalidation> listener) {
+        hub.listeners.remove(listener);
+    }
+}
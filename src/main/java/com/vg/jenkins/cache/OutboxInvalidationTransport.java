@@ -0,0 +1,45 @@
+package com.vg.jenkins.cache;
+
+import com.vg.jenkins.changes.ProductChangeFeed;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Uses the {@code product_changes} outbox as the channel: every write already records a row there in its
+ * own transaction, and every replica follows the {@link ProductChangeFeed} from the sequence it started at.
+ * Publishing is therefore a no-op. An invalidation reaches the other replicas within the feed's poll
+ * interval plus its gap timeout. Rows carry no origin, so a replica also sees its own writes and evicts
+ * them a second time.
+ */
+public class OutboxInvalidationTransport implements InvalidationTransport {
+
+    private final ProductChangeFeed productChangeFeed;
+
+    private final Map<Consumer<ProductInvalidation>, ProductChangeFeed.Subscription> subscriptions =
+            new ConcurrentHashMap<>();
+
+    public OutboxInvalidationTransport(ProductChangeFeed productChangeFeed) {
+        this.productChangeFeed = productChangeFeed;
+    }
+
+    @Override
+    public void publish(ProductInvalidation invalidation) {
+        // Recorded by ProductChangeOutbox as part of the write
+    }
+
+    @Override
+    public void subscribe(Consumer<ProductInvalidation> listener) {
+        subscriptions.put(listener, productChangeFeed.follow(change -> listener.accept(new ProductInvalidation(null,
+                change.getProductId(), change.getProduct() == null ? null : change.getProduct().getVersion()))));
+    }
+
+    @Override
+    public void unsubscribe(Consumer<ProductInvalidation> listener) {
+        ProductChangeFeed.Subscription subscription = subscriptions.remove(listener);
+        if (subscription != null) {
+            productChangeFeed.unsubscribe(subscription);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.vg.jenkins.cache;
+
+/**
+ * A product written on some replica. {@code version} is the version it was written at, {@code null} when
+ * unknown (deletes, and updates that did not send one); {@code origin} is the sending node, {@code null}
+ * when the transport can't tell.
+ */
+public record ProductInvalidation(String origin, Long productId, Long version) {
+}
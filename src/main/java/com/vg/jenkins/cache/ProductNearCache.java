@@ -0,0 +1,98 @@
+package com.vg.jenkins.cache;
+
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.event.ProductChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the per-replica product cache coherent with the other replicas: committed writes are published on
+ * the {@link InvalidationTransport}, and invalidations from other nodes evict the product here. The cache
+ * itself is wrapped in a {@link StampedCache}, so a read that started before an invalidation can't put
+ * the old value back afterwards.
+ */
+public class ProductNearCache implements MeterBinder, DisposableBean {
+
+    public static final String INVALIDATIONS_METRIC = "product.nearcache.invalidations";
+
+    public static final String STALE_PUTS_METRIC = "product.nearcache.stale_puts";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final InvalidationTransport transport;
+
+    private final Duration stampTtl;
+
+    private final Map<String, StampedCache> caches = new ConcurrentHashMap<>();
+
+    private final Consumer<ProductInvalidation> listener = this::onInvalidation;
+
+    private final LongAdder published = new LongAdder();
+
+    private final LongAdder received = new LongAdder();
+
+    private final LongAdder stalePuts = new LongAdder();
+
+    public ProductNearCache(ProductProperties productProperties, InvalidationTransport transport) {
+        this.transport = transport;
+        this.stampTtl = Duration.ofMillis(productProperties.getCache().getInvalidationStampMillis());
+        transport.subscribe(listener);
+    }
+
+    /**
+     * Wraps a cache of {@link ProductDTO}s keyed by product ID.
+     */
+    public Cache attach(Cache cache) {
+        StampedCache stamped = new StampedCache(cache, stampTtl,
+                value -> value instanceof ProductDTO product ? product.getVersion() : null, stalePuts);
+        caches.put(cache.getName(), stamped);
+        return stamped;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long version = event.product() == null ? null : event.product().getVersion();
+        transport.publish(new ProductInvalidation(nodeId, event.productId(), version));
+        published.increment();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(INVALIDATIONS_METRIC, published, LongAdder::sum)
+                .description("Product invalidations sent to the other replicas")
+                .tag("direction", "published")
+                .register(registry);
+        FunctionCounter.builder(INVALIDATIONS_METRIC, received, LongAdder::sum)
+                .description("Product invalidations received from the other replicas")
+                .tag("direction", "received")
+                .register(registry);
+        FunctionCounter.builder(STALE_PUTS_METRIC, stalePuts, LongAdder::sum)
+                .description("Cache fills dropped because the product was invalidated while it was read")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        transport.unsubscribe(listener);
+    }
+
+    private void onInvalidation(ProductInvalidation invalidation) {
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        received.increment();
+        caches.values().forEach(cache -> cache.invalidate(invalidation.productId(), invalidation.version()));
+    }
+}
@@ -0,0 +1,157 @@
+package com.vg.jenkins.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A cache that refuses to be re-populated with a value read before an invalidation of its key.
+ * <p>
+ * Every eviction, local or remote, leaves a stamp: a generation from a counter, and the written version
+ * when known. A miss remembers the generation it happened at on the calling thread, which is the thread
+ * that puts the loaded value. The put is dropped when the value's version is older than the stamped one,
+ * or, without versions to compare, when the key or the whole cache was invalidated after the miss. Stamps
+ * expire after {@code stampTtl}, so a load that takes longer than that is not protected.
+ */
+class StampedCache implements Cache {
+
+    private record Stamp(long generation, Long version) {
+    }
+
+    private record Miss(Object key, long generation) {
+    }
+
+    private final Cache delegate;
+
+    private final Function<Object, Long> versionOf;
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Stamp> stamps;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final ThreadLocal<Miss> misses = new ThreadLocal<>();
+
+    private final LongAdder stalePuts;
+
+    private volatile long clearedGeneration = -1;
+
+    StampedCache(Cache delegate, Duration stampTtl, Function<Object, Long> versionOf, LongAdder stalePuts) {
+        this.delegate = delegate;
+        this.versionOf = versionOf;
+        this.stalePuts = stalePuts;
+        this.stamps = Caffeine.newBuilder().expireAfterWrite(stampTtl).build();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = delegate.get(key);
+        if (value == null) {
+            misses.set(new Miss(key, generation.get()));
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = delegate.get(key, type);
+        if (value == null) {
+            misses.set(new Miss(key, generation.get()));
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // Caffeine runs the loader under the key's lock, and an eviction of the key waits for it
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (isStale(key, value)) {
+            stalePuts.increment();
+            return;
+        }
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        if (isStale(key, value)) {
+            stalePuts.increment();
+            return delegate.get(key);
+        }
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        invalidate(key, null);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        stamp(key, null);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        clearedGeneration = generation.incrementAndGet();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        clearedGeneration = generation.incrementAndGet();
+        return delegate.invalidate();
+    }
+
+    /**
+     * Evicts {@code key} and keeps values older than {@code version} out until the stamp expires.
+     */
+    void invalidate(Object key, Long version) {
+        stamp(key, version);
+        delegate.evict(key);
+    }
+
+    private void stamp(Object key, Long version) {
+        long next = generation.incrementAndGet();
+        stamps.asMap().merge(key, new Stamp(next, version),
+                (previous, current) -> new Stamp(current.generation(), newest(previous.version(), current.version())));
+    }
+
+    private static Long newest(Long a, Long b) {
+        return a == null ? b : b == null ? a : Long.valueOf(Math.max(a, b));
+    }
+
+    private boolean isStale(Object key, Object value) {
+        Miss miss = misses.get();
+        misses.remove();
+        Stamp stamp = stamps.getIfPresent(key);
+        Long version = value == null ? null : versionOf.apply(value);
+        if (stamp != null && stamp.version() != null && version != null) {
+            return version < stamp.version();
+        }
+        if (miss == null || !miss.key().equals(key)) {
+            // Not a read-through fill, e.g. the @CachePut of a write, which holds the value just written
+            return false;
+        }
+        return (stamp != null && stamp.generation() > miss.generation()) || clearedGeneration > miss.generation();
+    }
+}
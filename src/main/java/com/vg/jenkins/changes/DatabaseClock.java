@@ -0,0 +1,28 @@
+package com.vg.jenkins.changes;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * The database's clock, which stamps {@code recorded_at} on every change. Ages of changes are measured
+ * against it rather than this instance's clock, which may be skewed from the database and from the other
+ * instances writing to it.
+ */
+@Component
+public class DatabaseClock {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public DatabaseClock(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Instant now() {
+        return jdbcTemplate.queryForObject("select current_timestamp(6)", Timestamp.class).toInstant();
+    }
+}
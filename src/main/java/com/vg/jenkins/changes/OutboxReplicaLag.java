@@ -0,0 +1,33 @@
+package com.vg.jenkins.changes;
+
+import com.vg.jenkins.datasource.ReplicaLag;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Reads replica lag off the {@code product_changes} outbox, which every write appends to: the lag is the
+ * age, by the primary's clock, of the first change the replica does not have yet. A catalog without
+ * writes has nothing to fall behind on and reads as in sync.
+ */
+public class OutboxReplicaLag implements ReplicaLag {
+
+    static final String LATEST_SQL = "select coalesce(max(sequence_number), 0) from product_changes";
+
+    static final String MISSING_SQL = "select recorded_at, current_timestamp(6) from product_changes "
+            + "where sequence_number > ? order by sequence_number limit 1";
+
+    @Override
+    public long millis(DataSource primary, DataSource replica) {
+        Long applied = new JdbcTemplate(replica).queryForObject(LATEST_SQL, Long.class);
+        List<Long> lag = new JdbcTemplate(primary).query(MISSING_SQL,
+                (rs, rowNum) -> {
+                    Timestamp recordedAt = rs.getTimestamp(1);
+                    Timestamp now = rs.getTimestamp(2);
+                    return Math.max(0, now.getTime() - recordedAt.getTime());
+                }, applied);
+        return lag.isEmpty() ? 0 : lag.get(0);
+    }
+}
@@ -0,0 +1,347 @@
+package com.vg.jenkins.changes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.dto.ProductChangeDTO;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.model.ProductChange;
+import com.vg.jenkins.repository.ProductChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Reads the change outbox in sequence order and pushes new changes to waiting consumers.
+ * <p>
+ * Sequences are assigned at insert, so a transaction can commit a higher sequence while a lower one is
+ * still in flight. A change that follows a gap is therefore only handed out once it is older than the
+ * gap timeout; by then the missing sequence has either committed or was rolled back for good. Ages are
+ * measured on the {@link DatabaseClock}, which also stamps the changes.
+ * <p>
+ * Rounds run on one thread. A commit on this instance triggers a round right away and a timer covers
+ * everything else; consumers waiting at the same sequence share one query per round. A consumer that
+ * writes to a client, where a write can block, takes a {@link QueuedSubscription}, so that one slow client
+ * never holds up the round.
+ */
+@Component
+public class ProductChangeFeed implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeFeed.class);
+
+    private final ProductChangeRepository productChangeRepository;
+
+    private final DatabaseClock databaseClock;
+
+    private final ObjectReader productReader;
+
+    private final ProductProperties.Changes changes;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean dispatchQueued = new AtomicBoolean();
+
+    private volatile ScheduledExecutorService dispatcher;
+
+    private volatile ExecutorService pusher;
+
+    @Autowired
+    public ProductChangeFeed(ProductChangeRepository productChangeRepository, DatabaseClock databaseClock,
+                             ObjectMapper objectMapper, ProductProperties productProperties) {
+        this.productChangeRepository = productChangeRepository;
+        this.databaseClock = databaseClock;
+        this.productReader = objectMapper.readerFor(ProductDTO.class);
+        this.changes = productProperties.getChanges();
+    }
+
+    /**
+     * A consumer waiting for changes after its cursor. Deliveries to one subscription never overlap.
+     */
+    public abstract static class Subscription {
+
+        private volatile long cursor;
+
+        protected Subscription(long since) {
+            this.cursor = since;
+        }
+
+        /**
+         * @return whether the subscription wants further changes
+         */
+        public abstract boolean deliver(List<ProductChangeDTO> changes) throws Exception;
+    }
+
+    /**
+     * Hands changes to a bounded queue and sends them from a thread of its own, off the dispatching thread.
+     * A client that lets the queue fill up is dropped rather than waited for; a reconnecting SSE client
+     * resumes from its last event ID, so it misses nothing.
+     */
+    public abstract static class QueuedSubscription extends Subscription {
+
+        private final BlockingQueue<ProductChangeDTO> queue;
+
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private volatile boolean dropped;
+
+        private volatile Executor executor;
+
+        protected QueuedSubscription(long since, int capacity) {
+            super(since);
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /**
+         * Sends one change; called from one thread at a time, in sequence order.
+         */
+        protected abstract void send(ProductChangeDTO change) throws Exception;
+
+        /**
+         * The subscription was dropped, because a send failed ({@code cause} is set) or the queue was full.
+         */
+        protected abstract void dropped(Exception cause);
+
+        @Override
+        public final boolean deliver(List<ProductChangeDTO> changes) {
+            if (dropped) {
+                return false;
+            }
+            for (ProductChangeDTO change : changes) {
+                if (!queue.offer(change)) {
+                    drop(null);
+                    return false;
+                }
+            }
+            schedule();
+            return true;
+        }
+
+        private void schedule() {
+            Executor pushTo = executor;
+            if (pushTo != null && sending.compareAndSet(false, true)) {
+                try {
+                    pushTo.execute(this::sendQueued);
+                } catch (RejectedExecutionException e) {
+                    sending.set(false);
+                }
+            }
+        }
+
+        private void sendQueued() {
+            try {
+                ProductChangeDTO change;
+                while (!dropped && (change = queue.poll()) != null) {
+                    send(change);
+                }
+            } catch (Exception e) {
+                drop(e);
+            } finally {
+                sending.set(false);
+            }
+            if (!dropped && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void drop(Exception cause) {
+            if (!dropped) {
+                dropped = true;
+                queue.clear();
+                dropped(cause);
+            }
+        }
+    }
+
+    /**
+     * @return the committed changes after {@code since}, in sequence order, stopping before any change that
+     * may still have an earlier sequence committing ahead of it
+     */
+    public List<ProductChangeDTO> changesSince(long since, int limit) {
+        List<ProductChange> rows = productChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(since,
+                Limit.of(limit));
+        Instant settled = null;
+        List<ProductChangeDTO> result = new ArrayList<>(rows.size());
+        long expected = since + 1;
+        for (ProductChange row : rows) {
+            if (row.getSequence() != expected) {
+                if (settled == null) {
+                    settled = databaseClock.now().minusMillis(changes.getGapTimeoutMillis());
+                }
+                if (row.getRecordedAt().isAfter(settled)) {
+                    break;
+                }
+            }
+            result.add(toDTO(row));
+            expected = row.getSequence() + 1;
+        }
+        return result;
+    }
+
+    public void subscribe(Subscription subscription) {
+        if (subscription instanceof QueuedSubscription queued) {
+            queued.executor = pusher;
+        }
+        subscriptions.add(subscription);
+        changed();
+    }
+
+    /**
+     * Subscribes {@code listener} to every change committed from now on, on any instance. A listener that
+     * throws is logged and keeps its subscription.
+     */
+    public Subscription follow(Consumer<ProductChangeDTO> listener) {
+        Subscription subscription = new Subscription(productChangeRepository.findLatestSequence()) {
+            @Override
+            public boolean deliver(List<ProductChangeDTO> changes) {
+                for (ProductChangeDTO change : changes) {
+                    try {
+                        listener.accept(change);
+                    } catch (RuntimeException e) {
+                        log.warn("Applying change {} of product {} failed", change.getSequence(),
+                                change.getProductId(), e);
+                    }
+                }
+                return true;
+            }
+        };
+        subscribe(subscription);
+        return subscription;
+    }
+
+    public void unsubscribe(Subscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    /**
+     * Called after a change commits; queues a push round unless one is already queued.
+     */
+    public void changed() {
+        ScheduledExecutorService executor = dispatcher;
+        if (executor != null && !subscriptions.isEmpty() && dispatchQueued.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::dispatch);
+            } catch (RejectedExecutionException e) {
+                dispatchQueued.set(false);
+            }
+        }
+    }
+
+    private void dispatch() {
+        dispatchQueued.set(false);
+        try {
+            Map<Long, List<ProductChangeDTO>> changesByCursor = new HashMap<>();
+            for (Subscription subscription : subscriptions) {
+                List<ProductChangeDTO> pending = changesByCursor.computeIfAbsent(subscription.cursor,
+                        cursor -> changesSince(cursor, changes.getDefaultLimit()));
+                if (pending.isEmpty()) {
+                    continue;
+                }
+                boolean wantsMore;
+                try {
+                    wantsMore = subscription.deliver(pending);
+                } catch (Exception e) {
+                    log.debug("Dropping change subscription after a failed delivery: {}", e.getMessage());
+                    wantsMore = false;
+                }
+                subscription.cursor = pending.get(pending.size() - 1).getSequence();
+                if (!wantsMore) {
+                    subscriptions.remove(subscription);
+                } else if (pending.size() == changes.getDefaultLimit()) {
+                    // More may be waiting behind a full page
+                    changed();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Pushing product changes failed", e);
+        }
+    }
+
+    private void prune() {
+        try {
+            int pruned = productChangeRepository.deleteRecordedBefore(
+                    databaseClock.now().minus(Duration.ofHours(changes.getRetentionHours())),
+                    productChangeRepository.findLatestSequence());
+            log.debug("Pruned {} product changes", pruned);
+        } catch (RuntimeException e) {
+            log.warn("Pruning product changes failed", e);
+        }
+    }
+
+    private ProductChangeDTO toDTO(ProductChange row) {
+        try {
+            return ProductChangeDTO.builder()
+                    .sequence(row.getSequence())
+                    .type(row.getType())
+                    .productId(row.getProductId())
+                    .product(row.getPayload() == null ? null : productReader.readValue(row.getPayload()))
+                    .recordedAt(row.getRecordedAt())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-changes");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::changed, changes.getPollIntervalMillis(),
+                changes.getPollIntervalMillis(), TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::prune, 1, 60, TimeUnit.MINUTES);
+        AtomicInteger pushThreads = new AtomicInteger();
+        pusher = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "product-changes-push-" + pushThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher = executor;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = dispatcher;
+        dispatcher = null;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        ExecutorService pushExecutor = pusher;
+        pusher = null;
+        if (pushExecutor != null) {
+            pushExecutor.shutdownNow();
+        }
+        subscriptions.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return dispatcher != null;
+    }
+}
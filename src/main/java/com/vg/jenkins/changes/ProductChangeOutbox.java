@@ -0,0 +1,101 @@
+package com.vg.jenkins.changes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes every {@link ProductChangedEvent} to the {@code product_changes} outbox as part of the writing
+ * transaction, so a change is recorded if and only if the product write commits.
+ * <p>
+ * Rows are collected per transaction and inserted as one JDBC batch just before commit, which also keeps
+ * the window between a sequence being assigned and it becoming visible as short as possible.
+ */
+@Component
+public class ProductChangeOutbox {
+
+    /**
+     * Stamped by the database, so every instance records changes on the same clock.
+     */
+    static final String INSERT_SQL = "insert into product_changes (product_id, type, payload, recorded_at) "
+            + "values (?, ?, ?, current_timestamp(6))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectWriter productWriter;
+
+    private final ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    public ProductChangeOutbox(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                               ProductChangeFeed productChangeFeed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productWriter = objectMapper.writerFor(ProductDTO.class);
+        this.productChangeFeed = productChangeFeed;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(event));
+            productChangeFeed.changed();
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(event);
+    }
+
+    private void insert(List<ProductChangedEvent> events) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (ProductChangedEvent event : events) {
+            rows.add(new Object[]{event.productId(), event.type().name(), payload(event)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    private String payload(ProductChangedEvent event) {
+        if (event.product() == null) {
+            return null;
+        }
+        try {
+            return productWriter.writeValueAsString(event.product());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final List<ProductChangedEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            insert(events);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ProductChangeOutbox.this);
+            if (status == STATUS_COMMITTED) {
+                productChangeFeed.changed();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.vg.jenkins.config;
+
+import com.vg.jenkins.cache.InvalidationTransport;
+import com.vg.jenkins.cache.LoopbackInvalidationTransport;
+import com.vg.jenkins.cache.OutboxInvalidationTransport;
+import com.vg.jenkins.cache.ProductNearCache;
+import com.vg.jenkins.changes.ProductChangeFeed;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(prefix = "product.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CacheConfig {
+
+    public static final String PRODUCTS_CACHE = "products";
+
+    /**
+     * Evictions are deferred until the surrounding transaction commits, so a reader can never
+     * re-populate the cache with the row a writer is about to replace. Each cache is wrapped by the
+     * {@link ProductNearCache}, which extends that guarantee to writes made on other replicas.
+     */
+    @Bean
+    public CacheManager cacheManager(ProductProperties productProperties, ProductNearCache productNearCache) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(PRODUCTS_CACHE) {
+            @Override
+            protected Cache adaptCaffeineCache(String name,
+                                               com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return productNearCache.attach(super.adaptCaffeineCache(name, cache));
+            }
+        };
+        caffeineCacheManager.setCacheSpecification(productProperties.getCache().getSpec());
+        caffeineCacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+
+    @Bean
+    public ProductNearCache productNearCache(ProductProperties productProperties,
+                                             InvalidationTransport invalidationTransport) {
+        return new ProductNearCache(productProperties, invalidationTransport);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "product.cache", name = "invalidation-transport", havingValue = "outbox",
+            matchIfMissing = true)
+    public InvalidationTransport outboxInvalidationTransport(ProductChangeFeed productChangeFeed) {
+        return new OutboxInvalidationTransport(productChangeFeed);
+    }
+
+    /**
+     * Connects every context in the JVM, so that replicas can be tested on one machine.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "product.cache", name = "invalidation-transport", havingValue = "loopback")
+    public InvalidationTransport loopbackInvalidationTransport() {
+        return new LoopbackInvalidationTransport();
+    }
+}
@@ -0,0 +1,26 @@
+package com.vg.jenkins.config;
+
+import com.vg.jenkins.metrics.PersistenceActivityListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * The same listener instance counts prepared statements and loaded entities for the per-request metrics.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer persistenceActivityCustomizer() {
+        PersistenceActivityListener listener = new PersistenceActivityListener();
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, listener);
+            hibernateProperties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(listener));
+        };
+    }
+}
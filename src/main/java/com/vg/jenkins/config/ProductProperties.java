@@ -0,0 +1,274 @@
+package com.vg.jenkins.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "product")
+public class ProductProperties {
+
+    private final Pagination pagination = new Pagination();
+
+    private final Batch batch = new Batch();
+
+    private final Cache cache = new Cache();
+
+    private final Bulkhead bulkhead = new Bulkhead();
+
+    private final RateLimit rateLimit = new RateLimit();
+
+    private final Metrics metrics = new Metrics();
+
+    private final Routing routing = new Routing();
+
+    private final Ingestion ingestion = new Ingestion();
+
+    private final Changes changes = new Changes();
+
+    private final Coalescing coalescing = new Coalescing();
+
+    private final Snapshots snapshots = new Snapshots();
+
+    private final ReadModel readModel = new ReadModel();
+
+    private final Warmup warmup = new Warmup();
+
+    @Data
+    public static class Pagination {
+        private int defaultLimit = 100;
+        private int maxLimit = 1000;
+    }
+
+    @Data
+    public static class Batch {
+        /**
+         * Items written per transaction; each chunk is flushed as JDBC batches and then cleared.
+         */
+        private int chunkSize = 500;
+        private int maxItems = 10000;
+    }
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        /**
+         * Caffeine spec for the product cache; recordStats is needed for the actuator metrics.
+         */
+        private String spec = "maximumSize=10000,expireAfterWrite=10m,recordStats";
+        /**
+         * How the other replicas learn about writes: outbox (the product_changes feed) or loopback (in-JVM,
+         * for tests).
+         */
+        private String invalidationTransport = "outbox";
+        /**
+         * How long an invalidation keeps reads that started before it from re-populating the cache.
+         */
+        private long invalidationStampMillis = 60000;
+    }
+
+    @Data
+    public static class Bulkhead {
+        private boolean enabled = true;
+        /**
+         * Requests allowed past the filter at once. Keep it close to the Hikari pool size so that a burst
+         * of (virtual) threads queues here with a bounded wait instead of inside the connection pool.
+         */
+        private int maxConcurrentRequests = 20;
+        private long acquireTimeoutMillis = 500;
+    }
+
+    @Data
+    public static class RateLimit {
+        private boolean enabled = true;
+        /**
+         * Sustained requests per second allowed to each client.
+         */
+        private double requestsPerSecond = 50;
+        /**
+         * Requests a client that has been idle may send at once before being held to the sustained rate.
+         */
+        private int burst = 100;
+        /**
+         * Header carrying the API key that identifies a client. Only keys listed in {@code apiKeys} count;
+         * requests with any other key, or none, are keyed by remote address.
+         */
+        private String clientHeader = "X-API-Key";
+        /**
+         * The API keys issued to clients. Without a check, a client could send a new made-up key with every
+         * request and get a fresh bucket each time.
+         */
+        private Set<String> apiKeys = new HashSet<>();
+        private String clientSpec = "maximumSize=100000,expireAfterAccess=10m";
+        /**
+         * Concurrent GET /api/v1/products lists across all clients; the unbounded list is the costliest read.
+         */
+        private int maxConcurrentLists = 4;
+        private int maxConcurrentReads = 16;
+        private int maxConcurrentWrites = 8;
+    }
+
+    @Data
+    public static class Metrics {
+        /**
+         * Queries whose slowest execution reaches this threshold are reported as slow query samples.
+         */
+        private long slowQueryThresholdMillis = 100;
+        private int slowQuerySamples = 10;
+    }
+
+    @Data
+    public static class Routing {
+        private boolean enabled = false;
+        /**
+         * How long reads from a client that has just written stay on the primary; should cover replica lag.
+         */
+        private long readYourWritesMillis = 2000;
+        /**
+         * How long a replica that failed to hand out a connection is skipped before it is tried again.
+         */
+        private long replicaRetryMillis = 5000;
+        /**
+         * How long a read waits for a replica connection before the replica counts as down. Hikari's own
+         * default of 30 s would stall every read routed to a dead replica; 250 ms is Hikari's minimum.
+         */
+        private long replicaConnectionTimeoutMillis = 500;
+        /**
+         * How far a replica may fall behind the primary before reads skip it; keep it below
+         * {@code readYourWritesMillis}, which assumes replicas are at most that far behind.
+         */
+        private long maxLagMillis = 1000;
+        /**
+         * How often the replicas are checked for being reachable and for lag, 0 to never probe.
+         */
+        private long probeIntervalMillis = 1000;
+        private List<Replica> replicas = new ArrayList<>();
+    }
+
+    @Data
+    public static class Replica {
+        private String url;
+        /**
+         * Defaults to the primary's credentials when not set.
+         */
+        private String username;
+        private String password;
+    }
+
+    @Data
+    public static class Ingestion {
+        /**
+         * When enabled, POST /api/v1/products answers 202 with a tracking ID and the insert happens behind the request.
+         */
+        private boolean enabled = false;
+        /**
+         * Products accepted but not yet written; further saves are rejected with 429.
+         */
+        private int capacity = 10000;
+        /**
+         * Products taken off the queue per drain and handed to saveAll together.
+         */
+        private int batchSize = 500;
+        private String journalPath = "./data/product-ingestion.journal";
+        /**
+         * Forces journal appends to disk before the save is acknowledged, once per group of concurrent saves.
+         */
+        private boolean fsync = true;
+        private String statusSpec = "maximumSize=100000,expireAfterWrite=1h";
+    }
+
+    @Data
+    public static class Changes {
+        private int defaultLimit = 500;
+        private int maxLimit = 1000;
+        /**
+         * Longest a long-poll waits for a change before answering with an empty list.
+         */
+        private long maxWaitMillis = 30000;
+        private long sseTimeoutMillis = 300000;
+        /**
+         * Changes queued for one SSE client before it counts as too slow and is disconnected.
+         */
+        private int sseQueueCapacity = 1000;
+        /**
+         * A change that follows a sequence gap is held back this long, since the missing one may still be committing.
+         */
+        private long gapTimeoutMillis = 1000;
+        /**
+         * How often waiting consumers are checked for changes this instance was not told about, e.g. another
+         * instance's writes or changes held back by a gap.
+         */
+        private long pollIntervalMillis = 1000;
+        private long retentionHours = 168;
+    }
+
+    @Data
+    public static class Coalescing {
+        private boolean enabled = true;
+        /**
+         * Callers that may wait on one in-flight load; further callers run their own.
+         */
+        private int maxWaiters = 1000;
+        /**
+         * Longest a caller waits on another's load before running its own.
+         */
+        private long maxWaitMillis = 2000;
+    }
+
+    @Data
+    public static class Snapshots {
+        /**
+         * Serves JSON product list pages from pre-serialized, pre-compressed snapshots.
+         */
+        private boolean enabled = true;
+        /**
+         * Caffeine spec for the snapshots; a snapshot weighs its plain plus gzipped size in bytes, so the
+         * spec must bound maximumWeight rather than maximumSize.
+         */
+        private String spec = "maximumWeight=33554432,expireAfterAccess=10m";
+        private int compressionLevel = 9;
+    }
+
+    @Data
+    public static class ReadModel {
+        /**
+         * Mirrors the catalog into an off-heap columnar store and serves ID lookups and list pages from it.
+         */
+        private boolean enabled = false;
+        /**
+         * Rows allocated up front; the columns double when full.
+         */
+        private int initialRows = 65536;
+        /**
+         * Bytes allocated up front for the name and description arena; it doubles when full.
+         */
+        private int initialArenaBytes = 4 * 1024 * 1024;
+    }
+
+    @Data
+    public static class Warmup {
+        /**
+         * Sends read requests through the local server before the instance reports ready.
+         */
+        private boolean enabled = false;
+        private int requestsPerRound = 200;
+        private int concurrency = 4;
+        /**
+         * Compilation has settled once a round spends less than this share of its wall time in the JIT.
+         */
+        private double settledCompilationRatio = 0.05;
+        /**
+         * Consecutive settled rounds that end the warm-up.
+         */
+        private int settledRounds = 3;
+        private int minRounds = 5;
+        /**
+         * The instance reports ready after this long even if compilation has not settled.
+         */
+        private long maxDurationMillis = 60000;
+    }
+}
@@ -0,0 +1,51 @@
+package com.vg.jenkins.config;
+
+import com.vg.jenkins.dto.IngestionStatus;
+import com.vg.jenkins.dto.ProductBatchResult;
+import com.vg.jenkins.dto.ProductChangeDTO;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductLookupResult;
+import com.vg.jenkins.dto.ProductSearchResult;
+import com.vg.jenkins.dto.ProductStats;
+import com.vg.jenkins.model.Product;
+import com.vg.jenkins.model.ProductChange;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reflection and resource hints for the native image. Spring's AOT pass already covers the beans, the
+ * repositories and the controller return types it can see; this adds what only shows up at runtime:
+ * the JPQL {@code select new ProductDTO(...)} constructor Hibernate invokes reflectively, the entities'
+ * fields and accessors, the DTOs written by Jackson behind {@code DeferredResult}, SSE and the ingestion
+ * journal, and the SQL scripts read from the classpath. Lombok and MapStruct only generate code at compile
+ * time, so the generated accessors and {@code ProductMapperImpl} need nothing beyond the bean itself.
+ */
+public class ProductRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final String INGESTION_JOURNAL_ENTRY = "com.vg.jenkins.ingest.IngestionJournal$Entry";
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection().registerType(ProductDTO.class,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        for (Class<?> entity : new Class<?>[] {Product.class, ProductChange.class}) {
+            hints.reflection().registerType(entity,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+                ProductDTO.class, ProductChangeDTO.class, IngestionStatus.class,
+                ProductBatchResult.class, ProductSearchResult.class, ProductLookupResult.class, ProductStats.class);
+        hints.reflection().registerType(TypeReference.of(INGESTION_JOURNAL_ENTRY),
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS);
+        hints.resources().registerPattern("db/*.sql");
+    }
+}
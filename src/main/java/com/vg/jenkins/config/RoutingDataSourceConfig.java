@@ -0,0 +1,76 @@
+package com.vg.jenkins.config;
+
+import com.vg.jenkins.changes.OutboxReplicaLag;
+import com.vg.jenkins.datasource.ReadWriteRoutingDataSource;
+import com.vg.jenkins.datasource.ReplicaMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured pool with the {@code spring.datasource} primary plus the
+ * {@code product.routing.replicas}, routed by {@link ReadWriteRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.routing", name = "enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                        DataSourceProperties dataSourceProperties,
+                                                        ProductProperties productProperties) {
+        ProductProperties.Routing routing = productProperties.getRouting();
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (ProductProperties.Replica replica : routing.getReplicas()) {
+            HikariDataSource replicaDataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(replica.getUrl())
+                    .username(replica.getUsername() == null ? dataSourceProperties.determineUsername() : replica.getUsername())
+                    .password(replica.getPassword() == null ? dataSourceProperties.determinePassword() : replica.getPassword())
+                    .build();
+            replicaDataSource.setPoolName("replica-" + (replicas.size() + 1));
+            replicaDataSource.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            replicaDataSource.setConnectionTimeout(routing.getReplicaConnectionTimeoutMillis());
+            replicaDataSource.setReadOnly(true);
+            replicas.add(replicaDataSource);
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, routing.getReplicaRetryMillis());
+    }
+
+    @Bean
+    public ReplicaMonitor replicaMonitor(ReadWriteRoutingDataSource routingDataSource,
+                                         ProductProperties productProperties) {
+        ProductProperties.Routing routing = productProperties.getRouting();
+        return new ReplicaMonitor(routingDataSource, new OutboxReplicaLag(), routing.getMaxLagMillis(),
+                routing.getProbeIntervalMillis());
+    }
+
+    /**
+     * The lazy proxy defers fetching a physical connection until the first statement, by which time the
+     * transaction's read-only flag is set and the routing can see it.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,61 @@
+package com.vg.jenkins.controller;
+
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.dto.ProductBatchResult;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductLookupResult;
+import com.vg.jenkins.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1")
+public class ProductBatchController {
+
+    private final ProductService productService;
+
+    private final ProductProperties productProperties;
+
+    @Autowired
+    public ProductBatchController(ProductService productService, ProductProperties productProperties) {
+        this.productService = productService;
+        this.productProperties = productProperties;
+    }
+
+    @PostMapping("/products:batch")
+    public ResponseEntity<List<ProductBatchResult>> saveAll(@RequestBody List<ProductDTO> products) {
+        checkSize(products);
+        return ResponseEntity.ok(productService.saveAll(products));
+    }
+
+    @PutMapping("/products:batch")
+    public ResponseEntity<List<ProductBatchResult>> updateAll(@RequestBody List<ProductDTO> products) {
+        checkSize(products);
+        return ResponseEntity.ok(productService.updateAll(products));
+    }
+
+    @DeleteMapping("/products:batch")
+    public ResponseEntity<List<ProductBatchResult>> deleteAll(@RequestBody List<Long> ids) {
+        checkSize(ids);
+        return ResponseEntity.ok(productService.deleteAll(ids));
+    }
+
+    @PostMapping("/products:batchGet")
+    public ResponseEntity<List<ProductLookupResult>> findAllById(@RequestBody List<Long> ids) {
+        checkSize(ids);
+        return ResponseEntity.ok(productService.findAllById(ids));
+    }
+
+    private void checkSize(List<?> items) {
+        int maxItems = productProperties.getBatch().getMaxItems();
+        if (items.size() > maxItems) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Batch size " + items.size() + " exceeds the limit of " + maxItems);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.vg.jenkins.controller;
+
+import com.vg.jenkins.changes.ProductChangeFeed;
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.dto.ProductChangeDTO;
+import com.vg.jenkins.web.BulkheadFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/products/changes")
+public class ProductChangeController {
+
+    private final ProductChangeFeed productChangeFeed;
+
+    private final ProductProperties.Changes changes;
+
+    @Autowired
+    public ProductChangeController(ProductChangeFeed productChangeFeed, ProductProperties productProperties) {
+        this.productChangeFeed = productChangeFeed;
+        this.changes = productProperties.getChanges();
+    }
+
+    /**
+     * Changes after {@code since}. With {@code waitMillis} the request is held open until there is at least one
+     * change or the wait runs out; either way the next cursor comes back in {@code X-Next-Cursor}.
+     */
+    @GetMapping
+    public DeferredResult<ResponseEntity<List<ProductChangeDTO>>> changes(@RequestParam(defaultValue = "0") long since,
+                                                                          @RequestParam(required = false) Integer limit,
+                                                                          @RequestParam(defaultValue = "0") long waitMillis,
+                                                                          HttpServletRequest request) {
+        int pageSize = limit == null
+                ? changes.getDefaultLimit()
+                : Math.max(1, Math.min(limit, changes.getMaxLimit()));
+        long wait = Math.max(0, Math.min(waitMillis, changes.getMaxWaitMillis()));
+
+        DeferredResult<ResponseEntity<List<ProductChangeDTO>>> result = new DeferredResult<>(wait);
+        List<ProductChangeDTO> available = productChangeFeed.changesSince(since, pageSize);
+        if (!available.isEmpty() || wait == 0) {
+            result.setResult(page(since, available));
+            return result;
+        }
+
+        ProductChangeFeed.Subscription subscription = new ProductChangeFeed.Subscription(since) {
+            @Override
+            public boolean deliver(List<ProductChangeDTO> pending) {
+                result.setResult(page(since, pending.size() > pageSize ? pending.subList(0, pageSize) : pending));
+                return false;
+            }
+        };
+        result.onTimeout(() -> result.setResult(page(since, List.of())));
+        result.onCompletion(() -> productChangeFeed.unsubscribe(subscription));
+        request.setAttribute(BulkheadFilter.RELEASE_ON_ASYNC_START_ATTRIBUTE, Boolean.TRUE);
+        productChangeFeed.subscribe(subscription);
+        return result;
+    }
+
+    /**
+     * Server-sent events, one per change with the sequence as event ID, so a reconnecting client resumes
+     * from {@code Last-Event-ID}. Events are written off the feed's thread; a client that falls a whole queue
+     * behind is disconnected and picks up again from there when it reconnects.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(defaultValue = "0") long since,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                             HttpServletRequest request) {
+        SseEmitter emitter = new SseEmitter(changes.getSseTimeoutMillis());
+        ProductChangeFeed.Subscription subscription = new ProductChangeFeed.QueuedSubscription(
+                lastEventId == null ? since : lastEventId, changes.getSseQueueCapacity()) {
+            @Override
+            protected void send(ProductChangeDTO change) throws Exception {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(change.getSequence()))
+                        .name(change.getType().name())
+                        .data(change, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            protected void dropped(Exception cause) {
+                if (cause == null) {
+                    emitter.complete();
+                } else {
+                    emitter.completeWithError(cause);
+                }
+            }
+        };
+        emitter.onCompletion(() -> productChangeFeed.unsubscribe(subscription));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> productChangeFeed.unsubscribe(subscription));
+        request.setAttribute(BulkheadFilter.RELEASE_ON_ASYNC_START_ATTRIBUTE, Boolean.TRUE);
+        productChangeFeed.subscribe(subscription);
+        return emitter;
+    }
+
+    private static ResponseEntity<List<ProductChangeDTO>> page(long since, List<ProductChangeDTO> page) {
+        long next = page.isEmpty() ? since : page.get(page.size() - 1).getSequence();
+        return ResponseEntity.ok()
+                .header(ProductController.NEXT_CURSOR_HEADER, String.valueOf(next))
+                .body(page);
+    }
+}
@@ -1,36 +1,232 @@
 package com.vg.jenkins.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.dto.IngestionStatus;
 import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductField;
+import com.vg.jenkins.dto.ProductLookupResult;
+import com.vg.jenkins.dto.ProductSearchCriteria;
+import com.vg.jenkins.dto.ProductSearchResult;
+import com.vg.jenkins.dto.ProductStats;
+import com.vg.jenkins.exception.IngestionQueueFullException;
+import com.vg.jenkins.exception.ProductNotFoundException;
+import com.vg.jenkins.ingest.ProductIngestion;
+import com.vg.jenkins.service.ProductPageSnapshots;
 import com.vg.jenkins.service.ProductService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/products")
 public class ProductController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * Smile values concatenated back to back, the binary counterpart of NDJSON.
+     */
+    public static final String APPLICATION_STREAM_SMILE_VALUE = "application/stream+x-jackson-smile";
+
+    private static final MediaType SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
     private final ProductService productService;
 
+    private final ObjectWriter ndjsonWriter;
+
+    private final ObjectWriter smileStreamWriter;
+
+    private final ProductProperties.Pagination pagination;
+
+    private final ObjectProvider<ProductIngestion> productIngestion;
+
+    private final ProductPageSnapshots pageSnapshots;
+
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ObjectMapper objectMapper,
+                             ProductProperties productProperties, ObjectProvider<ProductIngestion> productIngestion,
+                             ProductPageSnapshots pageSnapshots) {
         this.productService = productService;
+        this.pageSnapshots = pageSnapshots;
+        this.productIngestion = productIngestion;
+        this.ndjsonWriter = objectMapper.writerFor(ProductDTO.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.smileStreamWriter = objectMapper.copyWith(new SmileFactory())
+                .writerFor(ProductDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.pagination = productProperties.getPagination();
     }
 
+    /**
+     * With {@code fields} only the listed properties are read and returned; the product ID always is.
+     * JSON responses come from a {@link ProductPageSnapshots.Snapshot}, sent gzipped as stored when the
+     * client accepts gzip; Smile goes through the message converters. The ETag is the catalog version plus
+     * the representation, so a tag issued for one media type, field selection or content coding never
+     * matches another.
+     */
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> findAll() {
-        return ResponseEntity.ok(productService.findAll());
+    public ResponseEntity<?> findAll(@RequestParam(required = false) Long after,
+                                     @RequestParam(required = false) Integer limit,
+                                     @RequestParam(required = false) String fields,
+                                     WebRequest request) {
+        Set<ProductField> selectedFields = fields == null ? null : parseFields(fields);
+        boolean json = acceptsJsonSnapshot(request);
+        if (!json && !acceptsSmile(request)) {
+            throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "The product list is JSON or Smile");
+        }
+        boolean snapshot = pageSnapshots.isEnabled() && json;
+        boolean gzip = snapshot && acceptsGzip(request);
+        // Read the version before the data, so the tag can only ever be older than the body it is sent with.
+        // The gzipped snapshot is a different byte sequence from the plain one, so it gets a tag of its own.
+        String version = productService.catalogVersion();
+        String eTag = listETag(version, json ? "json" : "smile", selectedFields) + (gzip ? "-gz" : "");
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        int pageSize = limit == null
+                ? pagination.getDefaultLimit()
+                : Math.max(1, Math.min(limit, pagination.getMaxLimit()));
+        if (snapshot) {
+            return snapshotResponse(pageSnapshots.snapshot(version, after, pageSize, selectedFields), eTag, gzip);
+        }
+
+        ProductPageSnapshots.ProductPage page = pageSnapshots.read(version, after, pageSize, selectedFields);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(json ? MediaType.APPLICATION_JSON : SMILE)
+                .varyBy(HttpHeaders.ACCEPT);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()));
+        }
+        return response.body(page.items());
+    }
+
+    private static ResponseEntity<byte[]> snapshotResponse(ProductPageSnapshots.Snapshot snapshot, String eTag,
+                                                           boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (snapshot.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(snapshot.nextCursor()));
+        }
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+
+    /**
+     * Multi-get: {@code ids} is comma-separated or repeated, at most one page's worth. Results follow the
+     * request order and IDs that don't exist are answered as NOT_FOUND in place. Longer lists go to
+     * {@code POST /api/v1/products:batchGet}.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<ProductLookupResult>> findAllById(@RequestParam List<Long> ids) {
+        if (ids.size() > pagination.getMaxLimit()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    ids.size() + " ids exceed the limit of " + pagination.getMaxLimit() + ", use products:batchGet");
+        }
+        return ResponseEntity.ok(productService.findAllById(ids));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return stream(ndjsonWriter, MediaType.APPLICATION_NDJSON);
+    }
+
+    @GetMapping(produces = APPLICATION_STREAM_SMILE_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllSmile() {
+        return stream(smileStreamWriter, MediaType.parseMediaType(APPLICATION_STREAM_SMILE_VALUE));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(ObjectWriter writer, MediaType contentType) {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter sequenceWriter = writer.writeValues(outputStream)) {
+                productService.streamAll(product -> {
+                    try {
+                        sequenceWriter.write(product);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchResult> search(ProductSearchCriteria criteria) {
+        criteria.setSize(Math.max(1, Math.min(criteria.getSize(), pagination.getMaxLimit())));
+        return ResponseEntity.ok(productService.search(criteria));
+    }
+
+    /**
+     * Count and price aggregates of the catalog, or of the products created between {@code from} and
+     * {@code to} (inclusive), read from the in-memory rollups rather than the products table.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ProductStats> stats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from " + from + " is after to " + to);
+        }
+        return ResponseEntity.ok(productService.stats(from, to));
     }
 
     @PostMapping
-    public ResponseEntity<ProductDTO> save(@RequestBody ProductDTO product) {
+    public ResponseEntity<?> save(@RequestBody ProductDTO product) {
+        ProductIngestion ingestion = productIngestion.getIfAvailable();
+        if (ingestion != null) {
+            IngestionStatus status = ingestion.submit(product);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/products/ingestions/" + status.getTrackingId()))
+                    .body(status);
+        }
         ProductDTO savedProduct = productService.save(product);
         return ResponseEntity.status(HttpStatus.CREATED).body(savedProduct);
     }
 
+    @GetMapping("/ingestions/{trackingId}")
+    public ResponseEntity<IngestionStatus> ingestionStatus(@PathVariable String trackingId) {
+        return Optional.ofNullable(productIngestion.getIfAvailable())
+                .flatMap(ingestion -> ingestion.status(trackingId))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ProductDTO> update(@PathVariable Long id, @RequestBody ProductDTO product) {
         return ResponseEntity.ok(productService.update(id, product));
@@ -43,8 +239,16 @@ public class ProductController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.findById(id));
+    public ResponseEntity<ProductDTO> findById(@PathVariable Long id, WebRequest request) {
+        // Revalidation only needs the version column; the entity is loaded and mapped when it changed
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(productETag(id, productService.findVersion(id)))) {
+            return null;
+        }
+        ProductDTO product = productService.findById(id);
+        return ResponseEntity.ok()
+                .eTag(productETag(id, product.getVersion()))
+                .body(product);
     }
 
     @GetMapping("/index")
@@ -52,4 +256,87 @@ public class ProductController {
         return "Hello World using Jenkins :D";
     }
 
+    private static Set<ProductField> parseFields(String fields) {
+        try {
+            return ProductField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * JSON is what negotiation would pick: no Accept header, or one that admits JSON and does not ask for Smile.
+     */
+    private static boolean acceptsJsonSnapshot(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return true;
+        }
+        try {
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            return accepted.stream().noneMatch(SMILE::equalsTypeAndSubtype)
+                    && accepted.stream().anyMatch(type -> type.getQualityValue() > 0
+                    && type.isCompatibleWith(MediaType.APPLICATION_JSON));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    private static boolean acceptsSmile(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        try {
+            return accept != null && MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(type -> type.getQualityValue() > 0 && type.isCompatibleWith(SMILE));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    private static boolean acceptsGzip(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static String listETag(String version, String mediaType, Set<ProductField> fields) {
+        if (fields == null) {
+            return version + "-" + mediaType;
+        }
+        return version + "-" + mediaType + "-" + fields.stream()
+                .map(ProductField::property)
+                .collect(Collectors.joining("+"));
+    }
+
+    private static String productETag(Long id, Long version) {
+        return id + "." + version;
+    }
+
+    @ExceptionHandler(ProductNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleNotFound(ProductNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, e.getMessage()));
+    }
+
+    @ExceptionHandler(IngestionQueueFullException.class)
+    public ResponseEntity<ProblemDetail> handleQueueFull(IngestionQueueFullException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, e.getMessage()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ProblemDetail> handleConflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage()));
+    }
+
 }
@@ -0,0 +1,42 @@
+package com.vg.jenkins.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Sends the reads made inside a block to the primary. Used for reads whose result outlives the request:
+ * cache fills, snapshots, versions behind ETags and the scans that load the in-memory mirrors. Read from a
+ * lagging replica, any of them would keep serving, or label, a state older than what was already
+ * committed and announced.
+ * <p>
+ * Unlike {@link ReadYourWrites}, this says nothing about the client, so such reads may still be coalesced.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> read) {
+        if (isActive()) {
+            return read.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    public static void run(Runnable read) {
+        call(() -> {
+            read.run();
+            return null;
+        });
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
@@ -0,0 +1,137 @@
+package com.vg.jenkins.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out replica connections inside read-only transactions and primary connections everywhere else,
+ * including reads pinned by {@link ReadYourWrites} or made under {@link PrimaryReads}.
+ * <p>
+ * Replicas are taken round-robin. One that fails to hand out a connection, or that {@link #probe} finds
+ * lagging, is skipped for the retry period, and when none is available reads fall back to the primary. The read-only flag is only known
+ * once the transaction has started, so this must sit behind a {@code LazyConnectionDataSourceProxy}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final long retryMillis;
+
+    private final LongSupplier clock;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, long retryMillis) {
+        this(primary, replicas, retryMillis, System::currentTimeMillis);
+    }
+
+    ReadWriteRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, long retryMillis,
+                               LongSupplier clock) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.retryMillis = retryMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (replicas.isEmpty()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReadYourWrites.isPinnedToPrimary()
+                || PrimaryReads.isActive()) {
+            return source.connect(primary);
+        }
+
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            long now = clock.getAsLong();
+            if (replica.downUntil > now) {
+                continue;
+            }
+            try {
+                return source.connect(replica.dataSource);
+            } catch (SQLException e) {
+                replica.downUntil = now + retryMillis;
+                log.warn("Read replica {} unavailable, skipping it for {} ms: {}", replica.dataSource, retryMillis,
+                        e.getMessage());
+            }
+        }
+        return source.connect(primary);
+    }
+
+    /**
+     * Measures every replica and skips those that trail the primary by more than {@code maxLagMillis}, or
+     * whose lag can't be measured, for the retry period; a replica found in sync is taken again at once.
+     */
+    public void probe(ReplicaLag lag, long maxLagMillis) {
+        for (Replica replica : replicas) {
+            long now = clock.getAsLong();
+            try {
+                long lagMillis = lag.millis(primary, replica.dataSource);
+                if (lagMillis <= maxLagMillis) {
+                    replica.downUntil = 0;
+                    continue;
+                }
+                if (replica.downUntil <= now) {
+                    log.warn("Read replica {} is {} ms behind, skipping it for {} ms", replica.dataSource, lagMillis,
+                            retryMillis);
+                }
+            } catch (SQLException | RuntimeException e) {
+                log.warn("Read replica {} could not be probed, skipping it for {} ms: {}", replica.dataSource,
+                        retryMillis, e.getMessage());
+            }
+            replica.downUntil = now + retryMillis;
+        }
+    }
+
+    /**
+     * Closes the replica pools, which are owned here; the primary is a bean of its own.
+     */
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final DataSource dataSource;
+
+        private volatile long downUntil;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
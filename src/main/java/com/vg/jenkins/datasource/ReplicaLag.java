@@ -0,0 +1,17 @@
+package com.vg.jenkins.datasource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Measures how far a replica trails the primary.
+ */
+@FunctionalInterface
+public interface ReplicaLag {
+
+    /**
+     * @return the age in milliseconds of the oldest write committed on the primary that the replica has not
+     * applied yet, 0 when it is up to date
+     */
+    long millis(DataSource primary, DataSource replica) throws SQLException;
+}
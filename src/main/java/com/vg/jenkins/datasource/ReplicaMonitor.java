@@ -0,0 +1,62 @@
+package com.vg.jenkins.datasource;
+
+import org.springframework.context.SmartLifecycle;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probes the replicas of a {@link ReadWriteRoutingDataSource} on a timer, so that one that is down or has
+ * fallen behind is taken out of the rotation before reads find out by waiting on it. An interval of 0 turns
+ * probing off.
+ */
+public class ReplicaMonitor implements SmartLifecycle {
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    private final ReplicaLag lag;
+
+    private final long maxLagMillis;
+
+    private final long intervalMillis;
+
+    private volatile ScheduledExecutorService scheduler;
+
+    public ReplicaMonitor(ReadWriteRoutingDataSource routingDataSource, ReplicaLag lag, long maxLagMillis,
+                          long intervalMillis) {
+        this.routingDataSource = routingDataSource;
+        this.lag = lag;
+        this.maxLagMillis = maxLagMillis;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @Override
+    public void start() {
+        if (intervalMillis <= 0) {
+            return;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> routingDataSource.probe(lag, maxLagMillis), 0, intervalMillis,
+                TimeUnit.MILLISECONDS);
+        scheduler = executor;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = scheduler;
+        scheduler = null;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.vg.jenkins.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class IngestionStatus {
+
+    public enum Status { PENDING, COMPLETED, FAILED }
+
+    private String trackingId;
+    private Status status;
+    private Long productId;
+    private String message;
+
+    public static IngestionStatus pending(String trackingId) {
+        return new IngestionStatus(trackingId, Status.PENDING, null, null);
+    }
+
+    public static IngestionStatus completed(String trackingId, Long productId) {
+        return new IngestionStatus(trackingId, Status.COMPLETED, productId, null);
+    }
+
+    public static IngestionStatus failed(String trackingId, String message) {
+        return new IngestionStatus(trackingId, Status.FAILED, null, message);
+    }
+}
@@ -0,0 +1,28 @@
+package com.vg.jenkins.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBatchResult {
+
+    public enum Status { CREATED, UPDATED, DELETED, NOT_FOUND, FAILED }
+
+    private int index;
+    private Long productId;
+    private Status status;
+    private String message;
+
+    public static ProductBatchResult of(int index, Long productId, Status status) {
+        return new ProductBatchResult(index, productId, status, null);
+    }
+
+    public static ProductBatchResult failed(int index, Long productId, String message) {
+        return new ProductBatchResult(index, productId, Status.FAILED, message);
+    }
+}
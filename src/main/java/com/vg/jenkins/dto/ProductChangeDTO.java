@@ -0,0 +1,21 @@
+package com.vg.jenkins.dto;
+
+import com.vg.jenkins.event.ProductChangedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductChangeDTO {
+    private long sequence;
+    private ProductChangedEvent.Type type;
+    private Long productId;
+    private ProductDTO product;
+    private Instant recordedAt;
+}
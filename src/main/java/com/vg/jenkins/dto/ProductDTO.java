@@ -1,5 +1,6 @@
 package com.vg.jenkins.dto;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,10 +13,13 @@ import java.time.LocalDate;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonPropertyOrder({"productId", "name", "description", "price", "createdAt", "updatedAt", "version"})
 public class ProductDTO {
+    private Long productId;
     private String name;
     private String description;
     private BigDecimal price;
     private LocalDate createdAt;
     private LocalDate updatedAt;
+    private Long version;
 }
@@ -0,0 +1,54 @@
+package com.vg.jenkins.dto;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The {@link ProductDTO} properties a client can select with {@code fields=}, in wire order.
+ */
+public enum ProductField {
+
+    PRODUCT_ID("productId"),
+    NAME("name"),
+    DESCRIPTION("description"),
+    PRICE("price"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    VERSION("version");
+
+    private final String property;
+
+    ProductField(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    /**
+     * Parses a comma-separated list of property names. The product ID is always included, since it is the cursor.
+     *
+     * @throws IllegalArgumentException for a name that is not a product property
+     */
+    public static Set<ProductField> parse(String fields) {
+        Set<ProductField> selected = EnumSet.of(PRODUCT_ID);
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            selected.add(fromProperty(property));
+        }
+        return selected;
+    }
+
+    private static ProductField fromProperty(String property) {
+        for (ProductField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown product field '" + property + "'");
+    }
+}
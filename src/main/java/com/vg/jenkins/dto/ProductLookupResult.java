@@ -0,0 +1,30 @@
+package com.vg.jenkins.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one requested ID in a multi-get; {@code product} is only set when it was found.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductLookupResult {
+
+    public enum Status { FOUND, NOT_FOUND }
+
+    private Long productId;
+    private Status status;
+    private ProductDTO product;
+
+    public static ProductLookupResult found(ProductDTO product) {
+        return new ProductLookupResult(product.getProductId(), Status.FOUND, product);
+    }
+
+    public static ProductLookupResult notFound(Long productId) {
+        return new ProductLookupResult(productId, Status.NOT_FOUND, null);
+    }
+}
@@ -0,0 +1,35 @@
+package com.vg.jenkins.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSearchCriteria {
+
+    public enum SortField { PRODUCT_ID, NAME, PRICE, CREATED_AT }
+
+    private String q;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdTo;
+    @Builder.Default
+    private SortField sort = SortField.PRODUCT_ID;
+    @Builder.Default
+    private boolean descending = false;
+    @Builder.Default
+    private int page = 0;
+    @Builder.Default
+    private int size = 20;
+}
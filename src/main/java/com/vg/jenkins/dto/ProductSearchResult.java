@@ -0,0 +1,19 @@
+package com.vg.jenkins.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSearchResult {
+    private long total;
+    private int page;
+    private int size;
+    private List<ProductDTO> items;
+}
@@ -0,0 +1,29 @@
+package com.vg.jenkins.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductStats {
+    private LocalDate from;
+    private LocalDate to;
+    private long count;
+    /**
+     * Products that have a price; the price aggregates cover only these.
+     */
+    private long pricedCount;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private BigDecimal sumPrice;
+    private BigDecimal averagePrice;
+    private Map<LocalDate, Long> createdPerDay;
+}
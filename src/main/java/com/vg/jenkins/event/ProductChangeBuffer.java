@@ -0,0 +1,84 @@
+package com.vg.jenkins.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sits between {@link ProductChangedEvent}s and an in-memory mirror of the catalog that is loaded from a
+ * full scan. While the scan runs, events are held back instead of applied; once it has finished they are
+ * replayed in the order they arrived. The scan reads one snapshot, so a row it returns can predate a change
+ * that committed while it was running: applied first, a delete would be undone by the scanned row and an
+ * update would be overwritten by it. Replayed afterwards, the change always wins.
+ * <p>
+ * Outside a load, events are passed straight through on the publishing thread.
+ */
+public final class ProductChangeBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeBuffer.class);
+
+    private final Consumer<ProductChangedEvent> apply;
+
+    /**
+     * Events held back during a load, {@code null} when no load is running.
+     */
+    private List<ProductChangedEvent> held;
+
+    public ProductChangeBuffer(Consumer<ProductChangedEvent> apply) {
+        this.apply = apply;
+    }
+
+    public void accept(ProductChangedEvent event) {
+        synchronized (this) {
+            if (held != null) {
+                held.add(event);
+                return;
+            }
+        }
+        apply.accept(event);
+    }
+
+    /**
+     * Runs {@code load} with events held back, then replays them; also when the load fails, so no change
+     * is lost.
+     */
+    public void load(Runnable load) {
+        synchronized (this) {
+            held = new ArrayList<>();
+        }
+        try {
+            load.run();
+        } finally {
+            replay();
+        }
+    }
+
+    /**
+     * Applies the held events outside the lock, batch by batch, and only stops holding once a batch comes
+     * up empty, so an event arriving during the replay still lands after the ones before it.
+     */
+    private void replay() {
+        while (true) {
+            List<ProductChangedEvent> batch;
+            synchronized (this) {
+                if (held.isEmpty()) {
+                    held = null;
+                    return;
+                }
+                batch = held;
+                held = new ArrayList<>();
+            }
+            for (ProductChangedEvent event : batch) {
+                try {
+                    apply.accept(event);
+                } catch (RuntimeException e) {
+                    // Holding on would stall every later event, so a failing one is logged and skipped
+                    log.warn("Could not apply held {} of product {}", event.type(), event.productId(), e);
+                }
+            }
+        }
+    }
+}
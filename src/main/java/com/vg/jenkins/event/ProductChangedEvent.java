@@ -0,0 +1,28 @@
+package com.vg.jenkins.event;
+
+import com.vg.jenkins.dto.ProductDTO;
+
+/**
+ * Published by the service for every product write, inside the writing transaction.
+ * Listeners that mirror product state should use {@code @TransactionalEventListener} so they
+ * only see committed changes.
+ * <p>
+ * For {@link Type#CREATED} and {@link Type#UPDATED} the product is the stored row, including
+ * its new version. For {@link Type#DELETED} the product is {@code null}.
+ */
+public record ProductChangedEvent(Type type, Long productId, ProductDTO product) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public static ProductChangedEvent created(ProductDTO product) {
+        return new ProductChangedEvent(Type.CREATED, product.getProductId(), product);
+    }
+
+    public static ProductChangedEvent updated(ProductDTO product) {
+        return new ProductChangedEvent(Type.UPDATED, product.getProductId(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(Type.DELETED, productId, null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.vg.jenkins.exception;
+
+public class IngestionQueueFullException extends RuntimeException {
+
+    public IngestionQueueFullException(int capacity) {
+        super("Ingestion queue is full, " + capacity + " products are waiting to be written");
+    }
+}
@@ -0,0 +1,8 @@
+package com.vg.jenkins.exception;
+
+public class ProductNotFoundException extends RuntimeException {
+
+    public ProductNotFoundException(Long id) {
+        super("Product with ID " + id + " not found");
+    }
+}
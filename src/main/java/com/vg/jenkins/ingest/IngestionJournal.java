@@ -0,0 +1,243 @@
+package com.vg.jenkins.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.vg.jenkins.dto.ProductDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Append-only log of accepted and finished ingestions, one JSON entry per line. Replaying it yields the
+ * products that were acknowledged but never written, and the file is emptied whenever nothing is outstanding.
+ * <p>
+ * A crash between a write committing and its {@code DONE} entry reaching the log replays that product,
+ * so recovery is at-least-once.
+ * <p>
+ * Appends are group-committed: callers queue their entries and wait, and one writer thread takes whatever
+ * has queued up, writes it in one go and forces it to disk once for the whole group before releasing the
+ * callers. Under load one fsync covers many saves instead of each save paying for its own.
+ */
+class IngestionJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionJournal.class);
+
+    enum Type { ACCEPTED, DONE }
+
+    record Entry(Type type, String trackingId, ProductDTO product) {
+
+        static Entry accepted(String trackingId, ProductDTO product) {
+            return new Entry(Type.ACCEPTED, trackingId, product);
+        }
+
+        static Entry done(String trackingId) {
+            return new Entry(Type.DONE, trackingId, null);
+        }
+    }
+
+    private final Path path;
+
+    private final boolean fsync;
+
+    private final ObjectWriter writer;
+
+    private final ObjectReader reader;
+
+    private record Append(List<Entry> entries, CompletableFuture<Void> written) {
+    }
+
+    /**
+     * Queued last by {@link #close}; the writer finishes the appends ahead of it and stops.
+     */
+    private static final Append CLOSE = new Append(List.of(), null);
+
+    private final BlockingQueue<Append> appends = new LinkedBlockingQueue<>();
+
+    private FileChannel channel;
+
+    private Thread writerThread;
+
+    private boolean closed;
+
+    IngestionJournal(Path path, boolean fsync, ObjectMapper objectMapper) {
+        this.path = path;
+        this.fsync = fsync;
+        this.writer = objectMapper.writerFor(Entry.class);
+        this.reader = objectMapper.readerFor(Entry.class);
+    }
+
+    /**
+     * Replays the log, rewrites it with only the outstanding entries and opens it for appending.
+     *
+     * @return the accepted entries without a matching {@code DONE}, in acceptance order
+     */
+    synchronized List<Entry> open() throws IOException {
+        Map<String, Entry> outstanding = new LinkedHashMap<>();
+        if (Files.exists(path)) {
+            try (BufferedReader lines = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        Entry entry = reader.readValue(line);
+                        if (entry.type() == Type.ACCEPTED) {
+                            outstanding.put(entry.trackingId(), entry);
+                        } else {
+                            outstanding.remove(entry.trackingId());
+                        }
+                    } catch (JsonProcessingException e) {
+                        // A torn last line from a crash mid-append; it was never acknowledged
+                        log.warn("Skipping unreadable ingestion journal entry: {}", e.getOriginalMessage());
+                    }
+                }
+            }
+        } else if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        List<Entry> entries = new ArrayList<>(outstanding.values());
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(out, entries);
+            out.force(true);
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        writerThread = new Thread(this::writeGroups, "product-ingestion-journal");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        return entries;
+    }
+
+    /**
+     * Queues the entries for the next group and waits for it; durable on return when fsync is enabled.
+     */
+    void append(List<Entry> entries) throws IOException {
+        Append append = new Append(entries, new CompletableFuture<>());
+        synchronized (appends) {
+            if (closed) {
+                throw new IOException("Ingestion journal " + path + " is closed");
+            }
+            appends.add(append);
+        }
+        try {
+            append.written().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Appending to ingestion journal " + path + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the ingestion journal");
+        }
+    }
+
+    /**
+     * Empties the log if nothing is outstanding. Group writes hold the same lock, and an entry is only
+     * accepted after its product was counted as outstanding, so it can never be lost to the truncation.
+     */
+    synchronized void truncateIf(BooleanSupplier idle) throws IOException {
+        if (channel.size() > 0 && idle.getAsBoolean()) {
+            channel.truncate(0);
+        }
+    }
+
+    /**
+     * Writes the appends queued so far, then closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (appends) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            appends.add(CLOSE);
+        }
+        if (writerThread != null) {
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    private void writeGroups() {
+        List<Append> group = new ArrayList<>();
+        boolean closing = false;
+        while (!closing) {
+            try {
+                group.add(appends.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            appends.drainTo(group);
+            closing = group.remove(CLOSE);
+            if (!group.isEmpty()) {
+                writeGroup(group);
+            }
+            group.clear();
+        }
+    }
+
+    private void writeGroup(List<Append> group) {
+        List<Entry> entries = new ArrayList<>();
+        group.forEach(append -> entries.addAll(append.entries()));
+        try {
+            synchronized (this) {
+                write(channel, entries);
+                if (fsync) {
+                    channel.force(false);
+                }
+            }
+            group.forEach(append -> append.written().complete(null));
+        } catch (IOException | RuntimeException e) {
+            group.forEach(append -> append.written().completeExceptionally(e));
+        }
+    }
+
+    private void write(FileChannel out, List<Entry> entries) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (Entry entry : entries) {
+            lines.append(writer.writeValueAsString(entry)).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.vg.jenkins.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.dto.IngestionStatus;
+import com.vg.jenkins.dto.ProductBatchResult;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.exception.IngestionQueueFullException;
+import com.vg.jenkins.service.ProductService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind path for product saves: a save is journaled, queued and acknowledged with a tracking ID,
+ * and a single drainer thread writes whatever has queued up through {@link ProductService#saveAll} so that
+ * bursts turn into JDBC batches instead of one insert per request.
+ * <p>
+ * The queue is bounded by a CAS-reserved count of outstanding products rather than a lock. Outstanding
+ * products still in the journal at startup are queued again before the web server starts accepting.
+ */
+@Component
+@ConditionalOnProperty(prefix = "product.ingestion", name = "enabled", havingValue = "true")
+public class ProductIngestion implements SmartLifecycle, MeterBinder {
+
+    public static final String PENDING_METRIC = "product.ingestion.pending";
+
+    public static final String REJECTED_METRIC = "product.ingestion.rejected";
+
+    private static final Logger log = LoggerFactory.getLogger(ProductIngestion.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final ProductService productService;
+
+    private final ProductProperties.Ingestion ingestion;
+
+    private final IngestionJournal journal;
+
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Accepted products not yet written, whether still queued or in the drain being written.
+     */
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final Cache<String, IngestionStatus> statuses;
+
+    private volatile boolean running;
+
+    private volatile Thread drainer;
+
+    @Autowired
+    public ProductIngestion(ProductService productService, ProductProperties productProperties,
+                            ObjectMapper objectMapper) {
+        this.productService = productService;
+        this.ingestion = productProperties.getIngestion();
+        this.journal = new IngestionJournal(Path.of(ingestion.getJournalPath()), ingestion.isFsync(), objectMapper);
+        this.statuses = Caffeine.from(ingestion.getStatusSpec()).build();
+    }
+
+    private record Pending(String trackingId, ProductDTO product) {
+    }
+
+    /**
+     * Journals the product, sharing the journal write and its fsync with concurrent submits, and queues it.
+     *
+     * @throws IngestionQueueFullException when the configured number of products is already outstanding
+     */
+    public IngestionStatus submit(ProductDTO product) {
+        reserve();
+        String trackingId = UUID.randomUUID().toString();
+        try {
+            journal.append(List.of(IngestionJournal.Entry.accepted(trackingId, product)));
+        } catch (IOException e) {
+            outstanding.decrementAndGet();
+            throw new UncheckedIOException("Could not journal product " + trackingId, e);
+        }
+
+        IngestionStatus status = IngestionStatus.pending(trackingId);
+        statuses.put(trackingId, status);
+        queue.offer(new Pending(trackingId, product));
+        LockSupport.unpark(drainer);
+        return status;
+    }
+
+    public Optional<IngestionStatus> status(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    private void reserve() {
+        int capacity = ingestion.getCapacity();
+        int current;
+        do {
+            current = outstanding.get();
+            if (current >= capacity) {
+                rejected.incrementAndGet();
+                throw new IngestionQueueFullException(capacity);
+            }
+        } while (!outstanding.compareAndSet(current, current + 1));
+    }
+
+    @Override
+    public void start() {
+        List<IngestionJournal.Entry> recovered;
+        try {
+            recovered = journal.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open ingestion journal " + ingestion.getJournalPath(), e);
+        }
+        // Recovered products were acknowledged before the restart, so they are queued even beyond capacity
+        for (IngestionJournal.Entry entry : recovered) {
+            outstanding.incrementAndGet();
+            statuses.put(entry.trackingId(), IngestionStatus.pending(entry.trackingId()));
+            queue.offer(new Pending(entry.trackingId(), entry.product()));
+        }
+        if (!recovered.isEmpty()) {
+            log.info("Recovered {} unwritten products from the ingestion journal", recovered.size());
+        }
+
+        running = true;
+        Thread thread = new Thread(this::drain, "product-ingestion");
+        thread.setDaemon(true);
+        drainer = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops after the web server, and writes everything already accepted before returning.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = drainer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Could not close ingestion journal", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(PENDING_METRIC, outstanding, AtomicInteger::get)
+                .description("Accepted products not yet written")
+                .register(registry);
+        FunctionCounter.builder(REJECTED_METRIC, rejected, AtomicLong::get)
+                .description("Saves rejected because the ingestion queue was full")
+                .register(registry);
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(ingestion.getBatchSize());
+        while (true) {
+            Pending next;
+            while (batch.size() < ingestion.getBatchSize() && (next = queue.poll()) != null) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<IngestionStatus> results = new ArrayList<>(batch.size());
+        try {
+            List<ProductBatchResult> saved = productService.saveAll(batch.stream().map(Pending::product).toList());
+            for (ProductBatchResult result : saved) {
+                String trackingId = batch.get(result.getIndex()).trackingId();
+                results.add(result.getStatus() == ProductBatchResult.Status.CREATED
+                        ? IngestionStatus.completed(trackingId, result.getProductId())
+                        : IngestionStatus.failed(trackingId, result.getMessage()));
+            }
+        } catch (RuntimeException e) {
+            log.error("Writing {} queued products failed", batch.size(), e);
+            results.clear();
+            batch.forEach(pending -> results.add(IngestionStatus.failed(pending.trackingId(), e.getMessage())));
+        }
+
+        try {
+            journal.append(results.stream().map(result -> IngestionJournal.Entry.done(result.getTrackingId())).toList());
+        } catch (IOException e) {
+            // The products stay outstanding in the journal and are written again on the next start
+            log.error("Could not journal {} finished ingestions", results.size(), e);
+        }
+        results.forEach(result -> statuses.put(result.getTrackingId(), result));
+        outstanding.addAndGet(-batch.size());
+
+        try {
+            journal.truncateIf(() -> outstanding.get() == 0);
+        } catch (IOException e) {
+            log.warn("Could not truncate ingestion journal", e);
+        }
+    }
+}
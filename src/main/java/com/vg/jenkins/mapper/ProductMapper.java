@@ -3,11 +3,15 @@ package com.vg.jenkins.mapper;
 import com.vg.jenkins.dto.ProductDTO;
 import com.vg.jenkins.model.Product;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface ProductMapper {
 
     ProductDTO mapToDTO(Product product);
+
+    @Mapping(target = "productId", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Product mapToEntity(ProductDTO productDTO);
 
 }
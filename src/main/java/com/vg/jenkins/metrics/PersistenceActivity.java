@@ -0,0 +1,49 @@
+package com.vg.jenkins.metrics;
+
+/**
+ * Counts the JDBC statements prepared and the entities loaded by the current thread between
+ * {@link #start()} and {@link #stop()}, so each request can be charged with its own database work.
+ */
+public final class PersistenceActivity {
+
+    private static final ThreadLocal<PersistenceActivity> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+
+    private int entitiesLoaded;
+
+    private PersistenceActivity() {
+    }
+
+    public static PersistenceActivity start() {
+        PersistenceActivity activity = new PersistenceActivity();
+        CURRENT.set(activity);
+        return activity;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    static void statementPrepared() {
+        PersistenceActivity activity = CURRENT.get();
+        if (activity != null) {
+            activity.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        PersistenceActivity activity = CURRENT.get();
+        if (activity != null) {
+            activity.entitiesLoaded++;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+}
@@ -0,0 +1,168 @@
+package com.vg.jenkins.metrics;
+
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.service.ProductServiceImpl;
+import com.vg.jenkins.web.RequestMetricsFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects the product hot-path timings, per-request database work and Hibernate statistics in one
+ * place, exposed at {@code /actuator/products-perf}. Percentiles are only present for meters that
+ * have them configured under {@code management.metrics.distribution.percentiles}.
+ */
+@Component
+@Endpoint(id = "productsperf")
+public class ProductPerformanceEndpoint {
+
+    static final String HTTP_METRIC = "http.server.requests";
+
+    static final String SERVICE_METRIC = "product.service";
+
+    static final String REPOSITORY_METRIC = "spring.data.repository.invocations";
+
+    private final MeterRegistry meterRegistry;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ProductProperties.Metrics metrics;
+
+    @Autowired
+    public ProductPerformanceEndpoint(MeterRegistry meterRegistry, EntityManagerFactory entityManagerFactory,
+                                      ProductProperties productProperties) {
+        this.meterRegistry = meterRegistry;
+        this.entityManagerFactory = entityManagerFactory;
+        this.metrics = productProperties.getMetrics();
+    }
+
+    @ReadOperation
+    public PerformanceReport report() {
+        return new PerformanceReport(
+                timers(HTTP_METRIC),
+                timers(SERVICE_METRIC),
+                timers(REPOSITORY_METRIC),
+                summaries(RequestMetricsFilter.STATEMENTS_METRIC),
+                summaries(RequestMetricsFilter.ENTITIES_LOADED_METRIC),
+                notFound(),
+                hibernate());
+    }
+
+    private List<TimerView> timers(String name) {
+        return sorted(meterRegistry.find(name).timers(), timer -> {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            return new TimerView(tags(timer), snapshot.count(),
+                    snapshot.mean(TimeUnit.MILLISECONDS), snapshot.max(TimeUnit.MILLISECONDS),
+                    percentiles(snapshot, value -> value.value(TimeUnit.MILLISECONDS)));
+        });
+    }
+
+    private List<SummaryView> summaries(String name) {
+        return sorted(meterRegistry.find(name).summaries(), summary -> {
+            HistogramSnapshot snapshot = summary.takeSnapshot();
+            return new SummaryView(tags(summary), snapshot.count(), snapshot.mean(), snapshot.max(),
+                    percentiles(snapshot, ValueAtPercentile::value));
+        });
+    }
+
+    private Map<String, Double> notFound() {
+        Map<String, Double> counts = new LinkedHashMap<>();
+        for (Counter counter : meterRegistry.find(ProductServiceImpl.NOT_FOUND_METRIC).counters()) {
+            counts.put(counter.getId().getTag("operation"), counter.count());
+        }
+        return counts;
+    }
+
+    private HibernateView hibernate() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return new HibernateView(false, 0, 0, 0, 0, 0, 0, 0, List.of());
+        }
+        List<SlowQuery> slowQueries = Arrays.stream(statistics.getQueries())
+                .map(query -> {
+                    QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+                    return new SlowQuery(query, queryStatistics.getExecutionCount(),
+                            queryStatistics.getExecutionMaxTime(), queryStatistics.getExecutionAvgTime(),
+                            queryStatistics.getExecutionRowCount());
+                })
+                .filter(query -> query.maxMillis() >= metrics.getSlowQueryThresholdMillis())
+                .sorted(Comparator.comparingLong(SlowQuery::maxMillis).reversed())
+                .limit(metrics.getSlowQuerySamples())
+                .toList();
+        return new HibernateView(true,
+                statistics.getPrepareStatementCount(),
+                statistics.getQueryExecutionCount(),
+                statistics.getEntityLoadCount(),
+                statistics.getEntityFetchCount(),
+                statistics.getCollectionFetchCount(),
+                statistics.getFlushCount(),
+                statistics.getQueryExecutionMaxTime(),
+                slowQueries);
+    }
+
+    private static <M extends Meter, V> List<V> sorted(Collection<M> meters, Function<M, V> view) {
+        return meters.stream()
+                .sorted(Comparator.comparing(meter -> meter.getId().getTags().toString()))
+                .map(view)
+                .toList();
+    }
+
+    private static Map<String, String> tags(Meter meter) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (Tag tag : meter.getId().getTags()) {
+            tags.put(tag.getKey(), tag.getValue());
+        }
+        return tags;
+    }
+
+    private static Map<String, Double> percentiles(HistogramSnapshot snapshot, Function<ValueAtPercentile, Double> value) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            String name = "p" + BigDecimal.valueOf(percentile.percentile() * 100).stripTrailingZeros().toPlainString();
+            percentiles.put(name, value.apply(percentile));
+        }
+        return percentiles;
+    }
+
+    public record PerformanceReport(List<TimerView> requests, List<TimerView> services, List<TimerView> repositories,
+                                    List<SummaryView> statementsPerRequest, List<SummaryView> entitiesLoadedPerRequest,
+                                    Map<String, Double> notFound, HibernateView hibernate) {
+    }
+
+    public record TimerView(Map<String, String> tags, long count, double meanMillis, double maxMillis,
+                            Map<String, Double> percentilesMillis) {
+    }
+
+    public record SummaryView(Map<String, String> tags, long count, double mean, double max,
+                              Map<String, Double> percentiles) {
+    }
+
+    public record HibernateView(boolean enabled, long preparedStatements, long queryExecutions, long entitiesLoaded,
+                                long entitiesFetched, long collectionsFetched, long flushes, long queryMaxMillis,
+                                List<SlowQuery> slowQueries) {
+    }
+
+    public record SlowQuery(String query, long executions, long maxMillis, long avgMillis, long rows) {
+    }
+}
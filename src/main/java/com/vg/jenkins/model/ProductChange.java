@@ -0,0 +1,38 @@
+package com.vg.jenkins.model;
+
+import com.vg.jenkins.event.ProductChangedEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Outbox row for one product write, inserted in the same transaction as the write itself.
+ * The payload is the JSON of the product as published, {@code null} for deletes.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "product_changes", indexes = @Index(name = "idx_product_changes_recorded_at", columnList = "recorded_at"))
+public class ProductChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "sequence_number")
+    private Long sequence;
+    @Column(nullable = false)
+    private Long productId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ProductChangedEvent.Type type;
+    @Column(length = 4000)
+    private String payload;
+    @Column(nullable = false)
+    private Instant recordedAt;
+
+}
@@ -0,0 +1,638 @@
+package com.vg.jenkins.readmodel;
+
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.datasource.PrimaryReads;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductField;
+import com.vg.jenkins.event.ProductChangeBuffer;
+import com.vg.jenkins.event.ProductChangedEvent;
+import com.vg.jenkins.service.ProductService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Off-heap, column-per-field copy of the whole catalog for read-heavy nodes. Each column is a direct
+ * buffer indexed by row: IDs, versions and prices (as cents) are {@code long}s, dates are epoch days, and
+ * names and descriptions are references into one shared UTF-8 arena. Rows are kept in ID order, so a point
+ * read is a binary search and a page is a contiguous scan; neither touches JPA nor keeps anything on the
+ * heap beyond the DTOs it returns.
+ * <p>
+ * It is loaded at startup and then kept current from {@link ProductChangedEvent}s; changes that commit
+ * during the load are held back by a {@link ProductChangeBuffer} and applied after it. Deletes leave a
+ * tombstone and replaced strings leave garbage in the arena; both are reclaimed by compacting once they
+ * pass a quarter of the rows or half of the arena. Until the load has finished nothing is served from
+ * here. Direct buffers count against {@code -XX:MaxDirectMemorySize}, which has to leave room for the
+ * catalog; each column and the arena are limited to 2 GB.
+ */
+@Component
+public class ProductColumnStore implements MeterBinder {
+
+    public static final String ROWS_METRIC = "product.readmodel.rows";
+
+    public static final String BYTES_METRIC = "product.readmodel.bytes";
+
+    /**
+     * Scale of the price column; prices are stored as unscaled units of it.
+     */
+    static final int PRICE_SCALE = 2;
+
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private static final int NULL_INT = Integer.MIN_VALUE;
+
+    private static final long NULL_STRING = -1L;
+
+    private static final int LENGTH_BITS = 24;
+
+    private static final long LENGTH_MASK = (1L << LENGTH_BITS) - 1;
+
+    private static final byte LIVE = 1;
+
+    private static final byte DELETED = 0;
+
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 1024;
+
+    private static final int MIN_GARBAGE_TO_COMPACT = 1024 * 1024;
+
+    private final ProductProperties.ReadModel settings;
+
+    private final ObjectProvider<ProductService> productService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ProductChangeBuffer changes = new ProductChangeBuffer(this::apply);
+
+    private final byte[] shiftBuffer = new byte[8192];
+
+    private Columns columns;
+
+    private ByteBuffer arena;
+
+    private int rows;
+
+    private int liveRows;
+
+    private int arenaUsed;
+
+    private int arenaGarbage;
+
+    private boolean loading;
+
+    private volatile boolean serving;
+
+    @Autowired
+    public ProductColumnStore(ProductProperties productProperties, ObjectProvider<ProductService> productService) {
+        this.settings = productProperties.getReadModel();
+        this.productService = productService;
+    }
+
+    /**
+     * One direct buffer per field, all sized for the same number of rows.
+     */
+    private static final class Columns {
+
+        static final int ROW_BYTES = 8 + 8 + 8 + 4 + 4 + 8 + 8 + 1;
+
+        final int capacity;
+
+        final ByteBuffer ids;
+
+        final ByteBuffer versions;
+
+        final ByteBuffer prices;
+
+        final ByteBuffer createdDays;
+
+        final ByteBuffer updatedDays;
+
+        final ByteBuffer names;
+
+        final ByteBuffer descriptions;
+
+        final ByteBuffer states;
+
+        Columns(int capacity) {
+            this.capacity = capacity;
+            this.ids = allocate(capacity, Long.BYTES);
+            this.versions = allocate(capacity, Long.BYTES);
+            this.prices = allocate(capacity, Long.BYTES);
+            this.createdDays = allocate(capacity, Integer.BYTES);
+            this.updatedDays = allocate(capacity, Integer.BYTES);
+            this.names = allocate(capacity, Long.BYTES);
+            this.descriptions = allocate(capacity, Long.BYTES);
+            this.states = allocate(capacity, 1);
+        }
+
+        /**
+         * Copies the fixed-width fields of {@code rows} rows; string references are left to the caller.
+         */
+        void copyFixed(int sourceRow, Columns target, int targetRow, int rows) {
+            copy(ids, sourceRow, target.ids, targetRow, rows, Long.BYTES);
+            copy(versions, sourceRow, target.versions, targetRow, rows, Long.BYTES);
+            copy(prices, sourceRow, target.prices, targetRow, rows, Long.BYTES);
+            copy(createdDays, sourceRow, target.createdDays, targetRow, rows, Integer.BYTES);
+            copy(updatedDays, sourceRow, target.updatedDays, targetRow, rows, Integer.BYTES);
+            copy(states, sourceRow, target.states, targetRow, rows, 1);
+        }
+
+        ByteBuffer[] all() {
+            return new ByteBuffer[] {ids, versions, prices, createdDays, updatedDays, names, descriptions, states};
+        }
+
+        private static ByteBuffer allocate(int rows, int width) {
+            return ByteBuffer.allocateDirect(Math.multiplyExact(rows, width)).order(ByteOrder.nativeOrder());
+        }
+
+        private static void copy(ByteBuffer source, int sourceRow, ByteBuffer target, int targetRow, int rows, int width) {
+            target.put(targetRow * width, source, sourceRow * width, rows * width);
+        }
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void load() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            columns = new Columns(Math.max(16, settings.getInitialRows()));
+            arena = ByteBuffer.allocateDirect(Math.max(1024, settings.getInitialArenaBytes()));
+            rows = 0;
+            liveRows = 0;
+            arenaUsed = 0;
+            arenaGarbage = 0;
+            loading = true;
+            serving = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        changes.load(() -> PrimaryReads.run(() -> productService.getObject().streamAll(this::put)));
+
+        lock.writeLock().lock();
+        try {
+            loading = false;
+            compactIfNeeded();
+            serving = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs ahead of the other listeners, so a reader that has seen the new catalog version also sees the
+     * write here.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        changes.accept(event);
+    }
+
+    private void apply(ProductChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> put(event.product());
+            case UPDATED -> merge(event.product());
+            case DELETED -> remove(event.productId());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(ROWS_METRIC, this, ProductColumnStore::size)
+                .description("Products held in the off-heap read model")
+                .register(registry);
+        Gauge.builder(BYTES_METRIC, this, ProductColumnStore::offHeapBytes)
+                .description("Direct memory allocated for the off-heap read model")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Whether the load has finished and reads may be served from here.
+     */
+    public boolean isServing() {
+        return serving;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveRows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return columns == null ? 0 : (long) columns.capacity * Columns.ROW_BYTES + arena.capacity();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<ProductDTO> findById(long id) {
+        lock.readLock().lock();
+        try {
+            int row = columns == null ? -1 : search(id);
+            return row >= 0 && isLive(row) ? Optional.of(product(row)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ProductDTO> findPage(long after, int limit) {
+        lock.readLock().lock();
+        try {
+            List<ProductDTO> page = new ArrayList<>(Math.min(limit, liveRows));
+            for (int row = firstAfter(after); row < rows && page.size() < limit; row++) {
+                if (isLive(row)) {
+                    page.add(product(row));
+                }
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Same shape as the repository's field-set pages: the selected properties in wire order.
+     */
+    public List<Map<String, Object>> findPageFields(long after, int limit, Set<ProductField> fields) {
+        lock.readLock().lock();
+        try {
+            List<Map<String, Object>> page = new ArrayList<>(Math.min(limit, liveRows));
+            for (int row = firstAfter(after); row < rows && page.size() < limit; row++) {
+                if (!isLive(row)) {
+                    continue;
+                }
+                Map<String, Object> product = new LinkedHashMap<>(fields.size() * 2);
+                for (ProductField field : fields) {
+                    product.put(field.property(), value(row, field));
+                }
+                page.add(product);
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ProductDTO> findAll() {
+        return findPage(Long.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    public void put(ProductDTO product) {
+        lock.writeLock().lock();
+        try {
+            if (columns == null) {
+                return;
+            }
+            int row = search(product.getProductId());
+            if (row >= 0) {
+                // IDs are never reused, so a deleted row stays deleted even if a stale copy comes along
+                if (isLive(row) && !isOlder(product.getVersion(), longOrNull(columns.versions, row))) {
+                    write(row, product);
+                }
+                return;
+            }
+            row = -row - 1;
+            insertRow(row);
+            columns.ids.putLong(row * Long.BYTES, product.getProductId());
+            columns.states.put(row, LIVE);
+            columns.names.putLong(row * Long.BYTES, NULL_STRING);
+            columns.descriptions.putLong(row * Long.BYTES, NULL_STRING);
+            write(row, product);
+            liveRows++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies an update, keeping the creation date and deriving the version from the stored row when the
+     * update does not carry them.
+     */
+    public void merge(ProductDTO update) {
+        lock.writeLock().lock();
+        try {
+            if (columns == null) {
+                return;
+            }
+            int row = search(update.getProductId());
+            ProductDTO merged = ProductDTO.builder()
+                    .productId(update.getProductId())
+                    .name(update.getName())
+                    .description(update.getDescription())
+                    .price(update.getPrice())
+                    .createdAt(update.getCreatedAt())
+                    .updatedAt(update.getUpdatedAt())
+                    .version(update.getVersion())
+                    .build();
+            if (row >= 0) {
+                if (merged.getCreatedAt() == null) {
+                    merged.setCreatedAt(date(columns.createdDays, row));
+                }
+                Long version = longOrNull(columns.versions, row);
+                if (merged.getVersion() == null && version != null) {
+                    merged.setVersion(version + 1);
+                }
+            }
+            put(merged);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            if (columns == null) {
+                return;
+            }
+            int row = search(productId);
+            if (row < 0 || !isLive(row)) {
+                return;
+            }
+            columns.states.put(row, DELETED);
+            releaseString(columns.names, row);
+            releaseString(columns.descriptions, row);
+            liveRows--;
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(int row, ProductDTO product) {
+        putLongOrNull(columns.versions, row, product.getVersion());
+        putLongOrNull(columns.prices, row, priceUnits(product.getPrice()));
+        putDate(columns.createdDays, row, product.getCreatedAt());
+        putDate(columns.updatedDays, row, product.getUpdatedAt());
+        replaceString(columns.names, row, product.getName());
+        replaceString(columns.descriptions, row, product.getDescription());
+        compactIfNeeded();
+    }
+
+    private ProductDTO product(int row) {
+        return new ProductDTO(
+                columns.ids.getLong(row * Long.BYTES),
+                string(columns.names, row),
+                string(columns.descriptions, row),
+                price(row),
+                date(columns.createdDays, row),
+                date(columns.updatedDays, row),
+                longOrNull(columns.versions, row));
+    }
+
+    private Object value(int row, ProductField field) {
+        return switch (field) {
+            case PRODUCT_ID -> columns.ids.getLong(row * Long.BYTES);
+            case NAME -> string(columns.names, row);
+            case DESCRIPTION -> string(columns.descriptions, row);
+            case PRICE -> price(row);
+            case CREATED_AT -> date(columns.createdDays, row);
+            case UPDATED_AT -> date(columns.updatedDays, row);
+            case VERSION -> longOrNull(columns.versions, row);
+        };
+    }
+
+    private boolean isLive(int row) {
+        return columns.states.get(row) == LIVE;
+    }
+
+    /**
+     * Binary search over the ID column: the row of {@code id}, or {@code -(insertion point) - 1}.
+     */
+    private int search(long id) {
+        int low = 0;
+        int high = rows - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = columns.ids.getLong(mid * Long.BYTES);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int firstAfter(long after) {
+        if (columns == null) {
+            return 0;
+        }
+        int row = search(after);
+        return row >= 0 ? row + 1 : -row - 1;
+    }
+
+    /**
+     * Opens a row at {@code row}. Writes normally arrive in ID order and append; a transaction that commits
+     * after one with a higher ID shifts the rows above it up by one.
+     */
+    private void insertRow(int row) {
+        if (rows == columns.capacity) {
+            Columns grown = new Columns(Math.multiplyExact(columns.capacity, 2));
+            columns.copyFixed(0, grown, 0, rows);
+            grown.names.put(0, columns.names, 0, rows * Long.BYTES);
+            grown.descriptions.put(0, columns.descriptions, 0, rows * Long.BYTES);
+            columns = grown;
+        }
+        if (row < rows) {
+            int[] widths = {Long.BYTES, Long.BYTES, Long.BYTES, Integer.BYTES, Integer.BYTES, Long.BYTES, Long.BYTES, 1};
+            ByteBuffer[] all = columns.all();
+            for (int i = 0; i < all.length; i++) {
+                shiftUp(all[i], row * widths[i], (rows - row) * widths[i], widths[i]);
+            }
+        }
+        rows++;
+    }
+
+    /**
+     * Moves {@code length} bytes from {@code from} up by {@code by}, copying from the top down so the
+     * overlapping ranges don't clobber each other.
+     */
+    private void shiftUp(ByteBuffer column, int from, int length, int by) {
+        int end = from + length;
+        while (end > from) {
+            int start = Math.max(from, end - shiftBuffer.length);
+            column.get(start, shiftBuffer, 0, end - start);
+            column.put(start + by, shiftBuffer, 0, end - start);
+            end = start;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (loading) {
+            // The load only appends; compacting once at its end is cheaper than along the way
+            return;
+        }
+        int tombstones = rows - liveRows;
+        if ((tombstones >= MIN_TOMBSTONES_TO_COMPACT && tombstones > rows / 4)
+                || (arenaGarbage >= MIN_GARBAGE_TO_COMPACT && arenaGarbage > arenaUsed / 2)) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites the live rows, and the strings they reference, into fresh buffers.
+     */
+    private void compact() {
+        Columns compacted = new Columns(Math.max(columns.capacity / 2, Math.max(16, liveRows * 2)));
+        ByteBuffer oldArena = arena;
+        arena = ByteBuffer.allocateDirect(Math.max(1024, (arenaUsed - arenaGarbage) * 2));
+        arenaUsed = 0;
+        arenaGarbage = 0;
+        int target = 0;
+        for (int row = 0; row < rows; row++) {
+            if (!isLive(row)) {
+                continue;
+            }
+            columns.copyFixed(row, compacted, target, 1);
+            compacted.names.putLong(target * Long.BYTES, copyString(oldArena, columns.names.getLong(row * Long.BYTES)));
+            compacted.descriptions.putLong(target * Long.BYTES,
+                    copyString(oldArena, columns.descriptions.getLong(row * Long.BYTES)));
+            target++;
+        }
+        columns = compacted;
+        rows = target;
+    }
+
+    private long copyString(ByteBuffer source, long reference) {
+        if (reference == NULL_STRING) {
+            return NULL_STRING;
+        }
+        byte[] bytes = new byte[length(reference)];
+        source.get(offset(reference), bytes);
+        return append(bytes);
+    }
+
+    private void replaceString(ByteBuffer column, int row, String value) {
+        long previous = column.getLong(row * Long.BYTES);
+        if (value == null) {
+            releaseString(column, row);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (previous != NULL_STRING && sameBytes(previous, bytes)) {
+            return;
+        }
+        releaseString(column, row);
+        column.putLong(row * Long.BYTES, append(bytes));
+    }
+
+    private void releaseString(ByteBuffer column, int row) {
+        long previous = column.getLong(row * Long.BYTES);
+        if (previous != NULL_STRING) {
+            arenaGarbage += length(previous);
+            column.putLong(row * Long.BYTES, NULL_STRING);
+        }
+    }
+
+    private long append(byte[] bytes) {
+        if (bytes.length > LENGTH_MASK) {
+            throw new IllegalArgumentException("Product text of " + bytes.length + " bytes is too long for the read model");
+        }
+        if (arena.capacity() - arenaUsed < bytes.length) {
+            ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(Math.multiplyExact(arena.capacity(), 2),
+                    Math.addExact(arenaUsed, bytes.length)));
+            grown.put(0, arena, 0, arenaUsed);
+            arena = grown;
+        }
+        arena.put(arenaUsed, bytes);
+        long reference = ((long) arenaUsed << LENGTH_BITS) | bytes.length;
+        arenaUsed += bytes.length;
+        return reference;
+    }
+
+    private boolean sameBytes(long reference, byte[] bytes) {
+        if (length(reference) != bytes.length) {
+            return false;
+        }
+        int offset = offset(reference);
+        for (int i = 0; i < bytes.length; i++) {
+            if (arena.get(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String string(ByteBuffer column, int row) {
+        long reference = column.getLong(row * Long.BYTES);
+        if (reference == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length(reference)];
+        arena.get(offset(reference), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private BigDecimal price(int row) {
+        long units = columns.prices.getLong(row * Long.BYTES);
+        return units == NULL_LONG ? null : BigDecimal.valueOf(units, PRICE_SCALE);
+    }
+
+    private static Long priceUnits(BigDecimal price) {
+        return price == null ? null : price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static LocalDate date(ByteBuffer column, int row) {
+        int epochDay = column.getInt(row * Integer.BYTES);
+        return epochDay == NULL_INT ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static void putDate(ByteBuffer column, int row, LocalDate date) {
+        column.putInt(row * Integer.BYTES, date == null ? NULL_INT : Math.toIntExact(date.toEpochDay()));
+    }
+
+    private static Long longOrNull(ByteBuffer column, int row) {
+        long value = column.getLong(row * Long.BYTES);
+        return value == NULL_LONG ? null : value;
+    }
+
+    private static void putLongOrNull(ByteBuffer column, int row, Long value) {
+        column.putLong(row * Long.BYTES, value == null ? NULL_LONG : value);
+    }
+
+    private static int offset(long reference) {
+        return (int) (reference >>> LENGTH_BITS);
+    }
+
+    private static int length(long reference) {
+        return (int) (reference & LENGTH_MASK);
+    }
+
+    private static boolean isOlder(Long candidate, Long current) {
+        return candidate != null && current != null && candidate < current;
+    }
+}
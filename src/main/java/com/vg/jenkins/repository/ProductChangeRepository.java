@@ -0,0 +1,31 @@
+package com.vg.jenkins.repository;
+
+import com.vg.jenkins.model.ProductChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    List<ProductChange> findBySequenceGreaterThanOrderBySequenceAsc(Long sequence, Limit limit);
+
+    @Query("select coalesce(max(c.sequence), 0) from ProductChange c")
+    long findLatestSequence();
+
+    /**
+     * Keeps the change at {@code latest} however old it is, so the highest sequence, which the catalog
+     * version is derived from, never goes back.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from ProductChange c where c.recordedAt < :before and c.sequence < :latest")
+    int deleteRecordedBefore(@Param("before") Instant before, @Param("latest") long latest);
+}
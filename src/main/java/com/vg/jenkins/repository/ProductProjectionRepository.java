@@ -0,0 +1,16 @@
+package com.vg.jenkins.repository;
+
+import com.vg.jenkins.dto.ProductField;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface ProductProjectionRepository {
+
+    /**
+     * Selects only the given columns for the page after {@code after}, one map per product keyed by property
+     * name in field order.
+     */
+    List<Map<String, Object>> findPageFields(Set<ProductField> fields, long after, int limit);
+}
@@ -0,0 +1,50 @@
+package com.vg.jenkins.repository;
+
+import com.vg.jenkins.dto.ProductField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the field-set queries as JPQL strings rather than criteria queries, so each of the few distinct
+ * field sets is parsed once and then served from Hibernate's query plan cache.
+ */
+class ProductProjectionRepositoryImpl implements ProductProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    ProductProjectionRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Map<String, Object>> findPageFields(Set<ProductField> fields, long after, int limit) {
+        List<ProductField> selected = List.copyOf(fields);
+        String jpql = selected.stream()
+                .map(field -> "p." + field.property())
+                .collect(Collectors.joining(", ", "select ",
+                        " from Product p where p.productId > :after order by p.productId asc"));
+        List<Tuple> rows = entityManager.createQuery(jpql, Tuple.class)
+                .setParameter("after", after)
+                .setMaxResults(limit)
+                .getResultList();
+
+        List<Map<String, Object>> page = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> product = new LinkedHashMap<>(selected.size() * 2);
+            for (int i = 0; i < selected.size(); i++) {
+                product.put(selected.get(i).property(), row.get(i));
+            }
+            page.add(product);
+        }
+        return page;
+    }
+}
@@ -1,9 +1,84 @@
 package com.vg.jenkins.repository;
 
+import com.vg.jenkins.dto.ProductDTO;
 import com.vg.jenkins.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductProjectionRepository {
+
+    /**
+     * Rows fetched per round-trip while streaming; keeps the driver from buffering the whole result set.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
+    /**
+     * Reads straight into DTOs: no managed entities, no persistence context entries and no mapping step.
+     */
+    String SELECT_DTO = """
+            select new com.vg.jenkins.dto.ProductDTO(
+                p.productId, p.name, p.description, p.price, p.createdAt, p.updatedAt, p.version)
+            from Product p
+            """;
+
+    @Query(SELECT_DTO + "order by p.productId asc")
+    List<ProductDTO> findAllProjected();
+
+    @Query(SELECT_DTO + "where p.productId > :after order by p.productId asc")
+    List<ProductDTO> findPageProjected(@Param("after") long after, Limit limit);
+
+    @Query(SELECT_DTO + "where p.productId = :id")
+    Optional<ProductDTO> findProjectedById(@Param("id") long id);
+
+    @Query(SELECT_DTO + "where p.productId in :ids")
+    List<ProductDTO> findProjectedByIds(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO + "order by p.productId asc")
+    Stream<ProductDTO> streamAllProjected();
+
+    @Query("select p.version from Product p where p.productId = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select p.productId from Product p where p.productId in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Updates the product in a single statement and bumps its version.
+     * When {@code version} is given the row only matches if it is still at that version.
+     *
+     * @return the number of rows updated, 0 when the product is missing or was modified concurrently
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Product p
+            set p.name = :name, p.description = :description, p.price = :price,
+                p.updatedAt = :updatedAt, p.version = p.version + 1
+            where p.productId = :id and (:version is null or p.version = :version)
+            """)
+    int updateProduct(@Param("id") long id,
+                      @Param("name") String name,
+                      @Param("description") String description,
+                      @Param("price") BigDecimal price,
+                      @Param("updatedAt") LocalDate updatedAt,
+                      @Param("version") Long version);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Product p where p.productId = :id")
+    int deleteProduct(@Param("id") long id);
 }
@@ -0,0 +1,457 @@
+package com.vg.jenkins.search;
+
+import com.vg.jenkins.datasource.PrimaryReads;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductSearchCriteria;
+import com.vg.jenkins.dto.ProductSearchResult;
+import com.vg.jenkins.event.ProductChangeBuffer;
+import com.vg.jenkins.event.ProductChangedEvent;
+import com.vg.jenkins.service.ProductService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-process search index over the whole catalog: an inverted index of name/description terms and
+ * sorted price and creation-date indexes. It is loaded once at startup and then kept current from
+ * {@link ProductChangedEvent}s, so searches never scan the products table.
+ * <p>
+ * Writers are serialized; readers never lock. A reader may see the postings of a product that is
+ * being re-indexed, so every candidate is re-checked against its current document before it is returned.
+ * <p>
+ * A page is read by walking the index of the sort field in order and stopping once the page is full, so
+ * neither the matches nor the sort are materialized. Only when the filters leave few matches, and walking
+ * would mostly skip, are the matches ranked directly, keeping no more than the page end.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ConcurrentSkipListMap<Long, Document> documents = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentSkipListMap<String, Set<Long>> terms = new ConcurrentSkipListMap<>();
+
+    private final SortedIndex<String> names = new SortedIndex<>(ProductDTO::getName);
+
+    private final SortedIndex<BigDecimal> prices = new SortedIndex<>(ProductDTO::getPrice);
+
+    private final SortedIndex<LocalDate> createdDates = new SortedIndex<>(ProductDTO::getCreatedAt);
+
+    private final ObjectProvider<ProductService> productService;
+
+    private final ProductChangeBuffer changes = new ProductChangeBuffer(this::apply);
+
+    @Autowired
+    public ProductSearchIndex(ObjectProvider<ProductService> productService) {
+        this.productService = productService;
+    }
+
+    private record Document(ProductDTO product, Set<String> terms) {
+    }
+
+    /**
+     * IDs by the value of one field, each posting in ID order, plus the IDs without a value, which sort last.
+     * Keys compare with {@code compareTo}, so prices of different scale share a posting.
+     */
+    private static final class SortedIndex<K extends Comparable<? super K>> {
+
+        final Function<ProductDTO, K> key;
+
+        final ConcurrentSkipListMap<K, NavigableSet<Long>> postings = new ConcurrentSkipListMap<>();
+
+        final NavigableSet<Long> missing = new ConcurrentSkipListSet<>();
+
+        SortedIndex(Function<ProductDTO, K> key) {
+            this.key = key;
+        }
+
+        void add(ProductDTO product) {
+            K value = key.apply(product);
+            if (value == null) {
+                missing.add(product.getProductId());
+            } else {
+                postings.computeIfAbsent(value, k -> new ConcurrentSkipListSet<>()).add(product.getProductId());
+            }
+        }
+
+        void remove(ProductDTO product) {
+            K value = key.apply(product);
+            if (value == null) {
+                missing.remove(product.getProductId());
+            } else {
+                postings.computeIfPresent(value,
+                        (k, ids) -> ids.remove(product.getProductId()) && ids.isEmpty() ? null : ids);
+            }
+        }
+
+        NavigableMap<K, NavigableSet<Long>> range(K from, K to) {
+            if (from != null && to != null) {
+                return from.compareTo(to) > 0 ? new ConcurrentSkipListMap<>() : postings.subMap(from, true, to, true);
+            }
+            return from != null ? postings.tailMap(from, true) : postings.headMap(to, true);
+        }
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void rebuild() {
+        changes.load(() -> PrimaryReads.run(() -> productService.getObject().streamAll(this::put)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        changes.accept(event);
+    }
+
+    private void apply(ProductChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> put(event.product());
+            case UPDATED -> merge(event.product());
+            case DELETED -> remove(event.productId());
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public synchronized void put(ProductDTO product) {
+        Document previous = documents.get(product.getProductId());
+        if (previous != null && isOlder(product, previous.product())) {
+            return;
+        }
+        if (previous != null) {
+            unindex(previous);
+        }
+        ProductDTO snapshot = copy(product);
+        Document document = new Document(snapshot, tokenize(snapshot.getName(), snapshot.getDescription()));
+        documents.put(snapshot.getProductId(), document);
+        index(document);
+    }
+
+    /**
+     * Applies an update event, keeping the fields an update never changes from the indexed copy.
+     */
+    public synchronized void merge(ProductDTO update) {
+        Document previous = documents.get(update.getProductId());
+        ProductDTO merged = copy(update);
+        if (previous != null) {
+            merged.setCreatedAt(previous.product().getCreatedAt());
+            if (merged.getVersion() == null && previous.product().getVersion() != null) {
+                merged.setVersion(previous.product().getVersion() + 1);
+            }
+        }
+        put(merged);
+    }
+
+    public synchronized void remove(Long productId) {
+        Document previous = documents.remove(productId);
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+
+    public ProductSearchResult search(ProductSearchCriteria criteria) {
+        List<String> queryTerms = tokenize(criteria.getQ(), null).stream().toList();
+        ProductSearchCriteria.SortField sortField = criteria.getSort() == null
+                ? ProductSearchCriteria.SortField.PRODUCT_ID : criteria.getSort();
+        int page = Math.max(0, criteria.getPage());
+        int size = Math.max(1, criteria.getSize());
+        long offset = (long) page * size;
+
+        Collection<Long> candidates = candidates(criteria, queryTerms);
+        long total;
+        List<ProductDTO> items;
+        if (candidates == null) {
+            // No filter: every product matches, and the walk only goes as far as the page end
+            total = documents.size();
+            items = walk(sortField, criteria.isDescending(), document -> true, offset, size);
+        } else {
+            Set<Long> matches = new HashSet<>();
+            for (Long id : candidates) {
+                Document document = documents.get(id);
+                if (document != null && matches(document, criteria, queryTerms)) {
+                    matches.add(id);
+                }
+            }
+            total = matches.size();
+            long end = offset + size;
+            if (offset >= matches.size()) {
+                items = List.of();
+            } else if ((long) matches.size() * matches.size() > end * documents.size()) {
+                // Dense enough that the walk finds the page end after about end * documents / matches steps
+                items = walk(sortField, criteria.isDescending(),
+                        document -> matches.contains(document.product().getProductId()), offset, size);
+            } else {
+                items = rank(matches, sortField, criteria.isDescending(), offset, size);
+            }
+        }
+
+        return ProductSearchResult.builder()
+                .total(total)
+                .page(page)
+                .size(size)
+                .items(items)
+                .build();
+    }
+
+    /**
+     * Visits the documents in sort order, skipping {@code offset} accepted ones and stopping after {@code size}.
+     */
+    private List<ProductDTO> walk(ProductSearchCriteria.SortField sortField, boolean descending,
+                                  Predicate<Document> accept, long offset, int size) {
+        List<ProductDTO> items = new ArrayList<>(size);
+        long[] skip = {offset};
+        Predicate<Document> visitor = document -> {
+            if (!accept.test(document)) {
+                return true;
+            }
+            if (skip[0] > 0) {
+                skip[0]--;
+                return true;
+            }
+            items.add(copy(document.product()));
+            return items.size() < size;
+        };
+        switch (sortField) {
+            case PRODUCT_ID -> visit(descending ? documents.descendingMap().values() : documents.values(), visitor);
+            case NAME -> walkIndex(names, descending, visitor);
+            case PRICE -> walkIndex(prices, descending, visitor);
+            case CREATED_AT -> walkIndex(createdDates, descending, visitor);
+        }
+        return items;
+    }
+
+    /**
+     * Follows {@code index} in key order, each key in ID order. Products without a value sort last, or first
+     * when descending, like the {@code nullsLast} comparator reversed. A posting whose document no longer holds
+     * its key is stale, left by a concurrent re-index, and skipped.
+     */
+    private <K extends Comparable<? super K>> void walkIndex(SortedIndex<K> index, boolean descending,
+                                                             Predicate<Document> visitor) {
+        Collection<Long> missing = descending ? index.missing.descendingSet() : index.missing;
+        if (descending && !visitIds(missing, document -> index.key.apply(document.product()) == null, visitor)) {
+            return;
+        }
+        NavigableMap<K, NavigableSet<Long>> postings = descending ? index.postings.descendingMap() : index.postings;
+        for (Map.Entry<K, NavigableSet<Long>> posting : postings.entrySet()) {
+            K key = posting.getKey();
+            Predicate<Document> current = document -> {
+                K value = index.key.apply(document.product());
+                return value != null && value.compareTo(key) == 0;
+            };
+            if (!visitIds(descending ? posting.getValue().descendingSet() : posting.getValue(), current, visitor)) {
+                return;
+            }
+        }
+        if (!descending) {
+            visitIds(missing, document -> index.key.apply(document.product()) == null, visitor);
+        }
+    }
+
+    private boolean visitIds(Collection<Long> ids, Predicate<Document> current, Predicate<Document> visitor) {
+        for (Long id : ids) {
+            Document document = documents.get(id);
+            if (document != null && current.test(document) && !visitor.test(document)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void visit(Collection<Document> documents, Predicate<Document> visitor) {
+        for (Document document : documents) {
+            if (!visitor.test(document)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Ranks a small set of matches with a heap bounded to the page end, instead of sorting all of them.
+     */
+    private List<ProductDTO> rank(Set<Long> matches, ProductSearchCriteria.SortField sortField, boolean descending,
+                                  long offset, int size) {
+        Comparator<ProductDTO> comparator = comparator(sortField);
+        if (descending) {
+            comparator = comparator.reversed();
+        }
+        int end = (int) Math.min(offset + size, matches.size());
+        PriorityQueue<ProductDTO> top = new PriorityQueue<>(end + 1, comparator.reversed());
+        for (Long id : matches) {
+            Document document = documents.get(id);
+            if (document == null) {
+                continue;
+            }
+            top.add(document.product());
+            if (top.size() > end) {
+                top.poll();
+            }
+        }
+        List<ProductDTO> ranked = new ArrayList<>(top);
+        ranked.sort(comparator);
+        return ranked.stream()
+                .skip(offset)
+                .map(ProductSearchIndex::copy)
+                .toList();
+    }
+
+    /**
+     * Picks the narrowest index that applies: text postings first, then the price range, then creation dates.
+     * {@code null} when nothing filters, so every product is a candidate.
+     */
+    private Collection<Long> candidates(ProductSearchCriteria criteria, List<String> queryTerms) {
+        if (!queryTerms.isEmpty()) {
+            Set<Long> result = null;
+            for (String term : queryTerms) {
+                Set<Long> postings = new HashSet<>();
+                prefixRange(term).values().forEach(postings::addAll);
+                if (result == null || postings.size() < result.size()) {
+                    if (result != null) {
+                        postings.retainAll(result);
+                    }
+                    result = postings;
+                } else {
+                    result.retainAll(postings);
+                }
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result;
+        }
+        if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null) {
+            return flatten(prices.range(criteria.getMinPrice(), criteria.getMaxPrice()));
+        }
+        if (criteria.getCreatedFrom() != null || criteria.getCreatedTo() != null) {
+            return flatten(createdDates.range(criteria.getCreatedFrom(), criteria.getCreatedTo()));
+        }
+        return null;
+    }
+
+    private boolean matches(Document document, ProductSearchCriteria criteria, List<String> queryTerms) {
+        ProductDTO product = document.product();
+        for (String queryTerm : queryTerms) {
+            if (document.terms().stream().noneMatch(term -> term.startsWith(queryTerm))) {
+                return false;
+            }
+        }
+        if (criteria.getMinPrice() != null
+                && (product.getPrice() == null || product.getPrice().compareTo(criteria.getMinPrice()) < 0)) {
+            return false;
+        }
+        if (criteria.getMaxPrice() != null
+                && (product.getPrice() == null || product.getPrice().compareTo(criteria.getMaxPrice()) > 0)) {
+            return false;
+        }
+        if (criteria.getCreatedFrom() != null
+                && (product.getCreatedAt() == null || product.getCreatedAt().isBefore(criteria.getCreatedFrom()))) {
+            return false;
+        }
+        return criteria.getCreatedTo() == null
+                || (product.getCreatedAt() != null && !product.getCreatedAt().isAfter(criteria.getCreatedTo()));
+    }
+
+    private void index(Document document) {
+        Long id = document.product().getProductId();
+        document.terms().forEach(term -> addPosting(terms, term, id));
+        names.add(document.product());
+        prices.add(document.product());
+        createdDates.add(document.product());
+    }
+
+    private void unindex(Document document) {
+        Long id = document.product().getProductId();
+        document.terms().forEach(term -> removePosting(terms, term, id));
+        names.remove(document.product());
+        prices.remove(document.product());
+        createdDates.remove(document.product());
+    }
+
+    private static <K> void addPosting(ConcurrentSkipListMap<K, Set<Long>> index, K key, Long id) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private static <K> void removePosting(ConcurrentSkipListMap<K, Set<Long>> index, K key, Long id) {
+        if (key != null) {
+            index.computeIfPresent(key, (k, ids) -> ids.remove(id) && ids.isEmpty() ? null : ids);
+        }
+    }
+
+    private NavigableMap<String, Set<Long>> prefixRange(String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+    }
+
+    private static Set<Long> flatten(NavigableMap<?, ? extends Set<Long>> postings) {
+        Set<Long> ids = new HashSet<>();
+        postings.values().forEach(ids::addAll);
+        return ids;
+    }
+
+    private static Set<String> tokenize(String name, String description) {
+        Set<String> tokens = new HashSet<>();
+        Stream.of(name, description)
+                .filter(text -> text != null && !text.isBlank())
+                .flatMap(text -> TOKEN_SEPARATOR.splitAsStream(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .forEach(tokens::add);
+        return tokens;
+    }
+
+    private static boolean isOlder(ProductDTO candidate, ProductDTO current) {
+        return candidate.getVersion() != null && current.getVersion() != null
+                && candidate.getVersion() < current.getVersion();
+    }
+
+    private static Comparator<ProductDTO> comparator(ProductSearchCriteria.SortField sortField) {
+        Comparator<ProductDTO> byId = Comparator.comparing(ProductDTO::getProductId);
+        return switch (sortField == null ? ProductSearchCriteria.SortField.PRODUCT_ID : sortField) {
+            case PRODUCT_ID -> byId;
+            case NAME -> nullsLast(ProductDTO::getName).thenComparing(byId);
+            case PRICE -> nullsLast(ProductDTO::getPrice).thenComparing(byId);
+            case CREATED_AT -> nullsLast(ProductDTO::getCreatedAt).thenComparing(byId);
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<ProductDTO> nullsLast(Function<ProductDTO, T> key) {
+        return Comparator.comparing(key, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    private static ProductDTO copy(ProductDTO product) {
+        return ProductDTO.builder()
+                .productId(product.getProductId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt())
+                .version(product.getVersion())
+                .build();
+    }
+}
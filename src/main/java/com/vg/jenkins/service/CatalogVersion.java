@@ -0,0 +1,41 @@
+package com.vg.jenkins.service;
+
+import com.vg.jenkins.datasource.PrimaryReads;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collection-level version of the catalog, read from the {@code product_changes} outbox that every committed
+ * product write appends to. It is the same on every instance and across restarts, so a tag issued by one
+ * pod is valid on all of them, and a write on any pod changes it for all of them at once.
+ * <p>
+ * The highest sequence alone is not enough: sequences are assigned at insert, so a lower one can commit
+ * after a higher one without moving the maximum. The version therefore also counts the changes recorded
+ * near the top, which such a late commit does change. It is read from the primary, since a replica could
+ * label the current catalog with an old version.
+ */
+@Component
+public class CatalogVersion {
+
+    /**
+     * How far below the highest sequence a late commit is still counted; far more changes than can be in
+     * flight at once.
+     */
+    static final int WINDOW = 1000;
+
+    static final String VERSION_SQL = "select coalesce(max(sequence_number), 0), count(*) from product_changes "
+            + "where sequence_number > (select coalesce(max(sequence_number), 0) from product_changes) - " + WINDOW;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CatalogVersion(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public String current() {
+        return PrimaryReads.call(() -> jdbcTemplate.queryForObject(VERSION_SQL,
+                (rs, rowNum) -> rs.getLong(1) + "." + rs.getLong(2)));
+    }
+}
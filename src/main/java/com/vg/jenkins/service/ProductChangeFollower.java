@@ -0,0 +1,38 @@
+package com.vg.jenkins.service;
+
+import com.vg.jenkins.changes.ProductChangeFeed;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies product writes made on any instance, as they arrive on the {@link ProductChangeFeed}, to the
+ * read state that local events alone would only keep current for local writes: the coalescer stops
+ * sharing loads that may predate the write and the page snapshots give their memory back. The
+ * {@link CatalogVersion} needs no help, it is read from the same outbox the feed follows.
+ * <p>
+ * The feed also delivers this instance's own writes, which were already applied through their events;
+ * applying them a second time only costs a load.
+ */
+@Component
+public class ProductChangeFollower implements DisposableBean {
+
+    private final ProductChangeFeed productChangeFeed;
+
+    private final ProductChangeFeed.Subscription subscription;
+
+    @Autowired
+    public ProductChangeFollower(ProductChangeFeed productChangeFeed, ProductReadCoalescer readCoalescer,
+                                    ProductPageSnapshots pageSnapshots) {
+        this.productChangeFeed = productChangeFeed;
+        this.subscription = productChangeFeed.follow(change -> {
+            readCoalescer.forget(change.getProductId());
+            pageSnapshots.invalidateAll();
+        });
+    }
+
+    @Override
+    public void destroy() {
+        productChangeFeed.unsubscribe(subscription);
+    }
+}
@@ -0,0 +1,162 @@
+package com.vg.jenkins.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductField;
+import com.vg.jenkins.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pages of the product list kept as ready-to-send JSON, plain and gzipped, so that repeated reads of an
+ * unchanged catalog skip the query, the serialization and the compression. Snapshots are keyed by the
+ * {@link CatalogVersion} they were read under, which every instance reads from the database, so a write on
+ * any instance makes them unreachable at once; they are also dropped after every committed write to give
+ * the memory back.
+ */
+@Component
+public class ProductPageSnapshots {
+
+    /**
+     * One page of the list and the cursor of the next one, {@code null} when the page is not full.
+     */
+    public record ProductPage(List<?> items, Object nextCursor) {
+    }
+
+    public record Snapshot(String version, Object nextCursor, byte[] json, byte[] gzip) {
+    }
+
+    private record Key(String version, long after, int limit, Set<ProductField> fields) {
+    }
+
+    private final ProductService productService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ProductProperties.Snapshots settings;
+
+    private final Cache<Key, Snapshot> snapshots;
+
+    @Autowired
+    public ProductPageSnapshots(ProductService productService, ObjectMapper objectMapper,
+                                ProductProperties productProperties) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.settings = productProperties.getSnapshots();
+        this.snapshots = Caffeine.from(settings.getSpec())
+                .weigher((Key key, Snapshot snapshot) -> snapshot.json().length + snapshot.gzip().length)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * Reads the page; {@code fields} limits the properties read, {@code null} reads whole products.
+     * {@code version} is the catalog version the caller read before calling.
+     */
+    public ProductPage read(String version, Long after, int limit, Set<ProductField> fields) {
+        Object lastId = null;
+        List<?> items;
+        if (fields == null) {
+            List<ProductDTO> products = productService.findPage(after, limit, version);
+            if (!products.isEmpty()) {
+                lastId = products.get(products.size() - 1).getProductId();
+            }
+            items = products;
+        } else {
+            List<Map<String, Object>> products = productService.findPageFields(after, limit, fields, version);
+            if (!products.isEmpty()) {
+                lastId = products.get(products.size() - 1).get(ProductField.PRODUCT_ID.property());
+            }
+            items = products;
+        }
+        return new ProductPage(items, items.size() == limit ? lastId : null);
+    }
+
+    /**
+     * The page as of {@code version}, which the caller reads before calling. The page read shares only loads
+     * keyed by that version, so it never started before the version was read, and the snapshot is kept only
+     * if the version is still current once the page is in: a kept snapshot holds exactly the catalog its
+     * version names, and rebuilding it after {@link #invalidateAll} yields the same bytes. A page read while
+     * a write committed is returned once, under the older version, and not kept. Concurrent requests
+     * missing the same snapshot wait for one of them to build it, so the query, the serialization and the
+     * compression run once. Pages served by the column store are only as current as the column store.
+     */
+    public Snapshot snapshot(String version, Long after, int limit, Set<ProductField> fields) {
+        Snapshot[] moved = new Snapshot[1];
+        Snapshot snapshot = snapshots.get(new Key(version, after == null ? 0L : after, limit, fields), key -> {
+            Snapshot built = build(version, after, limit, fields);
+            if (Objects.equals(version, productService.catalogVersion())) {
+                return built;
+            }
+            moved[0] = built;
+            return null;
+        });
+        if (snapshot != null) {
+            return snapshot;
+        }
+        // Either this request read the page while the version moved, or it waited for one that did
+        return moved[0] != null ? moved[0] : build(version, after, limit, fields);
+    }
+
+    private Snapshot build(String version, Long after, int limit, Set<ProductField> fields) {
+        ProductPage page = read(version, after, limit, fields);
+        byte[] json = serialize(page.items());
+        return new Snapshot(version, page.nextCursor(), json, gzip(json));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        snapshots.invalidateAll();
+    }
+
+    private byte[] serialize(List<?> items) {
+        try {
+            return objectMapper.writeValueAsBytes(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Product page could not be serialized", e);
+        }
+    }
+
+    private byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzip = new LevelGzipOutputStream(out, settings.getCompressionLevel())) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Compression is paid once per snapshot rather than per response, so it can afford a higher level
+     * than the container's on-the-fly gzip.
+     */
+    private static final class LevelGzipOutputStream extends GZIPOutputStream {
+
+        LevelGzipOutputStream(ByteArrayOutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+}
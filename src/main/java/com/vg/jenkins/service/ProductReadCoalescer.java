@@ -0,0 +1,113 @@
+package com.vg.jenkins.service;
+
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.datasource.ReadYourWrites;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductField;
+import com.vg.jenkins.event.ProductChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing for the point and page reads: concurrent identical requests share one database
+ * lookup and the DTOs it produced. Loads run outside any transaction of the caller, so waiters hold
+ * neither a connection nor a transaction. After a committed write, later point reads no longer join a
+ * load that may have started before it; for writes on other instances that holds from the moment the
+ * {@link ProductChangeFollower} delivers them. Page loads are keyed by the {@link CatalogVersion} their
+ * callers read first, which moves with a write on any instance at once, so a page is never shared with a
+ * caller whose version is newer than the load. Reads pinned to the primary always load on their own.
+ */
+@Component
+public class ProductReadCoalescer implements MeterBinder {
+
+    public static final String JOINED_METRIC = "product.coalescing.joined";
+
+    public static final String BYPASSED_METRIC = "product.coalescing.bypassed";
+
+    public static final String TIMED_OUT_METRIC = "product.coalescing.timed_out";
+
+    public static final String IN_FLIGHT_METRIC = "product.coalescing.in_flight";
+
+    private record PageKey(String version, long after, int limit, Set<ProductField> fields) {
+    }
+
+    private final boolean enabled;
+
+    private final SingleFlight<Long, ProductDTO> products;
+
+    private final SingleFlight<PageKey, List<?>> pages;
+
+    @Autowired
+    public ProductReadCoalescer(ProductProperties productProperties) {
+        ProductProperties.Coalescing coalescing = productProperties.getCoalescing();
+        this.enabled = coalescing.isEnabled();
+        this.products = new SingleFlight<>(coalescing.getMaxWaiters(), coalescing.getMaxWaitMillis());
+        this.pages = new SingleFlight<>(coalescing.getMaxWaiters(), coalescing.getMaxWaitMillis());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Map.of("product", products, "page", pages).forEach((read, flight) -> {
+            counter(registry, JOINED_METRIC, read, flight.joined, "Reads that shared a load already in flight");
+            counter(registry, BYPASSED_METRIC, read, flight.bypassed, "Reads that found the waiter limit reached");
+            counter(registry, TIMED_OUT_METRIC, read, flight.timedOut, "Reads that stopped waiting for a slow load");
+            Gauge.builder(IN_FLIGHT_METRIC, flight, SingleFlight::inFlight)
+                    .description("Coalesced loads in flight")
+                    .tag("read", read)
+                    .register(registry);
+        });
+    }
+
+    public ProductDTO product(Long id, Supplier<ProductDTO> loader) {
+        return coalesce() ? products.load(id, loader) : loader.get();
+    }
+
+    /**
+     * {@code version} is the catalog version the caller read before asking for the page, {@code null} to
+     * load on its own.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> page(String version, long after, int limit, Set<ProductField> fields,
+                            Supplier<List<T>> loader) {
+        if (version == null || !coalesce()) {
+            return loader.get();
+        }
+        return (List<T>) pages.load(new PageKey(version, after, limit, fields), loader::get);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        forget(event.productId());
+    }
+
+    /**
+     * Later reads of the product, and of any page, start a load of their own; also called for writes made
+     * on other instances.
+     */
+    public void forget(Long productId) {
+        products.forget(productId);
+        pages.forgetAll();
+    }
+
+    private boolean coalesce() {
+        return enabled && !ReadYourWrites.isPinnedToPrimary();
+    }
+
+    private static void counter(MeterRegistry registry, String name, String read, LongAdder count, String description) {
+        FunctionCounter.builder(name, count, LongAdder::sum)
+                .description(description)
+                .tag("read", read)
+                .register(registry);
+    }
+}
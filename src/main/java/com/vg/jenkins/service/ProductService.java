@@ -1,13 +1,34 @@
 package com.vg.jenkins.service;
 
+import com.vg.jenkins.dto.ProductBatchResult;
 import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductField;
+import com.vg.jenkins.dto.ProductLookupResult;
+import com.vg.jenkins.dto.ProductSearchCriteria;
+import com.vg.jenkins.dto.ProductSearchResult;
+import com.vg.jenkins.dto.ProductStats;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface ProductService {
     List<ProductDTO> findAll();
+    List<ProductDTO> findPage(Long after, int limit, String version);
+    List<Map<String, Object>> findPageFields(Long after, int limit, Set<ProductField> fields, String version);
+    void streamAll(Consumer<ProductDTO> consumer);
     ProductDTO save(ProductDTO product);
     ProductDTO update(long id, ProductDTO product);
     void delete(long id);
     ProductDTO findById(Long id);
+    List<ProductLookupResult> findAllById(List<Long> ids);
+    long findVersion(Long id);
+    String catalogVersion();
+    ProductSearchResult search(ProductSearchCriteria criteria);
+    ProductStats stats(LocalDate from, LocalDate to);
+    List<ProductBatchResult> saveAll(List<ProductDTO> products);
+    List<ProductBatchResult> updateAll(List<ProductDTO> products);
+    List<ProductBatchResult> deleteAll(List<Long> ids);
 }
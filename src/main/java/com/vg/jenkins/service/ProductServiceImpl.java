@@ -1,77 +1,391 @@
 package com.vg.jenkins.service;
 
+import com.vg.jenkins.config.CacheConfig;
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.datasource.PrimaryReads;
+import com.vg.jenkins.dto.ProductBatchResult;
 import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductField;
+import com.vg.jenkins.dto.ProductLookupResult;
+import com.vg.jenkins.dto.ProductSearchCriteria;
+import com.vg.jenkins.dto.ProductSearchResult;
+import com.vg.jenkins.dto.ProductStats;
+import com.vg.jenkins.event.ProductChangedEvent;
+import com.vg.jenkins.exception.ProductNotFoundException;
 import com.vg.jenkins.mapper.ProductMapper;
 import com.vg.jenkins.model.Product;
 import com.vg.jenkins.repository.ProductRepository;
+import com.vg.jenkins.readmodel.ProductColumnStore;
+import com.vg.jenkins.search.ProductSearchIndex;
+import com.vg.jenkins.stats.ProductStatistics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Observed(name = "product.service")
 public class ProductServiceImpl implements ProductService {
 
+    public static final String NOT_FOUND_METRIC = "product.not_found";
+
     private final ProductRepository productRepository;
 
     private final ProductMapper productMapper;
 
+    private final EntityManager entityManager;
+
+    private final TransactionOperations transactionOperations;
+
+    private final ProductProperties productProperties;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ProductSearchIndex productSearchIndex;
+
+    private final CatalogVersion catalogVersion;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ProductReadCoalescer readCoalescer;
+
+    private final ProductStatistics productStatistics;
+
+    private final ProductColumnStore columnStore;
+
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository, ProductMapper productMapper) {
+    public ProductServiceImpl(ProductRepository productRepository, ProductMapper productMapper,
+                              EntityManager entityManager, TransactionOperations transactionOperations,
+                              ProductProperties productProperties, ApplicationEventPublisher eventPublisher,
+                              ProductSearchIndex productSearchIndex, CatalogVersion catalogVersion,
+                              MeterRegistry meterRegistry, ProductReadCoalescer readCoalescer,
+                              ProductStatistics productStatistics, ProductColumnStore columnStore) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
+        this.entityManager = entityManager;
+        this.transactionOperations = transactionOperations;
+        this.productProperties = productProperties;
+        this.eventPublisher = eventPublisher;
+        this.productSearchIndex = productSearchIndex;
+        this.catalogVersion = catalogVersion;
+        this.meterRegistry = meterRegistry;
+        this.readCoalescer = readCoalescer;
+        this.productStatistics = productStatistics;
+        this.columnStore = columnStore;
     }
 
     @Override
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#result.productId")
     public ProductDTO save(ProductDTO product) {
         product.setCreatedAt(LocalDate.now());
-        return Optional.of(product)
+        ProductDTO savedProduct = Optional.of(product)
                 .map(productMapper::mapToEntity)
                 .map(productRepository::save)
                 .map(productMapper::mapToDTO)
                 .orElseThrow(() -> new IllegalArgumentException("Product entity cannot be null"));
+        eventPublisher.publishEvent(ProductChangedEvent.created(savedProduct));
+        return savedProduct;
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public ProductDTO update(long id, ProductDTO product) {
-        return productRepository.findById(id)
-                .map(existingProduct -> {
-                    existingProduct.setName(product.getName());
-                    existingProduct.setDescription(product.getDescription());
-                    existingProduct.setPrice(product.getPrice());
-                    existingProduct.setUpdatedAt(LocalDate.now());
+        LocalDate today = LocalDate.now();
+        int updatedRows = productRepository.updateProduct(id, product.getName(), product.getDescription(),
+                product.getPrice(), today, product.getVersion());
+        if (updatedRows == 0) {
+            // Only the failure path pays for a second query, to tell a stale version from a missing row
+            if (product.getVersion() != null && productRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException(
+                        "Product with ID " + id + " was modified concurrently, expected version " + product.getVersion());
+            }
+            throw notFound("update", id);
+        }
 
-                    Product updatedProduct = productRepository.save(existingProduct);
-
-                    return productMapper.mapToDTO(updatedProduct);
-                })
-                .orElseThrow(() -> new RuntimeException("Product not found with ID: " + id));
+        // Read back in the same transaction, where the updated row is still locked, so the response and the
+        // event carry the stored createdAt and version rather than whatever the request body held
+        ProductDTO updatedProduct = productRepository.findProjectedById(id)
+                .orElseThrow(() -> notFound("update", id));
+        eventPublisher.publishEvent(ProductChangedEvent.updated(updatedProduct));
+        return updatedProduct;
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public void delete(long id) {
-        Optional<Product> productOptional = productRepository.findById(id);
-        productOptional.ifPresentOrElse(
-                product -> productRepository.deleteById(id),
-                () -> { throw new RuntimeException("Product not found with ID: " + id); }
-        );
+        if (productRepository.deleteProduct(id) == 0) {
+            throw notFound("delete", id);
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductDTO> findAll() {
-        return productRepository.findAll().stream()
-                .map(productMapper::mapToDTO)
-                .toList();
+        if (columnStore.isServing()) {
+            return columnStore.findAll();
+        }
+        return productRepository.findAllProjected();
     }
 
+    /**
+     * Not transactional on purpose, like {@link #findById}: the repository runs the query in its own read-only
+     * transaction, so callers waiting on a coalesced load hold no connection. Pages end up in snapshots
+     * labelled with the catalog version, so they are read from the primary like the version itself.
+     * {@code version} is the catalog version the caller read before calling; only callers that read the same
+     * one share a load, so none is handed a page that started loading before its version was current.
+     * {@code null} loads on its own.
+     */
     @Override
+    public List<ProductDTO> findPage(Long after, int limit, String version) {
+        long from = after == null ? 0L : after;
+        if (columnStore.isServing()) {
+            return columnStore.findPage(from, limit);
+        }
+        return readCoalescer.page(version, from, limit, null,
+                () -> PrimaryReads.call(() -> productRepository.findPageProjected(from, Limit.of(limit))));
+    }
+
+    @Override
+    public List<Map<String, Object>> findPageFields(Long after, int limit, Set<ProductField> fields,
+                                                    String version) {
+        long from = after == null ? 0L : after;
+        if (columnStore.isServing()) {
+            return columnStore.findPageFields(from, limit, fields);
+        }
+        return readCoalescer.page(version, from, limit, fields,
+                () -> PrimaryReads.call(() -> productRepository.findPageFields(fields, from, limit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<ProductDTO> consumer) {
+        // Projected rows never enter the persistence context, so it does not grow with the table
+        try (Stream<ProductDTO> products = productRepository.streamAllProjected()) {
+            products.forEach(consumer);
+        }
+    }
+
+    /**
+     * Concurrent cache misses for the same ID share one lookup through the {@link ProductReadCoalescer},
+     * which bounds how many callers wait and for how long; the cache itself no longer blocks on a miss.
+     * While the {@link ProductColumnStore} is serving, it answers instead and the heap cache is bypassed.
+     * A miss is filled from the primary: a replica could put back a row that was already invalidated.
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id", condition = "!@productColumnStore.serving")
     public ProductDTO findById(Long id) {
-        return productRepository.findById(id)
+        if (columnStore.isServing()) {
+            return columnStore.findById(id).orElseThrow(() -> notFound("findById", id));
+        }
+        return readCoalescer.product(id, () -> PrimaryReads.call(() -> productRepository.findById(id))
                 .map(productMapper::mapToDTO)
-                .orElseThrow(() -> new RuntimeException("Product with ID " + id + " not found"));
+                .orElseThrow(() -> notFound("findById", id)));
+    }
+
+    /**
+     * Resolves the distinct IDs with one projection query per batch chunk, all in one read-only transaction,
+     * and answers in request order with missing IDs reported in place.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductLookupResult> findAllById(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        int chunkSize = productProperties.getBatch().getChunkSize();
+        Map<Long, ProductDTO> products = new HashMap<>();
+        for (int offset = 0; offset < distinctIds.size(); offset += chunkSize) {
+            productRepository.findProjectedByIds(distinctIds.subList(offset, Math.min(offset + chunkSize, distinctIds.size())))
+                    .forEach(product -> products.put(product.getProductId(), product));
+        }
+
+        List<ProductLookupResult> results = new ArrayList<>(ids.size());
+        int missing = 0;
+        for (Long id : ids) {
+            ProductDTO product = id == null ? null : products.get(id);
+            if (product == null) {
+                results.add(ProductLookupResult.notFound(id));
+                missing++;
+            } else {
+                results.add(ProductLookupResult.found(product));
+            }
+        }
+        if (missing > 0) {
+            meterRegistry.counter(NOT_FOUND_METRIC, "operation", "findAllById").increment(missing);
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long findVersion(Long id) {
+        // A replica's older version would answer 304 for a representation the client already has outdated
+        return PrimaryReads.call(() -> productRepository.findVersionById(id))
+                .orElseThrow(() -> notFound("findVersion", id));
+    }
+
+    @Override
+    public String catalogVersion() {
+        return catalogVersion.current();
+    }
+
+    @Override
+    public ProductSearchResult search(ProductSearchCriteria criteria) {
+        return productSearchIndex.search(criteria);
+    }
+
+    @Override
+    public ProductStats stats(LocalDate from, LocalDate to) {
+        return productStatistics.stats(from, to);
+    }
+
+    @Override
+    public List<ProductBatchResult> saveAll(List<ProductDTO> products) {
+        return writeInChunks(products, ProductDTO::getProductId, this::saveChunk);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, allEntries = true)
+    public List<ProductBatchResult> updateAll(List<ProductDTO> products) {
+        return writeInChunks(products, ProductDTO::getProductId, this::updateChunk);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, allEntries = true)
+    public List<ProductBatchResult> deleteAll(List<Long> ids) {
+        return writeInChunks(ids, Function.identity(), this::deleteChunk);
+    }
+
+    private ProductNotFoundException notFound(String operation, Long id) {
+        meterRegistry.counter(NOT_FOUND_METRIC, "operation", operation).increment();
+        return new ProductNotFoundException(id);
+    }
+
+    /**
+     * Runs each chunk in its own transaction so a failing chunk only rolls back its own items.
+     */
+    private <T> List<ProductBatchResult> writeInChunks(List<T> items, Function<T, Long> idOf,
+                                                       BiFunction<Integer, List<T>, List<ProductBatchResult>> chunkWriter) {
+        int chunkSize = productProperties.getBatch().getChunkSize();
+        List<ProductBatchResult> results = new ArrayList<>(items.size());
+        for (int offset = 0; offset < items.size(); offset += chunkSize) {
+            int chunkOffset = offset;
+            List<T> chunk = items.subList(offset, Math.min(offset + chunkSize, items.size()));
+            try {
+                results.addAll(Objects.requireNonNull(
+                        transactionOperations.execute(status -> chunkWriter.apply(chunkOffset, chunk))));
+            } catch (RuntimeException e) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    T item = chunk.get(i);
+                    results.add(ProductBatchResult.failed(chunkOffset + i, item == null ? null : idOf.apply(item),
+                            e.getMessage()));
+                }
+            }
+        }
+        return results;
+    }
+
+    private List<ProductBatchResult> saveChunk(int offset, List<ProductDTO> chunk) {
+        LocalDate today = LocalDate.now();
+        List<Product> products = chunk.stream()
+                .map(product -> {
+                    product.setCreatedAt(today);
+                    return productMapper.mapToEntity(product);
+                })
+                .toList();
+
+        List<Product> savedProducts = productRepository.saveAll(products);
+        productRepository.flush();
+
+        List<ProductBatchResult> results = new ArrayList<>(savedProducts.size());
+        for (int i = 0; i < savedProducts.size(); i++) {
+            Product savedProduct = savedProducts.get(i);
+            eventPublisher.publishEvent(ProductChangedEvent.created(productMapper.mapToDTO(savedProduct)));
+            results.add(ProductBatchResult.of(offset + i, savedProduct.getProductId(),
+                    ProductBatchResult.Status.CREATED));
+        }
+        entityManager.clear();
+        return results;
+    }
+
+    private List<ProductBatchResult> updateChunk(int offset, List<ProductDTO> chunk) {
+        Set<Long> ids = chunk.stream()
+                .map(ProductDTO::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Product> existingProducts = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        LocalDate today = LocalDate.now();
+        Map<Long, Product> updatedProducts = new LinkedHashMap<>();
+        List<ProductBatchResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ProductDTO product = chunk.get(i);
+            Product existingProduct = product.getProductId() == null ? null : existingProducts.get(product.getProductId());
+            if (existingProduct == null) {
+                results.add(ProductBatchResult.of(offset + i, product.getProductId(), ProductBatchResult.Status.NOT_FOUND));
+                continue;
+            }
+            existingProduct.setName(product.getName());
+            existingProduct.setDescription(product.getDescription());
+            existingProduct.setPrice(product.getPrice());
+            existingProduct.setUpdatedAt(today);
+            updatedProducts.put(existingProduct.getProductId(), existingProduct);
+            results.add(ProductBatchResult.of(offset + i, product.getProductId(), ProductBatchResult.Status.UPDATED));
+        }
+
+        productRepository.flush();
+        updatedProducts.values().forEach(updatedProduct ->
+                eventPublisher.publishEvent(ProductChangedEvent.updated(productMapper.mapToDTO(updatedProduct))));
+        entityManager.clear();
+        return results;
+    }
+
+    private List<ProductBatchResult> deleteChunk(int offset, List<Long> chunk) {
+        List<Long> existingIds = productRepository.findExistingIds(
+                chunk.stream().filter(Objects::nonNull).collect(Collectors.toSet()));
+        if (!existingIds.isEmpty()) {
+            productRepository.deleteAllByIdInBatch(existingIds);
+            existingIds.forEach(id -> eventPublisher.publishEvent(ProductChangedEvent.deleted(id)));
+        }
+
+        Set<Long> pendingIds = new HashSet<>(existingIds);
+        List<ProductBatchResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Long id = chunk.get(i);
+            // Only the first occurrence of a repeated ID counts as the delete
+            boolean deleted = id != null && pendingIds.remove(id);
+            results.add(ProductBatchResult.of(offset + i, id,
+                    deleted ? ProductBatchResult.Status.DELETED : ProductBatchResult.Status.NOT_FOUND));
+        }
+        return results;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package com.vg.jenkins.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent callers asking for the same key share one load: the first caller runs it on its own
+ * thread and the others wait for its result. Waiting is bounded twice over, by the number of waiters per
+ * load and by how long each one waits; a caller past either bound runs the load itself, so coalescing
+ * never makes a request fail that would have succeeded without it.
+ */
+class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    private final int maxWaiters;
+
+    private final long maxWaitMillis;
+
+    final LongAdder joined = new LongAdder();
+
+    final LongAdder bypassed = new LongAdder();
+
+    final LongAdder timedOut = new LongAdder();
+
+    SingleFlight(int maxWaiters, long maxWaitMillis) {
+        this.maxWaiters = maxWaiters;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    V load(K key, Supplier<V> loader) {
+        Flight<V> flight = new Flight<>();
+        Flight<V> inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight == null) {
+            return lead(key, flight, loader);
+        }
+        if (!inFlight.join(maxWaiters)) {
+            bypassed.increment();
+            return loader.get();
+        }
+        joined.increment();
+        try {
+            return inFlight.result.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            return loader.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the load of " + key, e);
+        }
+    }
+
+    /**
+     * Later callers start a new load instead of joining the current one, e.g. once the data it reads has changed.
+     */
+    void forget(K key) {
+        flights.remove(key);
+    }
+
+    void forgetAll() {
+        flights.clear();
+    }
+
+    int inFlight() {
+        return flights.size();
+    }
+
+    private V lead(K key, Flight<V> flight, Supplier<V> loader) {
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        flights.remove(key, flight);
+        flight.result.complete(value);
+        return value;
+    }
+
+    private static final class Flight<V> {
+
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        boolean join(int maxWaiters) {
+            int current;
+            do {
+                current = waiters.get();
+                if (current >= maxWaiters) {
+                    return false;
+                }
+            } while (!waiters.compareAndSet(current, current + 1));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.vg.jenkins.stats;
+
+import com.vg.jenkins.datasource.PrimaryReads;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductStats;
+import com.vg.jenkins.event.ProductChangeBuffer;
+import com.vg.jenkins.event.ProductChangedEvent;
+import com.vg.jenkins.service.ProductService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Catalog aggregates (count and min/max/sum/average price) for the whole catalog and per creation day.
+ * They are loaded once at startup and then kept current from {@link ProductChangedEvent}s, so the stats
+ * endpoint never reads the products table. Prices are held as long minor units of the price column's
+ * scale, so sums stay exact however many writes they go through; a sum past {@code Long.MAX_VALUE} cents
+ * fails instead of wrapping.
+ * <p>
+ * Updates and deletes have to take back what the product contributed before, so the price and creation
+ * day of every product are kept as well. Min and max are kept as price multisets, which lets a delete of
+ * the cheapest product fall back to the next one without a rescan.
+ */
+@Component
+public class ProductStatistics {
+
+    /**
+     * Scale of the price column; prices with more decimals are rounded the way the database stores them.
+     */
+    static final int PRICE_SCALE = 2;
+
+    private static final int AVERAGE_SCALE = PRICE_SCALE + 2;
+
+    private record Entry(Long version, Long priceMinor, LocalDate createdAt) {
+    }
+
+    private static final class Rollup {
+
+        private long count;
+
+        private long priced;
+
+        private long sumMinor;
+
+        private final TreeMap<Long, Integer> prices = new TreeMap<>();
+
+        void add(Entry entry) {
+            count++;
+            if (entry.priceMinor() != null) {
+                priced++;
+                sumMinor = Math.addExact(sumMinor, entry.priceMinor());
+                prices.merge(entry.priceMinor(), 1, Integer::sum);
+            }
+        }
+
+        void remove(Entry entry) {
+            count--;
+            if (entry.priceMinor() != null) {
+                priced--;
+                sumMinor = Math.subtractExact(sumMinor, entry.priceMinor());
+                prices.computeIfPresent(entry.priceMinor(), (price, n) -> n == 1 ? null : n - 1);
+            }
+        }
+    }
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    private final Rollup total = new Rollup();
+
+    private final TreeMap<LocalDate, Rollup> days = new TreeMap<>();
+
+    private final ObjectProvider<ProductService> productService;
+
+    private final ProductChangeBuffer changes = new ProductChangeBuffer(this::apply);
+
+    /**
+     * Unfiltered stats, built on the first read after a change.
+     */
+    private ProductStats current;
+
+    @Autowired
+    public ProductStatistics(ObjectProvider<ProductService> productService) {
+        this.productService = productService;
+    }
+
+    /**
+     * Changes that commit while the catalog is streamed are replayed once it has been, so a streamed row can
+     * neither bring back a deleted product nor replace a newer update.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void rebuild() {
+        changes.load(() -> {
+            synchronized (this) {
+                entries.clear();
+                days.clear();
+                total.count = 0;
+                total.priced = 0;
+                total.sumMinor = 0;
+                total.prices.clear();
+                current = null;
+            }
+            PrimaryReads.run(() -> productService.getObject().streamAll(this::put));
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        changes.accept(event);
+    }
+
+    private void apply(ProductChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> put(event.product());
+            case UPDATED -> merge(event.product());
+            case DELETED -> remove(event.productId());
+        }
+    }
+
+    public synchronized void put(ProductDTO product) {
+        Entry previous = entries.get(product.getProductId());
+        if (previous != null && isOlder(product.getVersion(), previous.version())) {
+            return;
+        }
+        Entry entry = new Entry(product.getVersion(), minorUnits(product.getPrice()), product.getCreatedAt());
+        if (previous != null) {
+            unrecord(previous);
+        }
+        entries.put(product.getProductId(), entry);
+        record(entry);
+    }
+
+    /**
+     * Applies an update, keeping the creation day and deriving the version from the held entry when the
+     * update does not carry them.
+     */
+    public synchronized void merge(ProductDTO update) {
+        Entry previous = entries.get(update.getProductId());
+        ProductDTO merged = ProductDTO.builder()
+                .productId(update.getProductId())
+                .price(update.getPrice())
+                .createdAt(update.getCreatedAt())
+                .version(update.getVersion())
+                .build();
+        if (previous != null) {
+            if (merged.getCreatedAt() == null) {
+                merged.setCreatedAt(previous.createdAt());
+            }
+            if (merged.getVersion() == null && previous.version() != null) {
+                merged.setVersion(previous.version() + 1);
+            }
+        }
+        put(merged);
+    }
+
+    public synchronized void remove(Long productId) {
+        Entry previous = entries.remove(productId);
+        if (previous != null) {
+            unrecord(previous);
+        }
+    }
+
+    /**
+     * Stats of the products created between {@code from} and {@code to}, both inclusive and both optional.
+     * Without either bound the whole catalog is described, including products with no creation day.
+     */
+    public synchronized ProductStats stats(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            if (current == null) {
+                Map<LocalDate, Long> createdPerDay = new LinkedHashMap<>();
+                days.forEach((day, rollup) -> createdPerDay.put(day, rollup.count));
+                current = summary(null, null, total.count, total.priced, total.sumMinor,
+                        total.prices.isEmpty() ? null : total.prices.firstKey(),
+                        total.prices.isEmpty() ? null : total.prices.lastKey(),
+                        Collections.unmodifiableMap(createdPerDay));
+            }
+            return current;
+        }
+
+        long count = 0;
+        long priced = 0;
+        long sumMinor = 0;
+        Long minMinor = null;
+        Long maxMinor = null;
+        Map<LocalDate, Long> createdPerDay = new LinkedHashMap<>();
+        for (Map.Entry<LocalDate, Rollup> day : range(from, to).entrySet()) {
+            Rollup rollup = day.getValue();
+            count += rollup.count;
+            priced += rollup.priced;
+            sumMinor = Math.addExact(sumMinor, rollup.sumMinor);
+            if (!rollup.prices.isEmpty()) {
+                minMinor = minMinor == null ? rollup.prices.firstKey() : Math.min(minMinor, rollup.prices.firstKey());
+                maxMinor = maxMinor == null ? rollup.prices.lastKey() : Math.max(maxMinor, rollup.prices.lastKey());
+            }
+            createdPerDay.put(day.getKey(), rollup.count);
+        }
+        return summary(from, to, count, priced, sumMinor, minMinor, maxMinor, createdPerDay);
+    }
+
+    private void record(Entry entry) {
+        total.add(entry);
+        if (entry.createdAt() != null) {
+            days.computeIfAbsent(entry.createdAt(), day -> new Rollup()).add(entry);
+        }
+        current = null;
+    }
+
+    private void unrecord(Entry entry) {
+        total.remove(entry);
+        if (entry.createdAt() != null) {
+            Rollup day = days.get(entry.createdAt());
+            if (day != null) {
+                day.remove(entry);
+                if (day.count == 0) {
+                    days.remove(entry.createdAt());
+                }
+            }
+        }
+        current = null;
+    }
+
+    private NavigableMap<LocalDate, Rollup> range(LocalDate from, LocalDate to) {
+        if (from != null && to != null) {
+            return from.isAfter(to) ? Collections.emptyNavigableMap() : days.subMap(from, true, to, true);
+        }
+        return from != null ? days.tailMap(from, true) : days.headMap(to, true);
+    }
+
+    private static ProductStats summary(LocalDate from, LocalDate to, long count, long priced, long sumMinor,
+                                        Long minMinor, Long maxMinor, Map<LocalDate, Long> createdPerDay) {
+        BigDecimal sum = BigDecimal.valueOf(sumMinor, PRICE_SCALE);
+        return ProductStats.builder()
+                .from(from)
+                .to(to)
+                .count(count)
+                .pricedCount(priced)
+                .minPrice(minMinor == null ? null : BigDecimal.valueOf(minMinor, PRICE_SCALE))
+                .maxPrice(maxMinor == null ? null : BigDecimal.valueOf(maxMinor, PRICE_SCALE))
+                .sumPrice(sum)
+                .averagePrice(priced == 0 ? null
+                        : sum.divide(BigDecimal.valueOf(priced), AVERAGE_SCALE, RoundingMode.HALF_EVEN))
+                .createdPerDay(createdPerDay)
+                .build();
+    }
+
+    private static Long minorUnits(BigDecimal price) {
+        return price == null ? null : price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static boolean isOlder(Long candidate, Long current) {
+        return candidate != null && current != null && candidate < current;
+    }
+}
@@ -0,0 +1,274 @@
+package com.vg.jenkins.warmup;
+
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.service.ProductService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drives the read paths (Tomcat, the filters, {@link com.vg.jenkins.controller.ProductController},
+ * Hibernate and Jackson) through the local server before the instance takes traffic, in rounds, until the
+ * JIT spends less than the configured share of a round compiling. Only reads are sent, so it is safe
+ * against the real database.
+ * <p>
+ * Every request picks its read, cursor, page size and IDs at random from a sample of the catalog. A fixed
+ * set of URLs would be answered from the product cache and the page snapshots from the second round on,
+ * so the rounds that decide when compilation has settled would only have exercised cache hits.
+ * <p>
+ * It runs inside the {@link ApplicationReadyEvent} listener on purpose: Spring Boot only marks the
+ * application {@link ReadinessState#ACCEPTING_TRAFFIC} after the ready listeners return, so the readiness
+ * probe keeps the pod out of the Service until the warm-up is done. Liveness is unaffected. Warm-up
+ * requests carry a per-process token that exempts them from the rate limits.
+ */
+@Component
+public class ProductWarmup implements MeterBinder {
+
+    public static final String TOKEN_HEADER = "X-Warmup-Token";
+
+    public static final String DURATION_METRIC = "product.warmup.duration";
+
+    public static final String ROUNDS_METRIC = "product.warmup.rounds";
+
+    public static final String LATENCY_METRIC = "product.warmup.latency";
+
+    private static final Logger log = LoggerFactory.getLogger(ProductWarmup.class);
+
+    private static final String TOKEN = UUID.randomUUID().toString();
+
+    private static final int SAMPLE_PRODUCTS = 1000;
+
+    private static final int MAX_PAGE = 20;
+
+    private static final String[] SEARCH_TERMS = {"product", "a", "e", "o", "pro", "1"};
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ProductProperties.Warmup settings;
+
+    private final ProductService productService;
+
+    private volatile long durationNanos;
+
+    private volatile int rounds;
+
+    private volatile long[] firstRound = new long[0];
+
+    private volatile long[] lastRound = new long[0];
+
+    @Autowired
+    public ProductWarmup(ProductProperties productProperties, ProductService productService) {
+        this.settings = productProperties.getWarmup();
+        this.productService = productService;
+    }
+
+    private record Probe(URI uri, boolean gzip) {
+    }
+
+    public static boolean isWarmupRequest(HttpServletRequest request) {
+        return TOKEN.equals(request.getHeader(TOKEN_HEADER));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp(ApplicationReadyEvent event) {
+        if (!settings.isEnabled() || !(event.getApplicationContext() instanceof WebServerApplicationContext context)
+                || context.getWebServer() == null) {
+            return;
+        }
+        AvailabilityChangeEvent.publish(event.getApplicationContext(), ReadinessState.REFUSING_TRAFFIC);
+        long start = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, settings.getConcurrency()), runnable -> {
+            Thread thread = new Thread(runnable, "product-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            run(URI.create("http://localhost:" + context.getWebServer().getPort()), workers, start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException | ExecutionException e) {
+            log.warn("Warm-up stopped early, reporting ready anyway", e);
+        } finally {
+            workers.shutdownNow();
+            durationNanos = System.nanoTime() - start;
+        }
+        log.info("Warm-up finished after {} rounds in {} ms: p99 {} us in the first round, {} us in the last",
+                rounds, TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                TimeUnit.NANOSECONDS.toMicros(percentile(firstRound, 0.99)),
+                TimeUnit.NANOSECONDS.toMicros(percentile(lastRound, 0.99)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TimeGauge.builder(DURATION_METRIC, this, TimeUnit.NANOSECONDS, warmup -> warmup.durationNanos)
+                .description("Time spent warming up before reporting ready")
+                .register(registry);
+        Gauge.builder(ROUNDS_METRIC, this, warmup -> warmup.rounds)
+                .description("Warm-up rounds run before compilation settled")
+                .register(registry);
+        for (double quantile : new double[] {0.5, 0.99}) {
+            latencyGauge(registry, "first", quantile, warmup -> warmup.firstRound);
+            latencyGauge(registry, "last", quantile, warmup -> warmup.lastRound);
+        }
+    }
+
+    private void latencyGauge(MeterRegistry registry, String round, double quantile,
+                              Function<ProductWarmup, long[]> latencies) {
+        TimeGauge.builder(LATENCY_METRIC, this, TimeUnit.NANOSECONDS,
+                        warmup -> percentile(latencies.apply(warmup), quantile))
+                .description("Warm-up request latency in the first and the last round")
+                .tags("round", round, "quantile", Double.toString(quantile))
+                .register(registry);
+    }
+
+    public int rounds() {
+        return rounds;
+    }
+
+    private void run(URI base, ExecutorService workers, long start) throws InterruptedException, ExecutionException {
+        List<Long> ids = sampleIds();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        boolean compilationTimed = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(settings.getMaxDurationMillis());
+
+        int settled = 0;
+        while (rounds < settings.getMinRounds() || settled < settings.getSettledRounds()) {
+            if (System.nanoTime() - deadline > 0) {
+                log.info("Warm-up reached its time limit before compilation settled");
+                return;
+            }
+            long compilationBefore = compilationTimed ? compiler.getTotalCompilationTime() : 0;
+            long roundStart = System.nanoTime();
+            long[] latencies = round(client, workers, base, ids);
+            double roundMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - roundStart));
+            double compilationRatio = compilationTimed
+                    ? (compiler.getTotalCompilationTime() - compilationBefore) / roundMillis : 0;
+
+            Arrays.sort(latencies);
+            if (rounds == 0) {
+                firstRound = latencies;
+            }
+            lastRound = latencies;
+            rounds++;
+            settled = compilationRatio < settings.getSettledCompilationRatio() ? settled + 1 : 0;
+        }
+    }
+
+    /**
+     * Sends one round of requests, spread over the workers, and returns the latency of each.
+     */
+    private long[] round(HttpClient client, ExecutorService workers, URI base, List<Long> ids)
+            throws InterruptedException, ExecutionException {
+        int requests = Math.max(1, settings.getRequestsPerRound());
+        int concurrency = Math.max(1, settings.getConcurrency());
+        long[] latencies = new long[requests];
+        List<Callable<Void>> tasks = new ArrayList<>(concurrency);
+        for (int worker = 0; worker < concurrency; worker++) {
+            int first = worker;
+            tasks.add(() -> {
+                for (int i = first; i < requests; i += concurrency) {
+                    latencies[i] = send(client, probe(base, ids, ThreadLocalRandom.current()));
+                }
+                return null;
+            });
+        }
+        for (Future<Void> task : workers.invokeAll(tasks)) {
+            task.get();
+        }
+        return latencies;
+    }
+
+    private long send(HttpClient client, Probe probe) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(probe.uri())
+                .timeout(REQUEST_TIMEOUT)
+                .header(TOKEN_HEADER, TOKEN)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        if (probe.gzip()) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+        long start = System.nanoTime();
+        client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * IDs of the first products in the catalog, the pool the cursors and point reads are drawn from.
+     */
+    private List<Long> sampleIds() {
+        return productService.findPage(null, SAMPLE_PRODUCTS, null).stream()
+                .map(ProductDTO::getProductId)
+                .toList();
+    }
+
+    /**
+     * One of the list, gzip list, field-set, search, stats, point and multi-get reads, with a random cursor,
+     * page size and IDs so it mostly misses what earlier requests cached; with an empty catalog the point
+     * reads go down the not-found path instead.
+     */
+    private static Probe probe(URI base, List<Long> ids, ThreadLocalRandom random) {
+        int limit = 1 + random.nextInt(MAX_PAGE);
+        String after = ids.isEmpty() ? "" : "after=" + ids.get(random.nextInt(ids.size())) + "&";
+        return switch (random.nextInt(7)) {
+            case 0 -> new Probe(base.resolve("/api/v1/products?" + after + "limit=" + limit), false);
+            case 1 -> new Probe(base.resolve("/api/v1/products?" + after + "limit=" + limit), true);
+            case 2 -> new Probe(base.resolve("/api/v1/products?" + after + "limit=" + limit
+                    + "&fields=" + (random.nextBoolean() ? "name,price" : "name,description")), false);
+            case 3 -> new Probe(base.resolve("/api/v1/products/search?q="
+                    + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]
+                    + "&page=" + random.nextInt(5) + "&size=" + limit), false);
+            case 4 -> new Probe(base.resolve("/api/v1/products/stats"), false);
+            case 5 -> ids.isEmpty()
+                    ? new Probe(base.resolve("/api/v1/products/1"), false)
+                    : new Probe(base.resolve("/api/v1/products?ids=" + random.ints(limit, 0, ids.size())
+                            .mapToObj(i -> String.valueOf(ids.get(i)))
+                            .distinct()
+                            .collect(Collectors.joining(","))), false);
+            default -> new Probe(base.resolve("/api/v1/products/"
+                    + (ids.isEmpty() ? 1 : ids.get(random.nextInt(ids.size())))), false);
+        };
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,82 @@
+package com.vg.jenkins.web;
+
+import com.vg.jenkins.config.ProductProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of API requests in flight so that the request threads, platform or virtual,
+ * can never outnumber the database connections by more than the configured margin.
+ */
+@Component
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    /**
+     * Set by handlers whose async responses wait without holding a connection, such as long-polls; their
+     * permit is released as soon as the request goes async instead of when it completes.
+     */
+    public static final String RELEASE_ON_ASYNC_START_ATTRIBUTE = BulkheadFilter.class.getName() + ".releaseOnAsyncStart";
+
+    private final ProductProperties.Bulkhead bulkhead;
+
+    private final Semaphore permits;
+
+    @Autowired
+    public BulkheadFilter(ProductProperties productProperties) {
+        this.bulkhead = productProperties.getBulkhead();
+        this.permits = new Semaphore(bulkhead.getMaxConcurrentRequests(), true);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !bulkhead.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+
+        boolean releaseOnAsyncCompletion = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted() && request.getAttribute(RELEASE_ON_ASYNC_START_ATTRIBUTE) == null) {
+                // Streaming responses keep using the connection after this thread returns
+                request.getAsyncContext().addListener(new ReleasingAsyncListener(permits::release));
+                releaseOnAsyncCompletion = true;
+            }
+        } finally {
+            if (!releaseOnAsyncCompletion) {
+                permits.release();
+            }
+        }
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private boolean tryAcquire() {
+        try {
+            return permits.tryAcquire(bulkhead.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
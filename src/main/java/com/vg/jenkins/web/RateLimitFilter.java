@@ -0,0 +1,180 @@
+package com.vg.jenkins.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.warmup.ProductWarmup;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets and per-endpoint concurrency limits for the API, both answering 429 with a
+ * Retry-After. Clients are keyed by the API key header when it holds one of the configured keys, and by
+ * remote address otherwise, so unknown keys can't be used to get fresh buckets. The buckets live in a Caffeine cache, so lookups don't lock and idle
+ * clients expire. It runs ahead of the {@link BulkheadFilter} so that a rejected request never takes one
+ * of its permits. A concurrency limit of 0 or less leaves that endpoint class unlimited. The start-up
+ * {@link ProductWarmup} traffic is not limited.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    public static final String REJECTED_METRIC = "product.ratelimit.rejected";
+
+    public static final String ACTIVE_METRIC = "product.ratelimit.active";
+
+    public static final String CLIENTS_METRIC = "product.ratelimit.clients";
+
+    static final String LIST_PATH = "/api/v1/products";
+
+    static final String BATCH_GET_SUFFIX = ":batchGet";
+
+    enum Endpoint {
+        LIST, READ, WRITE;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final ProductProperties.RateLimit rateLimit;
+
+    private final Cache<String, TokenBucket> buckets;
+
+    private final Map<Endpoint, Semaphore> permits = new EnumMap<>(Endpoint.class);
+
+    private final Map<Endpoint, Integer> limits = new EnumMap<>(Endpoint.class);
+
+    private final LongSupplier clock;
+
+    private volatile MeterRegistry meterRegistry;
+
+    @Autowired
+    public RateLimitFilter(ProductProperties productProperties) {
+        this(productProperties, System::nanoTime);
+    }
+
+    RateLimitFilter(ProductProperties productProperties, LongSupplier clock) {
+        this.rateLimit = productProperties.getRateLimit();
+        this.buckets = Caffeine.from(rateLimit.getClientSpec()).build();
+        this.clock = clock;
+        limits.put(Endpoint.LIST, rateLimit.getMaxConcurrentLists());
+        limits.put(Endpoint.READ, rateLimit.getMaxConcurrentReads());
+        limits.put(Endpoint.WRITE, rateLimit.getMaxConcurrentWrites());
+        limits.forEach((endpoint, limit) -> {
+            if (limit > 0) {
+                permits.put(endpoint, new Semaphore(limit));
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(CLIENTS_METRIC, buckets, Cache::estimatedSize)
+                .description("Clients with a token bucket")
+                .register(registry);
+        permits.forEach((endpoint, semaphore) -> Gauge.builder(ACTIVE_METRIC, semaphore,
+                        s -> limits.get(endpoint) - s.availablePermits())
+                .description("Requests in flight per endpoint class")
+                .tag("endpoint", endpoint.tag())
+                .register(registry));
+        this.meterRegistry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimit.isEnabled() || !request.getRequestURI().startsWith("/api/")
+                || ProductWarmup.isWarmupRequest(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Endpoint endpoint = endpoint(request);
+
+        long nowNanos = clock.getAsLong();
+        long waitNanos = buckets.get(clientKey(request),
+                key -> new TokenBucket(rateLimit.getRequestsPerSecond(), rateLimit.getBurst(), nowNanos))
+                .tryAcquire(nowNanos);
+        if (waitNanos > 0) {
+            reject(response, endpoint, "rate", waitNanos);
+            return;
+        }
+
+        Semaphore semaphore = permits.get(endpoint);
+        if (semaphore == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!semaphore.tryAcquire()) {
+            reject(response, endpoint, "concurrency", 0);
+            return;
+        }
+
+        boolean releaseOnAsyncCompletion = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()
+                    && request.getAttribute(BulkheadFilter.RELEASE_ON_ASYNC_START_ATTRIBUTE) == null) {
+                request.getAsyncContext().addListener(new ReleasingAsyncListener(semaphore::release));
+                releaseOnAsyncCompletion = true;
+            }
+        } finally {
+            if (!releaseOnAsyncCompletion) {
+                semaphore.release();
+            }
+        }
+    }
+
+    int availablePermits(Endpoint endpoint) {
+        return permits.get(endpoint).availablePermits();
+    }
+
+    static Endpoint endpoint(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            // A multi-get is posted only because its ID list may not fit in a URL
+            return request.getRequestURI().endsWith(BATCH_GET_SUFFIX) ? Endpoint.READ : Endpoint.WRITE;
+        }
+        return LIST_PATH.equals(request.getRequestURI()) && request.getParameter("ids") == null
+                ? Endpoint.LIST : Endpoint.READ;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(rateLimit.getClientHeader());
+        return apiKey != null && rateLimit.getApiKeys().contains(apiKey)
+                ? "key:" + apiKey
+                : "addr:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, Endpoint endpoint, String reason, long waitNanos) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            registry.counter(REJECTED_METRIC, "endpoint", endpoint.tag(), "reason", reason).increment();
+        }
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+    }
+}
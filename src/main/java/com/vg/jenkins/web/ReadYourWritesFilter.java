@@ -0,0 +1,84 @@
+package com.vg.jenkins.web;
+
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.datasource.ReadYourWrites;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Gives a client read-your-writes on top of replica reads: every write stamps a cookie with the end of the
+ * read-your-writes window, and requests carrying an unexpired stamp read from the primary. The stamp is set
+ * before the write runs, since the response may already be committed once it returns.
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "PRODUCT_PRIMARY_UNTIL";
+
+    private final ProductProperties.Routing routing;
+
+    @Autowired
+    public ReadYourWritesFilter(ProductProperties productProperties) {
+        this.routing = productProperties.getRouting();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !routing.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        if (!isSafe(request.getMethod())) {
+            Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(now + routing.getReadYourWritesMillis()));
+            cookie.setPath("/api/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (routing.getReadYourWritesMillis() + 999) / 1000));
+            response.addCookie(cookie);
+        }
+
+        boolean pinned = primaryUntil(request) > now;
+        if (pinned) {
+            ReadYourWrites.pinToPrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (pinned) {
+                ReadYourWrites.clear();
+            }
+        }
+    }
+
+    private static boolean isSafe(String method) {
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.vg.jenkins.web;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gives back a permit held by an async request exactly once, whichever way the request ends.
+ */
+class ReleasingAsyncListener implements AsyncListener {
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private final Runnable release;
+
+    ReleasingAsyncListener(Runnable release) {
+        this.release = release;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        release();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        release();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        release();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+        // The same request may restart async processing; the permit stays held until it completes
+    }
+
+    private void release() {
+        if (released.compareAndSet(false, true)) {
+            release.run();
+        }
+    }
+}
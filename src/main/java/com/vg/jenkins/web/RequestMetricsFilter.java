@@ -0,0 +1,69 @@
+package com.vg.jenkins.web;
+
+import com.vg.jenkins.metrics.PersistenceActivity;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many statements and loaded entities each API request cost, tagged by URI template,
+ * so an N+1 pattern shows up as a per-endpoint distribution instead of a global query count.
+ * Streaming responses finish on another thread and are not recorded.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter implements MeterBinder {
+
+    public static final String STATEMENTS_METRIC = "product.request.statements";
+
+    public static final String ENTITIES_LOADED_METRIC = "product.request.entities.loaded";
+
+    private volatile MeterRegistry meterRegistry;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        PersistenceActivity activity = PersistenceActivity.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PersistenceActivity.stop();
+        }
+
+        MeterRegistry registry = meterRegistry;
+        if (registry == null || request.isAsyncStarted()) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        String method = request.getMethod();
+        DistributionSummary.builder(STATEMENTS_METRIC)
+                .description("JDBC statements prepared per request")
+                .tags("method", method, "uri", uri)
+                .register(registry)
+                .record(activity.getStatements());
+        DistributionSummary.builder(ENTITIES_LOADED_METRIC)
+                .description("Entities loaded per request")
+                .tags("method", method, "uri", uri)
+                .register(registry)
+                .record(activity.getEntitiesLoaded());
+    }
+}
@@ -0,0 +1,41 @@
+package com.vg.jenkins.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket held as a single theoretical arrival time (the GCRA form): every admitted request pushes
+ * it one emission interval ahead, and a request is admitted while it is no further ahead of now than the
+ * burst allows. Refilling is implicit in the passage of time, so there is no refill thread and one
+ * compare-and-set per request.
+ */
+class TokenBucket {
+
+    private final long intervalNanos;
+
+    private final long toleranceNanos;
+
+    private final AtomicLong arrival;
+
+    TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000d / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+        this.arrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @return 0 when the request is admitted, otherwise the nanoseconds until one would be
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = arrival.get();
+            long from = current - nowNanos > 0 ? current : nowNanos;
+            long ahead = from - nowNanos;
+            if (ahead > toleranceNanos) {
+                return ahead - toleranceNanos;
+            }
+            if (arrival.compareAndSet(current, from + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+-- Schema as previously created by ddl-auto for the in-memory test database.
+
+create table products
+(
+    product_id  bigint generated by default as identity primary key,
+    name        varchar(255),
+    description varchar(255),
+    price       numeric(38, 2),
+    created_at  date,
+    updated_at  date
+);
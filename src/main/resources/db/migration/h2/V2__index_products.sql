@@ -0,0 +1,4 @@
+-- Name lookups and prefix matches, price ranges and creation-date ranges, each also usable for sorting
+create index idx_products_name on products (name);
+create index idx_products_price on products (price);
+create index idx_products_created_at on products (created_at);
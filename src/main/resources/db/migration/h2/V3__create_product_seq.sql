@@ -0,0 +1,3 @@
+-- The pooled optimizer takes each value as the top of a block of 50 IDs, so the sequence starts a whole
+-- block above the existing keys.
+create sequence product_seq start with (select coalesce(max(product_id), 0) + 50 from products) increment by 50;
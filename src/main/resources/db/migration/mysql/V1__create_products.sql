@@ -0,0 +1,12 @@
+-- Schema as previously created by ddl-auto; databases that already have it are baselined at this version.
+
+create table products
+(
+    product_id  bigint not null auto_increment,
+    name        varchar(255),
+    description varchar(255),
+    price       decimal(38, 2),
+    created_at  date,
+    updated_at  date,
+    primary key (product_id)
+) engine = InnoDB;
@@ -0,0 +1,11 @@
+-- MySQL has no sequences: Hibernate keeps the product_seq generator in a single-row table.
+-- The pooled optimizer takes the stored value as the top of its next block of 50 IDs, so it is seeded a
+-- whole block above the existing keys; IDs handed out under IDENTITY are never reused.
+create table product_seq
+(
+    next_val bigint
+) engine = InnoDB;
+
+insert into product_seq
+select coalesce(max(product_id), 0) + 50
+from products;
@@ -0,0 +1,15 @@
+-- Optimistic locking: rows that predate the column start at version 0
+alter table products add column version bigint not null default 0;
+
+-- Outbox of committed product writes, read by the change feed and the near-cache invalidation
+create table product_changes
+(
+    sequence_number bigint      not null auto_increment,
+    product_id      bigint      not null,
+    type            varchar(16) not null,
+    payload         varchar(4000),
+    recorded_at     datetime(6) not null,
+    primary key (sequence_number)
+) engine = InnoDB;
+
+create index idx_product_changes_recorded_at on product_changes (recorded_at);
@@ -0,0 +1,26 @@
+create sequence if not exists product_seq start with 1 increment by 50;
+
+create table if not exists products
+(
+    product_id  bigint       not null primary key,
+    name        varchar(255),
+    description varchar(255),
+    price       numeric(38, 2),
+    created_at  date,
+    updated_at  date,
+    version     bigint       not null
+);
+
+create table if not exists product_changes
+(
+    sequence_number bigint auto_increment primary key,
+    product_id      bigint       not null,
+    type            varchar(16)  not null,
+    payload         varchar(4000),
+    recorded_at     timestamp(6) not null
+);
+
+create index if not exists idx_product_changes_recorded_at on product_changes (recorded_at);
+create index if not exists idx_products_name on products (name);
+create index if not exists idx_products_price on products (price);
+create index if not exists idx_products_created_at on products (created_at);
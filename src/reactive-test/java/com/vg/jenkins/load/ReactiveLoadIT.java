@@ -0,0 +1,64 @@
+package com.vg.jenkins.load;
+
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.reactive.ReactiveProductApplication;
+import com.vg.jenkins.reactive.ReactiveProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The same load as {@link AbstractProductLoadIT} against the WebFlux + R2DBC variant, to be compared with the
+ * platform and virtual thread lines: {@code ./mvnw -Preactive verify -Dloadtest=true}.
+ */
+@DisplayName("Load test on WebFlux and R2DBC")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(classes = ReactiveProductApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.main.web-application-type=reactive", LoadTestSupport.LOG_LEVEL})
+@ActiveProfiles(ReactiveProductApplication.PROFILE)
+class ReactiveLoadIT {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ReactiveProductService productService;
+
+    @BeforeEach
+    void seed() {
+        if (Boolean.FALSE.equals(productService.findPage(null, 1).hasElements().block())) {
+            Flux.range(0, AbstractProductLoadIT.PRODUCTS)
+                    .concatMap(i -> productService.save(ProductDTO.builder()
+                            .name("Product " + i)
+                            .description("load test")
+                            .price(BigDecimal.valueOf(i, 2))
+                            .build()))
+                    .blockLast();
+        }
+    }
+
+    @Test
+    void givenConcurrentClients_whenReadingProducts_thenReportThroughputAndP99() throws Exception {
+        long maxProductId = productService.streamAll()
+                .map(ProductDTO::getProductId)
+                .reduce(Math::max)
+                .blockOptional()
+                .orElseThrow();
+
+        LoadTestSupport.Result result = LoadTestSupport.run("reactive", "http://localhost:" + port,
+                AbstractProductLoadIT.CLIENTS, AbstractProductLoadIT.REQUESTS_PER_CLIENT, maxProductId);
+
+        assertThat(result.failed()).isZero();
+    }
+}
@@ -0,0 +1,157 @@
+package com.vg.jenkins.reactive;
+
+import com.vg.jenkins.controller.ProductController;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.exception.ProductNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@DisplayName("Reactive product controller test")
+@WebFluxTest(ReactiveProductController.class)
+@ActiveProfiles(ReactiveProductApplication.PROFILE)
+class ReactiveProductControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveProductService productService;
+
+    String endPoint = "/api/v1/products";
+
+    @DisplayName("Junit test for method findAllProducts with a full page")
+    @Test
+    void givenFullPage_whenFindAllProducts_thenReturnNextCursor() {
+        // Given - precondition or setup
+        given(productService.findPage(10L, 2)).willReturn(Flux.just(
+                ProductDTO.builder().productId(11L).name("Product 11").build(),
+                ProductDTO.builder().productId(12L).name("Product 12").build()));
+
+        // When - action or the behavior that we are go int to test
+        WebTestClient.ResponseSpec response = webTestClient.get()
+                .uri(endPoint + "?after=10&limit=2")
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isOk()
+                .expectHeader().valueEquals(ProductController.NEXT_CURSOR_HEADER, "12")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].name").isEqualTo("Product 12");
+    }
+
+    @DisplayName("Junit test for method streamAllProducts")
+    @Test
+    void givenProducts_whenStreamAllProducts_thenReturnNdjson() {
+        // Given - precondition or setup
+        given(productService.streamAll()).willReturn(Flux.just(
+                ProductDTO.builder().productId(1L).name("Product 1").build(),
+                ProductDTO.builder().productId(2L).name("Product 2").build()));
+
+        // When - action or the behavior that we are go int to test
+        WebTestClient.ResponseSpec response = webTestClient.get()
+                .uri(endPoint)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange();
+
+        // then - verify the output
+        String body = response.expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(body.split("\n")).hasSize(2);
+    }
+
+    @DisplayName("Junit test for saveProduct method")
+    @Test
+    void givenProductObject_whenCreateProduct_thenReturnSavedProduct() {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder()
+                .name("Product 1")
+                .price(new BigDecimal("9.99"))
+                .build();
+        given(productService.save(any(ProductDTO.class))).willAnswer(invocation -> {
+            ProductDTO product = invocation.getArgument(0);
+            product.setProductId(1L);
+            return Mono.just(product);
+        });
+
+        // When - action or the behavior that we are go int to test
+        WebTestClient.ResponseSpec response = webTestClient.post()
+                .uri(endPoint)
+                .bodyValue(productDTO)
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.productId").isEqualTo(1)
+                .jsonPath("$.name").isEqualTo("Product 1");
+    }
+
+    @DisplayName("Junit test for findProductById method when the product does not exist")
+    @Test
+    void givenMissingProductId_whenFindById_thenReturnNotFound() {
+        // Given - precondition or setup
+        given(productService.findById(99L)).willReturn(Mono.error(new ProductNotFoundException(99L)));
+
+        // When - action or the behavior that we are go int to test
+        WebTestClient.ResponseSpec response = webTestClient.get()
+                .uri(endPoint + "/{id}", 99L)
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("Product with ID 99 not found");
+    }
+
+    @DisplayName("Junit test for updateProduct method with a stale version")
+    @Test
+    void givenStaleVersion_whenUpdateProduct_thenReturnConflict() {
+        // Given - precondition or setup
+        given(productService.update(eq(1L), any(ProductDTO.class)))
+                .willReturn(Mono.error(new OptimisticLockingFailureException("stale")));
+
+        // When - action or the behavior that we are go int to test
+        WebTestClient.ResponseSpec response = webTestClient.put()
+                .uri(endPoint + "/{id}", 1L)
+                .bodyValue(ProductDTO.builder().name("Product 1").version(1L).build())
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isEqualTo(409);
+    }
+
+    @DisplayName("Junit test for deleteProduct method")
+    @Test
+    void givenProductId_whenDeleteProduct_thenReturnNoContent() {
+        // Given - precondition or setup
+        given(productService.delete(1L)).willReturn(Mono.empty());
+
+        // When - action or the behavior that we are go int to test
+        WebTestClient.ResponseSpec response = webTestClient.delete()
+                .uri(endPoint + "/{id}", 1L)
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isNoContent();
+    }
+}
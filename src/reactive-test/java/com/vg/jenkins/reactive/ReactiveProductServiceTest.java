@@ -0,0 +1,122 @@
+package com.vg.jenkins.reactive;
+
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.exception.ProductNotFoundException;
+import com.vg.jenkins.mapper.ProductMapper;
+import com.vg.jenkins.model.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("Reactive product service test")
+@ExtendWith(MockitoExtension.class)
+class ReactiveProductServiceTest {
+
+    @Mock
+    private ReactiveProductRepository productRepository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @InjectMocks
+    private ReactiveProductServiceImpl productService;
+
+    @DisplayName("Junit test for findPage method without a cursor")
+    @Test
+    void givenNoCursor_whenFindPage_thenStartFromTheBeginning() {
+        // Given - precondition or setup
+        Product product = Product.builder().productId(1L).name("Product 1").build();
+        ProductDTO productDTO = ProductDTO.builder().productId(1L).name("Product 1").build();
+        given(productRepository.findPage(0L, 10)).willReturn(Flux.just(product));
+        given(productMapper.mapToDTO(product)).willReturn(productDTO);
+
+        // When - action or the behavior that we are go int to test
+        Flux<ProductDTO> page = productService.findPage(null, 10);
+
+        // then - verify the output
+        StepVerifier.create(page)
+                .expectNext(productDTO)
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for findById method when the product does not exist")
+    @Test
+    void givenMissingProductId_whenFindById_thenErrorNotFound() {
+        // Given - precondition or setup
+        given(productRepository.findById(99L)).willReturn(Mono.empty());
+
+        // When - action or the behavior that we are go int to test
+        Mono<ProductDTO> product = productService.findById(99L);
+
+        // then - verify the output
+        StepVerifier.create(product)
+                .expectError(ProductNotFoundException.class)
+                .verify();
+    }
+
+    @DisplayName("Junit test for update method with a stale version")
+    @Test
+    void givenStaleVersion_whenUpdate_thenErrorConflict() {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder().name("Product 1").version(3L).build();
+        given(productRepository.update(eq(1L), eq("Product 1"), isNull(), isNull(), any(), eq(3L)))
+                .willReturn(Mono.just(0L));
+        given(productRepository.existsById(1L)).willReturn(Mono.just(true));
+
+        // When - action or the behavior that we are go int to test
+        Mono<ProductDTO> updated = productService.update(1L, productDTO);
+
+        // then - verify the output
+        StepVerifier.create(updated)
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+    }
+
+    @DisplayName("Junit test for update method without a version")
+    @Test
+    void givenNoVersion_whenUpdateMissingProduct_thenErrorNotFoundWithoutExistsCheck() {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder().name("Product 1").build();
+        given(productRepository.update(eq(1L), eq("Product 1"), isNull(), isNull(), any(), isNull()))
+                .willReturn(Mono.just(0L));
+
+        // When - action or the behavior that we are go int to test
+        Mono<ProductDTO> updated = productService.update(1L, productDTO);
+
+        // then - verify the output
+        StepVerifier.create(updated)
+                .expectError(ProductNotFoundException.class)
+                .verify();
+        verify(productRepository, never()).existsById(anyLong());
+    }
+
+    @DisplayName("Junit test for delete method")
+    @Test
+    void givenMissingProductId_whenDelete_thenErrorNotFound() {
+        // Given - precondition or setup
+        given(productRepository.deleteById(99L)).willReturn(Mono.just(0L));
+
+        // When - action or the behavior that we are go int to test
+        Mono<Void> deleted = productService.delete(99L);
+
+        // then - verify the output
+        StepVerifier.create(deleted)
+                .expectError(ProductNotFoundException.class)
+                .verify();
+    }
+}
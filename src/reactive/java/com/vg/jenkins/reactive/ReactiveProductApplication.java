@@ -0,0 +1,45 @@
+package com.vg.jenkins.reactive;
+
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.mapper.ProductMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Entry point of the WebFlux + R2DBC variant, built with {@code -Preactive}. It is a plain configuration
+ * rather than a second {@code @SpringBootApplication} so that tests keep finding {@code JenkinsApplication},
+ * and the profile keeps the servlet application from picking it up while scanning.
+ */
+@Configuration
+@Profile(ReactiveProductApplication.PROFILE)
+@EnableAutoConfiguration
+@EnableConfigurationProperties(ProductProperties.class)
+@ComponentScan(basePackageClasses = {ReactiveProductApplication.class, ProductMapper.class})
+public class ReactiveProductApplication {
+
+	public static final String PROFILE = "reactive";
+
+	public static void main(String[] args) {
+		SpringApplication application = new SpringApplication(ReactiveProductApplication.class);
+		application.setWebApplicationType(WebApplicationType.REACTIVE);
+		application.setAdditionalProfiles(PROFILE);
+		application.run(args);
+	}
+
+	/**
+	 * Tomcat is on the classpath for the servlet application and would otherwise win; the comparison is
+	 * only meaningful on Netty's event loop.
+	 */
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+
+}
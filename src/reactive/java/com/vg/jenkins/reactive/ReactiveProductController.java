@@ -0,0 +1,98 @@
+package com.vg.jenkins.reactive;
+
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.controller.ProductController;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.exception.ProductNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The servlet {@code ProductController} contract on WebFlux: keyset pages with the same cursor header,
+ * and an NDJSON stream that is written as the client consumes it.
+ */
+@RestController
+@Profile(ReactiveProductApplication.PROFILE)
+@RequestMapping("/api/v1/products")
+public class ReactiveProductController {
+
+    private final ReactiveProductService productService;
+
+    private final ProductProperties.Pagination pagination;
+
+    @Autowired
+    public ReactiveProductController(ReactiveProductService productService, ProductProperties productProperties) {
+        this.productService = productService;
+        this.pagination = productProperties.getPagination();
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<ProductDTO>>> findAll(@RequestParam(required = false) Long after,
+                                                          @RequestParam(required = false) Integer limit) {
+        int pageSize = limit == null
+                ? pagination.getDefaultLimit()
+                : Math.max(1, Math.min(limit, pagination.getMaxLimit()));
+        return productService.findPage(after, pageSize)
+                .collectList()
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.size() == pageSize) {
+                        response.header(ProductController.NEXT_CURSOR_HEADER,
+                                String.valueOf(page.get(page.size() - 1).getProductId()));
+                    }
+                    return response.body(page);
+                });
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductDTO> streamAll() {
+        return productService.streamAll();
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<ProductDTO>> save(@RequestBody ProductDTO product) {
+        return productService.save(product)
+                .map(savedProduct -> ResponseEntity.status(HttpStatus.CREATED).body(savedProduct));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ProductDTO>> update(@PathVariable Long id, @RequestBody ProductDTO product) {
+        return productService.update(id, product)
+                .map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteById(@PathVariable Long id) {
+        return productService.delete(id)
+                .thenReturn(ResponseEntity.noContent().<Void>build());
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductDTO>> findById(@PathVariable Long id) {
+        return productService.findById(id)
+                .map(ResponseEntity::ok);
+    }
+
+    @ExceptionHandler(ProductNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleNotFound(ProductNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, e.getMessage()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ProblemDetail> handleConflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage()));
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.vg.jenkins.reactive;
+
+import com.vg.jenkins.model.Product;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * R2DBC access to the {@code products} table. Rows are read into the JPA {@link Product} entity, used as a
+ * plain object here, so that {@code ProductMapper} serves both stacks unchanged.
+ */
+@Repository
+@Profile(ReactiveProductApplication.PROFILE)
+public class ReactiveProductRepository {
+
+    /**
+     * Must match the allocationSize of the entity's sequence generator.
+     */
+    static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final String COLUMNS = "product_id, name, description, price, created_at, updated_at, version";
+
+    private final DatabaseClient databaseClient;
+
+    private final boolean mysql;
+
+    @Autowired
+    public ReactiveProductRepository(DatabaseClient databaseClient, ConnectionFactory connectionFactory) {
+        this.databaseClient = databaseClient;
+        this.mysql = connectionFactory.getMetadata().getName().toLowerCase().contains("mysql");
+    }
+
+    public Flux<Product> findPage(long after, int limit) {
+        return databaseClient.sql("select " + COLUMNS + " from products where product_id > :after order by product_id limit :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    public Flux<Product> streamAll() {
+        return databaseClient.sql("select " + COLUMNS + " from products order by product_id")
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    public Mono<Product> findById(long id) {
+        return databaseClient.sql("select " + COLUMNS + " from products where product_id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toProduct)
+                .one();
+    }
+
+    public Mono<Boolean> existsById(long id) {
+        return databaseClient.sql("select 1 from products where product_id = :id")
+                .bind("id", id)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    public Mono<Product> insert(Product product) {
+        return nextId().flatMap(id -> {
+            product.setProductId(id);
+            product.setVersion(0);
+            DatabaseClient.GenericExecuteSpec insert = databaseClient.sql("""
+                            insert into products (product_id, name, description, price, created_at, updated_at, version)
+                            values (:id, :name, :description, :price, :createdAt, :updatedAt, 0)""")
+                    .bind("id", id);
+            insert = bind(insert, "name", product.getName(), String.class);
+            insert = bind(insert, "description", product.getDescription(), String.class);
+            insert = bind(insert, "price", product.getPrice(), BigDecimal.class);
+            insert = bind(insert, "createdAt", product.getCreatedAt(), LocalDate.class);
+            insert = bind(insert, "updatedAt", product.getUpdatedAt(), LocalDate.class);
+            return insert.then().thenReturn(product);
+        });
+    }
+
+    /**
+     * Same contract as {@code ProductRepository.updateProduct}: a null version skips the optimistic check.
+     */
+    public Mono<Long> update(long id, String name, String description, BigDecimal price, LocalDate updatedAt,
+                             Long version) {
+        DatabaseClient.GenericExecuteSpec update = databaseClient.sql("""
+                        update products
+                        set name = :name, description = :description, price = :price, updated_at = :updatedAt,
+                            version = version + 1
+                        where product_id = :id""" + (version == null ? "" : " and version = :version"))
+                .bind("id", id);
+        update = bind(update, "name", name, String.class);
+        update = bind(update, "description", description, String.class);
+        update = bind(update, "price", price, BigDecimal.class);
+        update = bind(update, "updatedAt", updatedAt, LocalDate.class);
+        if (version != null) {
+            update = update.bind("version", version);
+        }
+        return update.fetch().rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(long id) {
+        return databaseClient.sql("delete from products where product_id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Draws from the sequence the JPA application uses. Hibernate treats every value it reads as the top of
+     * a block of {@link #ID_ALLOCATION_SIZE} ids, so using the value itself can never collide with ids
+     * Hibernate hands out. MySQL has no sequences and Hibernate emulates this one with a single-row table,
+     * which the caller's transaction locks while it is read and advanced.
+     */
+    private Mono<Long> nextId() {
+        if (!mysql) {
+            return databaseClient.sql("select next value for product_seq")
+                    .map(row -> row.get(0, Long.class))
+                    .one();
+        }
+        return databaseClient.sql("select next_val from product_seq for update")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(value -> databaseClient.sql("update product_seq set next_val = next_val + :step")
+                        .bind("step", ID_ALLOCATION_SIZE)
+                        .then()
+                        .thenReturn(value));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name,
+                                                          Object value, Class<?> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private static Product toProduct(Readable row) {
+        Long version = row.get("version", Long.class);
+        return Product.builder()
+                .productId(row.get("product_id", Long.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .price(row.get("price", BigDecimal.class))
+                .createdAt(row.get("created_at", LocalDate.class))
+                .updatedAt(row.get("updated_at", LocalDate.class))
+                .version(version == null ? 0 : version)
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+package com.vg.jenkins.reactive;
+
+import com.vg.jenkins.dto.ProductDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveProductService {
+    Flux<ProductDTO> findPage(Long after, int limit);
+    Flux<ProductDTO> streamAll();
+    Mono<ProductDTO> save(ProductDTO product);
+    Mono<ProductDTO> update(long id, ProductDTO product);
+    Mono<Void> delete(long id);
+    Mono<ProductDTO> findById(Long id);
+}
@@ -0,0 +1,96 @@
+package com.vg.jenkins.reactive;
+
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.exception.ProductNotFoundException;
+import com.vg.jenkins.mapper.ProductMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Service
+@Profile(ReactiveProductApplication.PROFILE)
+public class ReactiveProductServiceImpl implements ReactiveProductService {
+
+    /**
+     * Rows requested from the driver at a time, so a slow client holds back the query instead of
+     * letting rows pile up in memory.
+     */
+    static final int STREAM_BATCH_SIZE = 500;
+
+    private final ReactiveProductRepository productRepository;
+
+    private final ProductMapper productMapper;
+
+    @Autowired
+    public ReactiveProductServiceImpl(ReactiveProductRepository productRepository, ProductMapper productMapper) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+    }
+
+    @Override
+    public Flux<ProductDTO> findPage(Long after, int limit) {
+        return productRepository.findPage(after == null ? 0L : after, limit)
+                .map(productMapper::mapToDTO);
+    }
+
+    @Override
+    public Flux<ProductDTO> streamAll() {
+        return productRepository.streamAll()
+                .limitRate(STREAM_BATCH_SIZE)
+                .map(productMapper::mapToDTO);
+    }
+
+    @Override
+    @Transactional
+    public Mono<ProductDTO> save(ProductDTO product) {
+        product.setCreatedAt(LocalDate.now());
+        return productRepository.insert(productMapper.mapToEntity(product))
+                .map(productMapper::mapToDTO);
+    }
+
+    @Override
+    @Transactional
+    public Mono<ProductDTO> update(long id, ProductDTO product) {
+        LocalDate today = LocalDate.now();
+        return productRepository.update(id, product.getName(), product.getDescription(), product.getPrice(), today,
+                        product.getVersion())
+                .flatMap(updatedRows -> {
+                    if (updatedRows > 0) {
+                        product.setProductId(id);
+                        product.setUpdatedAt(today);
+                        product.setVersion(product.getVersion() == null ? null : product.getVersion() + 1);
+                        return Mono.just(product);
+                    }
+                    if (product.getVersion() == null) {
+                        return Mono.error(new ProductNotFoundException(id));
+                    }
+                    return productRepository.existsById(id)
+                            .flatMap(exists -> Mono.<ProductDTO>error(exists
+                                    ? new OptimisticLockingFailureException("Product with ID " + id
+                                    + " was modified concurrently, expected version " + product.getVersion())
+                                    : new ProductNotFoundException(id)));
+                });
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> delete(long id) {
+        return productRepository.deleteById(id)
+                .flatMap(deletedRows -> deletedRows == 0
+                        ? Mono.<Void>error(new ProductNotFoundException(id))
+                        : Mono.<Void>empty());
+    }
+
+    @Override
+    public Mono<ProductDTO> findById(Long id) {
+        return productRepository.findById(id)
+                .map(productMapper::mapToDTO)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException(id)));
+    }
+}
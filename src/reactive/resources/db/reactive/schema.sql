@@ -0,0 +1,12 @@
+create sequence if not exists product_seq start with 1 increment by 50;
+
+create table if not exists products
+(
+    product_id  bigint       not null primary key,
+    name        varchar(255),
+    description varchar(255),
+    price       numeric(38, 2),
+    created_at  date,
+    updated_at  date,
+    version     bigint       not null
+);
@@ -0,0 +1,105 @@
+package com.vg.jenkins.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.event.ProductChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two replicas in one JVM, connected through a loopback hub.
+ */
+@DisplayName("Product near cache test")
+class ProductNearCacheTest {
+
+    private ProductNearCache nodeA;
+
+    private ProductNearCache nodeB;
+
+    private Cache cacheA;
+
+    private Cache cacheB;
+
+    @BeforeEach
+    void setUp() {
+        LoopbackInvalidationTransport.Hub hub = new LoopbackInvalidationTransport.Hub();
+        ProductProperties productProperties = new ProductProperties();
+        nodeA = new ProductNearCache(productProperties, new LoopbackInvalidationTransport(hub));
+        nodeB = new ProductNearCache(productProperties, new LoopbackInvalidationTransport(hub));
+        cacheA = nodeA.attach(new CaffeineCache("products", Caffeine.newBuilder().build(), false));
+        cacheB = nodeB.attach(new CaffeineCache("products", Caffeine.newBuilder().build(), false));
+    }
+
+    @DisplayName("A write on one replica evicts the product on the other")
+    @Test
+    void givenProductCachedOnBoth_whenWrittenOnOne_thenEvictedOnOther() {
+        // Given - precondition or setup
+        cacheA.put(1L, product(1L, 1L));
+        cacheB.put(1L, product(1L, 1L));
+
+        // When - action or the behavior that we are go int to test
+        nodeA.onProductChanged(ProductChangedEvent.updated(product(1L, 2L)));
+
+        // then - verify the output
+        assertThat(cacheB.get(1L)).isNull();
+        assertThat(cacheA.get(1L)).isNotNull();
+    }
+
+    @DisplayName("A read that started before a remote write can't re-populate the old version")
+    @Test
+    void givenReadInFlight_whenRemoteWriteArrives_thenOldValueNotCached() {
+        // Given - precondition or setup
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        nodeB.bindTo(meterRegistry);
+        assertThat(cacheB.get(1L)).isNull();
+
+        // When - action or the behavior that we are go int to test
+        nodeA.onProductChanged(ProductChangedEvent.updated(product(1L, 2L)));
+        cacheB.put(1L, product(1L, 1L));
+
+        // then - verify the output
+        assertThat(cacheB.get(1L)).isNull();
+        assertThat(meterRegistry.get(ProductNearCache.STALE_PUTS_METRIC).functionCounter().count()).isEqualTo(1);
+    }
+
+    @DisplayName("A value at least as new as the invalidation is cached")
+    @Test
+    void givenReadInFlight_whenNewVersionLoaded_thenCached() {
+        // Given - precondition or setup
+        assertThat(cacheB.get(1L)).isNull();
+        nodeA.onProductChanged(ProductChangedEvent.updated(product(1L, 2L)));
+
+        // When - action or the behavior that we are go int to test
+        cacheB.put(1L, product(1L, 2L));
+
+        // then - verify the output
+        assertThat(cacheB.get(1L)).isNotNull();
+    }
+
+    @DisplayName("Without versions, a delete blocks fills that started before it")
+    @Test
+    void givenReadInFlight_whenRemoteDelete_thenFillDropped() {
+        // Given - precondition or setup
+        assertThat(cacheB.get(1L)).isNull();
+
+        // When - action or the behavior that we are go int to test
+        nodeA.onProductChanged(ProductChangedEvent.deleted(1L));
+        cacheB.put(1L, product(1L, 1L));
+        assertThat(cacheB.get(1L)).isNull();
+        cacheB.put(1L, product(1L, 3L));
+
+        // then - verify the output
+        assertThat(cacheB.get(1L)).isNotNull();
+    }
+
+    private static ProductDTO product(Long id, Long version) {
+        return ProductDTO.builder().productId(id).name("Product " + id).version(version).build();
+    }
+}
@@ -0,0 +1,217 @@
+package com.vg.jenkins.changes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.dto.ProductChangeDTO;
+import com.vg.jenkins.event.ProductChangedEvent;
+import com.vg.jenkins.model.ProductChange;
+import com.vg.jenkins.repository.ProductChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@DisplayName("Product change feed test")
+@ExtendWith(MockitoExtension.class)
+class ProductChangeFeedTest {
+
+    @Mock
+    private ProductChangeRepository productChangeRepository;
+
+    @Mock
+    private DatabaseClock databaseClock;
+
+    private ProductChangeFeed productChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        productChangeFeed = new ProductChangeFeed(productChangeRepository, databaseClock,
+                new ObjectMapper().findAndRegisterModules(), new ProductProperties());
+    }
+
+    @DisplayName("A change after a recent sequence gap is held back")
+    @Test
+    void givenRecentGap_whenChangesSince_thenStopBeforeGap() {
+        // Given - precondition or setup
+        Instant now = Instant.now();
+        given(databaseClock.now()).willReturn(now);
+        given(productChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(eq(0L), any(Limit.class)))
+                .willReturn(List.of(change(1, now), change(2, now), change(4, now)));
+
+        // When - action or the behavior that we are go int to test
+        List<ProductChangeDTO> changes = productChangeFeed.changesSince(0, 10);
+
+        // then - verify the output
+        assertThat(changes).extracting(ProductChangeDTO::getSequence).containsExactly(1L, 2L);
+    }
+
+    @DisplayName("A change after a gap older than the gap timeout is handed out")
+    @Test
+    void givenSettledGap_whenChangesSince_thenSkipGap() {
+        // Given - precondition or setup
+        Instant old = Instant.now().minusSeconds(60);
+        given(databaseClock.now()).willReturn(Instant.now());
+        given(productChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(eq(0L), any(Limit.class)))
+                .willReturn(List.of(change(1, old), change(3, old)));
+
+        // When - action or the behavior that we are go int to test
+        List<ProductChangeDTO> changes = productChangeFeed.changesSince(0, 10);
+
+        // then - verify the output
+        assertThat(changes).extracting(ProductChangeDTO::getSequence).containsExactly(1L, 3L);
+        assertThat(changes.get(0).getProduct().getName()).isEqualTo("Product 1");
+    }
+
+    @DisplayName("Subscribers are pushed the changes after their cursor")
+    @Test
+    void givenSubscription_whenChangeCommitted_thenDelivered() throws Exception {
+        // Given - precondition or setup
+        given(productChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(eq(5L), any(Limit.class)))
+                .willReturn(List.of(change(6, Instant.now())));
+        CompletableFuture<List<ProductChangeDTO>> delivered = new CompletableFuture<>();
+        productChangeFeed.start();
+
+        // When - action or the behavior that we are go int to test
+        try {
+            productChangeFeed.subscribe(new ProductChangeFeed.Subscription(5) {
+                @Override
+                public boolean deliver(List<ProductChangeDTO> changes) {
+                    delivered.complete(changes);
+                    return false;
+                }
+            });
+
+            // then - verify the output
+            assertThat(delivered.get(5, TimeUnit.SECONDS))
+                    .extracting(ProductChangeDTO::getSequence)
+                    .containsExactly(6L);
+        } finally {
+            productChangeFeed.stop();
+        }
+    }
+
+    @DisplayName("Followers get each change committed after they started following")
+    @Test
+    void givenFollower_whenChangesCommitted_thenEachDelivered() throws Exception {
+        // Given - precondition or setup
+        given(productChangeRepository.findLatestSequence()).willReturn(7L);
+        given(productChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(eq(7L), any(Limit.class)))
+                .willReturn(List.of(change(8, Instant.now()), change(9, Instant.now())));
+        List<Long> followed = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        productChangeFeed.start();
+
+        // When - action or the behavior that we are go int to test
+        try {
+            productChangeFeed.follow(change -> {
+                if (change.getSequence() == 8L) {
+                    throw new IllegalStateException("listener failed");
+                }
+                followed.add(change.getSequence());
+                done.complete(null);
+            });
+
+            // then - verify the output
+            done.get(5, TimeUnit.SECONDS);
+            assertThat(followed).containsExactly(9L);
+        } finally {
+            productChangeFeed.stop();
+        }
+    }
+
+    @DisplayName("A queued subscriber blocked on a send does not hold up the others")
+    @Test
+    void givenBlockedQueuedSubscriber_whenChangeCommitted_thenOthersStillDelivered() throws Exception {
+        // Given - precondition or setup
+        given(productChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(eq(5L), any(Limit.class)))
+                .willReturn(List.of(change(6, Instant.now())));
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Long> sent = new CompletableFuture<>();
+        CompletableFuture<List<ProductChangeDTO>> delivered = new CompletableFuture<>();
+        productChangeFeed.start();
+
+        // When - action or the behavior that we are go int to test
+        try {
+            productChangeFeed.subscribe(new ProductChangeFeed.QueuedSubscription(5, 10) {
+                @Override
+                protected void send(ProductChangeDTO change) throws Exception {
+                    release.await();
+                    sent.complete(change.getSequence());
+                }
+
+                @Override
+                protected void dropped(Exception cause) {
+                }
+            });
+            productChangeFeed.subscribe(new ProductChangeFeed.Subscription(5) {
+                @Override
+                public boolean deliver(List<ProductChangeDTO> changes) {
+                    delivered.complete(changes);
+                    return false;
+                }
+            });
+
+            // then - verify the output
+            assertThat(delivered.get(5, TimeUnit.SECONDS))
+                    .extracting(ProductChangeDTO::getSequence)
+                    .containsExactly(6L);
+            release.countDown();
+            assertThat(sent.get(5, TimeUnit.SECONDS)).isEqualTo(6L);
+        } finally {
+            release.countDown();
+            productChangeFeed.stop();
+        }
+    }
+
+    @DisplayName("A queued subscriber that falls a whole queue behind is dropped")
+    @Test
+    void givenFullQueue_whenDeliver_thenDropped() {
+        // Given - precondition or setup
+        AtomicBoolean droppedForOverflow = new AtomicBoolean();
+        ProductChangeFeed.QueuedSubscription subscription = new ProductChangeFeed.QueuedSubscription(0, 1) {
+            @Override
+            protected void send(ProductChangeDTO change) {
+            }
+
+            @Override
+            protected void dropped(Exception cause) {
+                droppedForOverflow.set(cause == null);
+            }
+        };
+
+        // When - action or the behavior that we are go int to test
+        boolean wantsMore = subscription.deliver(List.of(
+                ProductChangeDTO.builder().sequence(1L).build(),
+                ProductChangeDTO.builder().sequence(2L).build()));
+
+        // then - verify the output
+        assertThat(wantsMore).isFalse();
+        assertThat(droppedForOverflow).isTrue();
+    }
+
+    private static ProductChange change(long sequence, Instant recordedAt) {
+        return ProductChange.builder()
+                .sequence(sequence)
+                .productId(sequence)
+                .type(ProductChangedEvent.Type.CREATED)
+                .payload("{\"productId\":" + sequence + ",\"name\":\"Product " + sequence + "\"}")
+                .recordedAt(recordedAt)
+                .build();
+    }
+}
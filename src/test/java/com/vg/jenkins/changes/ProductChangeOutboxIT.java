@@ -0,0 +1,84 @@
+package com.vg.jenkins.changes;
+
+import com.vg.jenkins.dto.ProductChangeDTO;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.event.ProductChangedEvent;
+import com.vg.jenkins.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Product change outbox test")
+@SpringBootTest
+class ProductChangeOutboxIT {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    private long since;
+
+    @BeforeEach
+    void setUp() {
+        List<ProductChangeDTO> existing = productChangeFeed.changesSince(0, Integer.MAX_VALUE);
+        since = existing.isEmpty() ? 0 : existing.get(existing.size() - 1).getSequence();
+    }
+
+    @DisplayName("Save, update and delete are recorded in order")
+    @Test
+    void givenProductWrites_whenChangesSince_thenRecordedInOrder() {
+        // Given - precondition or setup
+        ProductDTO saved = productService.save(ProductDTO.builder()
+                .name("Outbox product")
+                .price(BigDecimal.valueOf(10.00))
+                .build());
+        productService.update(saved.getProductId(), ProductDTO.builder()
+                .name("Outbox product")
+                .description("updated")
+                .price(BigDecimal.valueOf(12.00))
+                .build());
+        productService.delete(saved.getProductId());
+
+        // When - action or the behavior that we are go int to test
+        List<ProductChangeDTO> changes = productChangeFeed.changesSince(since, 100);
+
+        // then - verify the output
+        assertThat(changes).extracting(ProductChangeDTO::getType).containsExactly(
+                ProductChangedEvent.Type.CREATED, ProductChangedEvent.Type.UPDATED, ProductChangedEvent.Type.DELETED);
+        assertThat(changes).extracting(ProductChangeDTO::getProductId).containsOnly(saved.getProductId());
+        assertThat(changes.get(1).getProduct().getDescription()).isEqualTo("updated");
+        assertThat(changes.get(2).getProduct()).isNull();
+    }
+
+    @DisplayName("A rolled back write leaves no change behind")
+    @Test
+    void givenRolledBackWrite_whenChangesSince_thenNothingRecorded() {
+        // Given - precondition or setup
+        transactionOperations.executeWithoutResult(status -> {
+            productService.save(ProductDTO.builder()
+                    .name("Rolled back product")
+                    .price(BigDecimal.valueOf(10.00))
+                    .build());
+            status.setRollbackOnly();
+        });
+
+        // When - action or the behavior that we are go int to test
+        List<ProductChangeDTO> changes = productChangeFeed.changesSince(since, 100);
+
+        // then - verify the output
+        assertThat(changes).isEmpty();
+    }
+}
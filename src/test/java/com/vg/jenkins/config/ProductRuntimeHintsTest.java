@@ -0,0 +1,61 @@
+package com.vg.jenkins.config;
+
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Product runtime hints test")
+class ProductRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new ProductRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @DisplayName("The JPQL projection constructor can be invoked reflectively")
+    @Test
+    void givenHints_whenProjectionConstructor_thenInvocable() throws Exception {
+        // Given - precondition or setup
+        Constructor<ProductDTO> constructor = ProductDTO.class.getConstructor(Long.class, String.class, String.class,
+                BigDecimal.class, LocalDate.class, LocalDate.class, Long.class);
+
+        // When - action or the behavior that we are go int to test
+        boolean invocable = RuntimeHintsPredicates.reflection().onConstructor(constructor).test(hints);
+
+        // then - verify the output
+        assertThat(invocable).isTrue();
+    }
+
+    @DisplayName("Entities, the journal entry and the SQL scripts are registered")
+    @Test
+    void givenHints_whenEntitiesAndResources_thenRegistered() throws Exception {
+        // Given - precondition or setup
+        Field productId = Product.class.getDeclaredField("productId");
+
+        // When - action or the behavior that we are go int to test
+        boolean fieldAccessible = RuntimeHintsPredicates.reflection().onField(productId).test(hints);
+        boolean journalEntry = RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of(ProductRuntimeHints.INGESTION_JOURNAL_ENTRY)).test(hints);
+        boolean replicaScript = RuntimeHintsPredicates.resource().forResource("db/replica-h2.sql").test(hints);
+
+        // then - verify the output
+        assertThat(fieldAccessible).isTrue();
+        assertThat(journalEntry).isTrue();
+        assertThat(replicaScript).isTrue();
+    }
+}
@@ -0,0 +1,153 @@
+package com.vg.jenkins.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vg.jenkins.changes.ProductChangeFeed;
+import com.vg.jenkins.dto.ProductBatchResult;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductLookupResult;
+import com.vg.jenkins.service.ProductPageSnapshots;
+import com.vg.jenkins.service.ProductService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DisplayName("Product batch controller test")
+@WebMvcTest
+class ProductBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @MockBean
+    private ProductChangeFeed productChangeFeed;
+
+    @MockBean
+    private ProductPageSnapshots productPageSnapshots;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    String endPoint = "/api/v1/products:batch";
+
+    @DisplayName("Junit test for batch save")
+    @Test
+    void givenProductList_whenSaveAll_thenReturnResultPerItem() throws Exception {
+        // Given - precondition or setup
+        List<ProductDTO> productDTOList = List.of(
+                ProductDTO.builder().name("Product 1").price(BigDecimal.valueOf(10.00)).build(),
+                ProductDTO.builder().name("Product 2").price(BigDecimal.valueOf(20.00)).build());
+
+        given(productService.saveAll(productDTOList)).willReturn(List.of(
+                ProductBatchResult.of(0, 1L, ProductBatchResult.Status.CREATED),
+                ProductBatchResult.of(1, 2L, ProductBatchResult.Status.CREATED)));
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(post(endPoint)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(productDTOList)));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[1].productId", is(2)))
+                .andExpect(jsonPath("$[1].status", is("CREATED")));
+    }
+
+    @DisplayName("Junit test for batch update")
+    @Test
+    void givenProductList_whenUpdateAll_thenReturnResultPerItem() throws Exception {
+        // Given - precondition or setup
+        List<ProductDTO> productDTOList = List.of(ProductDTO.builder().productId(5L).name("Product 5").build());
+
+        given(productService.updateAll(productDTOList)).willReturn(List.of(
+                ProductBatchResult.of(0, 5L, ProductBatchResult.Status.NOT_FOUND)));
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(put(endPoint)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(productDTOList)));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("NOT_FOUND")));
+    }
+
+    @DisplayName("Junit test for batch delete")
+    @Test
+    void givenIdList_whenDeleteAll_thenReturnResultPerItem() throws Exception {
+        // Given - precondition or setup
+        given(productService.deleteAll(List.of(1L, 2L))).willReturn(List.of(
+                ProductBatchResult.of(0, 1L, ProductBatchResult.Status.DELETED),
+                ProductBatchResult.of(1, 2L, ProductBatchResult.Status.NOT_FOUND)));
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(delete(endPoint)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1,2]"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("DELETED")))
+                .andExpect(jsonPath("$[1].status", is("NOT_FOUND")));
+    }
+
+    @DisplayName("Junit test for batch limit")
+    @Test
+    void givenOversizedBatch_whenDeleteAll_thenRejectRequest() throws Exception {
+        // Given - precondition or setup
+        List<Long> ids = Collections.nCopies(10001, 1L);
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(delete(endPoint)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ids)));
+
+        // then - verify the output
+        response.andExpect(status().isPayloadTooLarge());
+        verifyNoInteractions(productService);
+    }
+
+    @DisplayName("Junit test for batch get")
+    @Test
+    void givenIdList_whenBatchGet_thenReturnResultPerIdInOrder() throws Exception {
+        // Given - precondition or setup
+        List<Long> ids = List.of(2L, 7L);
+        given(productService.findAllById(ids)).willReturn(List.of(
+                ProductLookupResult.found(ProductDTO.builder().productId(2L).name("Product 2").build()),
+                ProductLookupResult.notFound(7L)));
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(post("/api/v1/products:batchGet")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ids)));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].product.name", is("Product 2")))
+                .andExpect(jsonPath("$[1].productId", is(7)))
+                .andExpect(jsonPath("$[1].status", is("NOT_FOUND")));
+    }
+}
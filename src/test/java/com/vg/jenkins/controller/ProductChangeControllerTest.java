@@ -0,0 +1,97 @@
+package com.vg.jenkins.controller;
+
+import com.vg.jenkins.changes.ProductChangeFeed;
+import com.vg.jenkins.dto.ProductChangeDTO;
+import com.vg.jenkins.event.ProductChangedEvent;
+import com.vg.jenkins.service.ProductPageSnapshots;
+import com.vg.jenkins.service.ProductService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DisplayName("Product change controller test")
+@WebMvcTest
+class ProductChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @MockBean
+    private ProductChangeFeed productChangeFeed;
+
+    @MockBean
+    private ProductPageSnapshots productPageSnapshots;
+
+    String endPoint = "/api/v1/products/changes";
+
+    @DisplayName("Available changes are returned with the next cursor")
+    @Test
+    void givenChanges_whenGetChanges_thenReturnChangesAndCursor() throws Exception {
+        // Given - precondition or setup
+        given(productChangeFeed.changesSince(eq(3L), anyInt())).willReturn(List.of(change(4), change(5)));
+
+        // When - action or the behavior that we are go int to test
+        MvcResult result = mockMvc.perform(get(endPoint).param("since", "3"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then - verify the output
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(ProductController.NEXT_CURSOR_HEADER, "5"))
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0].type", is("CREATED")));
+    }
+
+    @DisplayName("A long-poll without changes answers once a change is pushed")
+    @Test
+    void givenNoChanges_whenLongPoll_thenAnsweredOnDelivery() throws Exception {
+        // Given - precondition or setup
+        given(productChangeFeed.changesSince(eq(5L), anyInt())).willReturn(List.of());
+        MvcResult result = mockMvc.perform(get(endPoint).param("since", "5").param("waitMillis", "10000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ArgumentCaptor<ProductChangeFeed.Subscription> subscription =
+                ArgumentCaptor.forClass(ProductChangeFeed.Subscription.class);
+        verify(productChangeFeed).subscribe(subscription.capture());
+
+        // When - action or the behavior that we are go int to test
+        subscription.getValue().deliver(List.of(change(6)));
+
+        // then - verify the output
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(ProductController.NEXT_CURSOR_HEADER, "6"))
+                .andExpect(jsonPath("$[0].sequence", is(6)));
+    }
+
+    private static ProductChangeDTO change(long sequence) {
+        return ProductChangeDTO.builder()
+                .sequence(sequence)
+                .type(ProductChangedEvent.Type.CREATED)
+                .productId(sequence)
+                .build();
+    }
+}
@@ -1,17 +1,33 @@
 package com.vg.jenkins.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.vg.jenkins.changes.ProductChangeFeed;
 import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductField;
+import com.vg.jenkins.dto.ProductLookupResult;
+import com.vg.jenkins.dto.ProductSearchCriteria;
+import com.vg.jenkins.dto.ProductSearchResult;
+import com.vg.jenkins.dto.ProductStats;
+import com.vg.jenkins.event.ProductChangedEvent;
+import com.vg.jenkins.exception.ProductNotFoundException;
 import com.vg.jenkins.model.Product;
+import com.vg.jenkins.service.ProductPageSnapshots;
 import com.vg.jenkins.service.ProductService;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 import static org.hamcrest.CoreMatchers.*;
@@ -20,15 +36,37 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @DisplayName("Product controller test")
 @WebMvcTest
+@Import(ProductPageSnapshots.class)
 class ProductControllerTest {
 
     @Autowired
@@ -37,11 +75,22 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductChangeFeed productChangeFeed;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ProductPageSnapshots productPageSnapshots;
+
     String endPoint = "/api/v1/products";
 
+    @BeforeEach
+    void setUp() {
+        productPageSnapshots.invalidateAll();
+    }
+
     @DisplayName("Junit test for method findAllProducts")
     @Test
     void givenProductsList_whenFindAllProducts_thenReturnProductsList() throws Exception {
@@ -61,7 +110,8 @@ class ProductControllerTest {
                         .build()
         );
 
-        given(productService.findAll()).willReturn(productDTOList);
+        given(productService.catalogVersion()).willReturn("e-1");
+        given(productService.findPage(any(), eq(100), any())).willReturn(productDTOList);
 
         // When - action or the behavior that we are go int to test
         ResultActions response = mockMvc.perform(get(endPoint));
@@ -71,7 +121,152 @@ class ProductControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.size()", is(productDTOList.size())))
                 .andExpect(jsonPath("$[0].name", is("Product 1")))
-                .andExpect(jsonPath("$[1].name", is("Product 2")));
+                .andExpect(jsonPath("$[1].name", is("Product 2")))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"e-1-json\""))
+                .andExpect(header().doesNotExist(ProductController.NEXT_CURSOR_HEADER));
+    }
+
+    @DisplayName("Junit test for method findAllProducts with a full page")
+    @Test
+    void givenFullPage_whenFindAllProducts_thenReturnNextCursor() throws Exception {
+        // Given - precondition or setup
+        List<ProductDTO> productDTOList = Arrays.asList(
+                ProductDTO.builder()
+                        .productId(11L)
+                        .name("Product 11")
+                        .build(),
+                ProductDTO.builder()
+                        .productId(12L)
+                        .name("Product 12")
+                        .build()
+        );
+
+        given(productService.catalogVersion()).willReturn("e-1");
+        given(productService.findPage(eq(10L), eq(2), any())).willReturn(productDTOList);
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint)
+                .param("after", "10")
+                .param("limit", "2"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0].productId", is(11)))
+                .andExpect(header().string(ProductController.NEXT_CURSOR_HEADER, "12"));
+    }
+
+    @DisplayName("Junit test for method findAllProducts with selected fields")
+    @Test
+    void givenFields_whenFindAllProducts_thenReturnOnlySelectedFields() throws Exception {
+        // Given - precondition or setup
+        Map<String, Object> product = new LinkedHashMap<>();
+        product.put("productId", 11L);
+        product.put("name", "Product 11");
+
+        given(productService.catalogVersion()).willReturn("e-1");
+        given(productService.findPageFields(eq(10L), eq(1),
+                eq(EnumSet.of(ProductField.PRODUCT_ID, ProductField.NAME)), any()))
+                .willReturn(List.of(product));
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint)
+                .param("after", "10")
+                .param("limit", "1")
+                .param("fields", "name"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productId", is(11)))
+                .andExpect(jsonPath("$[0].name", is("Product 11")))
+                .andExpect(jsonPath("$[0].price").doesNotExist())
+                .andExpect(header().string(ProductController.NEXT_CURSOR_HEADER, "11"));
+        verify(productService, never()).findPage(any(), anyInt(), any());
+    }
+
+    @DisplayName("Junit test for method findAllProducts with an unknown field")
+    @Test
+    void givenUnknownField_whenFindAllProducts_thenBadRequest() throws Exception {
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint).param("fields", "name,secret"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Junit test for method findAllProducts with ids")
+    @Test
+    void givenIds_whenFindAllProducts_thenMultiGetInRequestOrder() throws Exception {
+        // Given - precondition or setup
+        given(productService.findAllById(List.of(5L, 9L, 1L))).willReturn(List.of(
+                ProductLookupResult.found(ProductDTO.builder().productId(5L).name("Product 5").build()),
+                ProductLookupResult.notFound(9L),
+                ProductLookupResult.found(ProductDTO.builder().productId(1L).name("Product 1").build())));
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint).param("ids", "5,9,1"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(3)))
+                .andExpect(jsonPath("$[0].product.name", is("Product 5")))
+                .andExpect(jsonPath("$[1].status", is("NOT_FOUND")))
+                .andExpect(jsonPath("$[2].productId", is(1)));
+        verify(productService, never()).findPage(any(), anyInt(), any());
+    }
+
+    @DisplayName("Junit test for method findAllProducts with an invalid id")
+    @Test
+    void givenInvalidId_whenFindAllProducts_thenBadRequest() throws Exception {
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint).param("ids", "1,abc"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Junit test for method streamAllProducts")
+    @Test
+    void givenProducts_whenStreamAllProducts_thenReturnNdjson() throws Exception {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder()
+                .productId(1L)
+                .name("Product 1")
+                .build();
+        ProductDTO productDTO2 = ProductDTO.builder()
+                .productId(2L)
+                .name("Product 2")
+                .build();
+
+        willAnswer(invocation -> {
+            Consumer<ProductDTO> consumer = invocation.getArgument(0);
+            consumer.accept(productDTO);
+            consumer.accept(productDTO2);
+            return null;
+        }).given(productService).streamAll(any());
+
+        // When - action or the behavior that we are go int to test
+        MvcResult mvcResult = mockMvc.perform(get(endPoint).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then - verify the output
+        String[] lines = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split("\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"name\":\"Product 1\"");
+        assertThat(lines[1]).contains("\"name\":\"Product 2\"");
     }
 
     @DisplayName("Junit test for saveProduct method")
@@ -195,4 +390,483 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.createdAt", equalTo(productDTO.getCreatedAt().toString())))
                 .andExpect(jsonPath("$.updatedAt", nullValue()));
     }
-}
\ No newline at end of file
+
+    @DisplayName("Junit test for findProductById method when the product does not exist")
+    @Test
+    void givenMissingProductId_whenFindById_thenReturnNotFound() throws Exception {
+        // Given - precondition or setup
+        given(productService.findById(99L)).willThrow(new ProductNotFoundException(99L));
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint + "/{id}", 99L));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail", equalTo("Product with ID 99 not found")));
+    }
+
+    @DisplayName("Junit test for deleteProduct method when the product does not exist")
+    @Test
+    void givenMissingProductId_whenDeleteProduct_thenReturnNotFound() throws Exception {
+        // Given - precondition or setup
+        willThrow(new ProductNotFoundException(99L)).given(productService).delete(99L);
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(delete(endPoint + "/{id}", 99L));
+
+        // then - verify the output
+        response.andExpect(status().isNotFound());
+    }
+
+    @DisplayName("Junit test for UpdateProduct method with a stale version")
+    @Test
+    void givenStaleVersion_whenUpdateProduct_thenReturnConflict() throws Exception {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder()
+                .name("Product 1")
+                .version(2L)
+                .build();
+
+        given(productService.update(1L, productDTO))
+                .willThrow(new OptimisticLockingFailureException("Product with ID 1 was modified concurrently"));
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(put(endPoint + "/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(productDTO)));
+
+        // then - verify the output
+        response.andExpect(status().isConflict());
+    }
+
+    @DisplayName("Junit test for searchProducts method")
+    @Test
+    void givenSearchParameters_whenSearch_thenBindCriteriaAndReturnResult() throws Exception {
+        // Given - precondition or setup
+        ProductSearchCriteria expectedCriteria = ProductSearchCriteria.builder()
+                .q("phone")
+                .minPrice(BigDecimal.valueOf(10))
+                .maxPrice(BigDecimal.valueOf(50))
+                .createdFrom(LocalDate.of(2024, 1, 1))
+                .sort(ProductSearchCriteria.SortField.PRICE)
+                .descending(true)
+                .page(1)
+                .size(5)
+                .build();
+
+        ProductSearchResult searchResult = ProductSearchResult.builder()
+                .total(6)
+                .page(1)
+                .size(5)
+                .items(List.of(ProductDTO.builder().productId(6L).name("Phone 6").build()))
+                .build();
+
+        given(productService.search(expectedCriteria)).willReturn(searchResult);
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint + "/search")
+                .param("q", "phone")
+                .param("minPrice", "10")
+                .param("maxPrice", "50")
+                .param("createdFrom", "2024-01-01")
+                .param("sort", "PRICE")
+                .param("descending", "true")
+                .param("page", "1")
+                .param("size", "5"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(6)))
+                .andExpect(jsonPath("$.items[0].name", is("Phone 6")));
+    }
+
+    @DisplayName("Junit test for stats method with a date range")
+    @Test
+    void givenDateRange_whenStats_thenReturnRangeAggregates() throws Exception {
+        // Given - precondition or setup
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        given(productService.stats(from, to)).willReturn(ProductStats.builder()
+                .from(from)
+                .to(to)
+                .count(2)
+                .pricedCount(2)
+                .sumPrice(new BigDecimal("30.50"))
+                .createdPerDay(Map.of(LocalDate.of(2024, 1, 10), 2L))
+                .build());
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint + "/stats")
+                .param("from", "2024-01-01")
+                .param("to", "2024-01-31"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(2)))
+                .andExpect(jsonPath("$.sumPrice", is(30.50)))
+                .andExpect(jsonPath("$.createdPerDay['2024-01-10']", is(2)));
+    }
+
+    @DisplayName("Junit test for stats method with an inverted date range")
+    @Test
+    void givenInvertedDateRange_whenStats_thenBadRequest() throws Exception {
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint + "/stats")
+                .param("from", "2024-02-01")
+                .param("to", "2024-01-01"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+        verify(productService, never()).stats(any(), any());
+    }
+
+    @DisplayName("Junit test for findProductById method returning an ETag")
+    @Test
+    void givenProduct_whenFindById_thenReturnVersionETag() throws Exception {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder()
+                .productId(1L)
+                .name("Product 1")
+                .version(3L)
+                .build();
+
+        given(productService.findById(1L)).willReturn(productDTO);
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint + "/{id}", 1L));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.3\""));
+        verify(productService, never()).findVersion(any());
+    }
+
+    @DisplayName("Junit test for findProductById method with a current ETag")
+    @Test
+    void givenCurrentETag_whenFindById_thenReturnNotModifiedWithoutLoading() throws Exception {
+        // Given - precondition or setup
+        given(productService.findVersion(1L)).willReturn(3L);
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint + "/{id}", 1L)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1.3\""));
+
+        // then - verify the output
+        response.andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(productService, never()).findById(any());
+    }
+
+    @DisplayName("Junit test for findProductById method with a stale ETag")
+    @Test
+    void givenStaleETag_whenFindById_thenReturnProduct() throws Exception {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder()
+                .productId(1L)
+                .name("Product 1")
+                .version(4L)
+                .build();
+
+        given(productService.findVersion(1L)).willReturn(4L);
+        given(productService.findById(1L)).willReturn(productDTO);
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint + "/{id}", 1L)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1.3\""));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.4\""))
+                .andExpect(jsonPath("$.version", is(4)));
+    }
+
+    @DisplayName("Junit test for method findAllProducts with a current collection ETag")
+    @Test
+    void givenCurrentCollectionETag_whenFindAllProducts_thenReturnNotModified() throws Exception {
+        // Given - precondition or setup
+        given(productService.catalogVersion()).willReturn("e-7");
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"e-7-json\""));
+
+        // then - verify the output
+        response.andExpect(status().isNotModified());
+        verify(productService, never()).findPage(any(), anyInt(), any());
+    }
+
+    @DisplayName("Junit test for method findAllProducts with a collection ETag of another representation")
+    @Test
+    void givenETagOfOtherRepresentation_whenFindAllProducts_thenReturnProduct() throws Exception {
+        // Given - precondition or setup
+        given(productService.catalogVersion()).willReturn("e-7");
+        given(productService.findPage(any(), eq(100), any())).willReturn(List.of());
+        given(productService.findPageFields(any(), eq(100), any(), any())).willReturn(List.of());
+
+        // When - action or the behavior that we are go int to test
+        ResultActions smile = mockMvc.perform(get(endPoint)
+                .accept(ProductController.APPLICATION_SMILE_VALUE)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"e-7-json\""));
+        ResultActions selectedFields = mockMvc.perform(get(endPoint)
+                .param("fields", "name")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"e-7-json\""));
+
+        // then - verify the output
+        smile.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"e-7-smile\""))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+        selectedFields.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"e-7-json-productId+name\""));
+    }
+
+    @DisplayName("Junit test for findProductById method negotiating Smile")
+    @Test
+    void givenSmileAccept_whenFindById_thenReturnSmileProduct() throws Exception {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder()
+                .productId(1L)
+                .name("Product 1")
+                .price(new BigDecimal("19.99"))
+                .createdAt(LocalDate.of(2024, 1, 2))
+                .version(3L)
+                .build();
+
+        given(productService.findById(1L)).willReturn(productDTO);
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint + "/{id}", 1L)
+                .accept(ProductController.APPLICATION_SMILE_VALUE));
+
+        // then - verify the output
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentType(ProductController.APPLICATION_SMILE_VALUE))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+        ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
+        assertThat(smileMapper.readValue(body, ProductDTO.class)).isEqualTo(productDTO);
+    }
+
+    @DisplayName("Junit test for method findAllProducts defaulting to JSON")
+    @Test
+    void givenAnyAccept_whenFindAllProducts_thenReturnJson() throws Exception {
+        // Given - precondition or setup
+        given(productService.catalogVersion()).willReturn("e-1");
+        given(productService.findPage(any(), eq(100), any())).willReturn(List.of());
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint).accept(MediaType.ALL));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @DisplayName("Junit test for method findAllProducts served gzipped from a snapshot")
+    @Test
+    void givenGzipAccepted_whenFindAllProducts_thenReturnPrecompressedSnapshot() throws Exception {
+        // Given - precondition or setup
+        List<ProductDTO> productDTOList = List.of(ProductDTO.builder()
+                .productId(1L)
+                .name("Product 1")
+                .build());
+
+        given(productService.catalogVersion()).willReturn("e-3");
+        given(productService.findPage(any(), eq(100), any())).willReturn(productDTOList);
+
+        // When - action or the behavior that we are go int to test
+        byte[] body = mockMvc.perform(get(endPoint).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"e-3-json-gz\""))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        // then - verify the output
+        try (GZIPInputStream json = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(objectMapper.readValue(json, ProductDTO[].class)).containsExactly(productDTOList.get(0));
+        }
+    }
+
+    @DisplayName("Junit test for method findAllProducts revalidating the plain body with the gzip ETag")
+    @Test
+    void givenGzipETag_whenFindAllProductsWithoutGzip_thenReturnPlainSnapshot() throws Exception {
+        // Given - precondition or setup
+        given(productService.catalogVersion()).willReturn("e-3");
+        given(productService.findPage(any(), eq(100), any())).willReturn(List.of());
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"e-3-json-gz\""));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"e-3-json\""));
+    }
+
+    @DisplayName("Junit test for method findAllProducts reusing the snapshot until a write")
+    @Test
+    void givenSnapshot_whenFindAllProductsAgain_thenNoQueryUntilProductChanged() throws Exception {
+        // Given - precondition or setup
+        given(productService.catalogVersion()).willReturn("e-4");
+        given(productService.findPage(any(), eq(100), any())).willReturn(List.of());
+        mockMvc.perform(get(endPoint)).andExpect(status().isOk());
+
+        // When - action or the behavior that we are go int to test
+        mockMvc.perform(get(endPoint)).andExpect(status().isOk());
+        verify(productService, times(1)).findPage(any(), eq(100), any());
+        productPageSnapshots.onProductChanged(ProductChangedEvent.deleted(1L));
+        mockMvc.perform(get(endPoint)).andExpect(status().isOk());
+
+        // then - verify the output
+        verify(productService, times(2)).findPage(any(), eq(100), any());
+    }
+
+    @DisplayName("Junit test for method findAllProducts building one snapshot for concurrent misses")
+    @Test
+    void givenConcurrentMisses_whenFindAllProducts_thenSnapshotBuiltOnce() throws Exception {
+        // Given - precondition or setup
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(productService.catalogVersion()).willReturn("e-6");
+        willAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return List.of();
+        }).given(productService).findPage(any(), eq(100), any());
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+
+        // When - action or the behavior that we are go int to test
+        try {
+            Future<?> first = clients.submit(() -> mockMvc.perform(get(endPoint)).andExpect(status().isOk()));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<?> second = clients.submit(() -> mockMvc.perform(get(endPoint)).andExpect(status().isOk()));
+            Thread.sleep(100);
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            clients.shutdown();
+        }
+
+        // then - verify the output
+        verify(productService, times(1)).findPage(any(), eq(100), any());
+    }
+
+    @DisplayName("Junit test for method findAllProducts not keeping a snapshot read while a write committed")
+    @Test
+    void givenWriteDuringPageLoad_whenFindAllProducts_thenSnapshotNotKept() throws Exception {
+        // Given - precondition or setup
+        AtomicBoolean written = new AtomicBoolean();
+        willAnswer(invocation -> written.get() ? "e-8" : "e-7").given(productService).catalogVersion();
+        willAnswer(invocation -> {
+            written.set(true);
+            return List.of();
+        }).given(productService).findPage(any(), eq(100), any());
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint));
+        productPageSnapshots.snapshot("e-7", null, 100, null);
+        mockMvc.perform(get(endPoint)).andExpect(header().string(HttpHeaders.ETAG, "\"e-8-json\""));
+        mockMvc.perform(get(endPoint)).andExpect(header().string(HttpHeaders.ETAG, "\"e-8-json\""));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"e-7-json\""));
+        verify(productService, times(3)).findPage(any(), eq(100), any());
+    }
+
+    @DisplayName("Junit test for method findAllProducts negotiating Smile")
+    @Test
+    void givenSmileAccept_whenFindAllProducts_thenReturnSmileList() throws Exception {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder()
+                .productId(1L)
+                .name("Product 1")
+                .build();
+
+        given(productService.catalogVersion()).willReturn("e-5");
+        given(productService.findPage(any(), eq(100), any())).willReturn(List.of(productDTO));
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint).accept(ProductController.APPLICATION_SMILE_VALUE));
+
+        // then - verify the output
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentType(ProductController.APPLICATION_SMILE_VALUE))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+        ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
+        assertThat(smileMapper.readValue(body, ProductDTO[].class)).containsExactly(productDTO);
+    }
+
+    @DisplayName("Junit test for saveProduct method with a Smile body")
+    @Test
+    void givenSmileBody_whenSaveProduct_thenReadSmileProduct() throws Exception {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder()
+                .name("Product 1")
+                .price(new BigDecimal("5.10"))
+                .build();
+        given(productService.save(any(ProductDTO.class))).willAnswer(invocation -> invocation.getArgument(0));
+        ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(post(endPoint)
+                .contentType(ProductController.APPLICATION_SMILE_VALUE)
+                .content(smileMapper.writeValueAsBytes(productDTO)));
+
+        // then - verify the output
+        response.andExpect(status().isCreated())
+                .andExpect(jsonPath("$.price", is(5.10)));
+    }
+
+    @DisplayName("Junit test for method streamAllProducts as a Smile stream")
+    @Test
+    void givenProducts_whenStreamAllProductsAsSmile_thenReturnSmileSequence() throws Exception {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder()
+                .productId(1L)
+                .name("Product 1")
+                .build();
+        ProductDTO productDTO2 = ProductDTO.builder()
+                .productId(2L)
+                .name("Product 2")
+                .build();
+
+        willAnswer(invocation -> {
+            Consumer<ProductDTO> consumer = invocation.getArgument(0);
+            consumer.accept(productDTO);
+            consumer.accept(productDTO2);
+            return null;
+        }).given(productService).streamAll(any());
+
+        // When - action or the behavior that we are go int to test
+        MvcResult mvcResult = mockMvc.perform(get(endPoint).accept(ProductController.APPLICATION_STREAM_SMILE_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then - verify the output
+        byte[] body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ProductController.APPLICATION_STREAM_SMILE_VALUE))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
+        try (MappingIterator<ProductDTO> products = smileMapper.readerFor(ProductDTO.class).readValues(body)) {
+            assertThat(products.readAll()).containsExactly(productDTO, productDTO2);
+        }
+    }
+}
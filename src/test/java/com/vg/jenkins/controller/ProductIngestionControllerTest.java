@@ -0,0 +1,125 @@
+package com.vg.jenkins.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vg.jenkins.changes.ProductChangeFeed;
+import com.vg.jenkins.dto.IngestionStatus;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.exception.IngestionQueueFullException;
+import com.vg.jenkins.ingest.ProductIngestion;
+import com.vg.jenkins.service.ProductPageSnapshots;
+import com.vg.jenkins.service.ProductService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DisplayName("Product ingestion controller test")
+@WebMvcTest
+class ProductIngestionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @MockBean
+    private ProductChangeFeed productChangeFeed;
+
+    @MockBean
+    private ProductPageSnapshots productPageSnapshots;
+
+    @MockBean
+    private ProductIngestion productIngestion;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    String endPoint = "/api/v1/products";
+
+    @DisplayName("Saves are accepted with a tracking ID when ingestion is enabled")
+    @Test
+    void givenIngestionEnabled_whenSave_thenAccepted() throws Exception {
+        // Given - precondition or setup
+        ProductDTO product = ProductDTO.builder().name("Product 1").price(BigDecimal.valueOf(10.00)).build();
+        given(productIngestion.submit(any(ProductDTO.class))).willReturn(IngestionStatus.pending("abc"));
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(post(endPoint)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(product)));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/v1/products/ingestions/abc"))
+                .andExpect(jsonPath("$.trackingId", is("abc")))
+                .andExpect(jsonPath("$.status", is("PENDING")));
+        verifyNoInteractions(productService);
+    }
+
+    @DisplayName("Saves are rejected with 429 when the queue is full")
+    @Test
+    void givenFullQueue_whenSave_thenTooManyRequests() throws Exception {
+        // Given - precondition or setup
+        ProductDTO product = ProductDTO.builder().name("Product 1").price(BigDecimal.valueOf(10.00)).build();
+        given(productIngestion.submit(any(ProductDTO.class))).willThrow(new IngestionQueueFullException(1));
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(post(endPoint)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(product)));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @DisplayName("The status of a tracked save can be polled")
+    @Test
+    void givenTrackingId_whenIngestionStatus_thenReturnStatus() throws Exception {
+        // Given - precondition or setup
+        given(productIngestion.status("abc")).willReturn(Optional.of(IngestionStatus.completed("abc", 7L)));
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint + "/ingestions/{trackingId}", "abc"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("COMPLETED")))
+                .andExpect(jsonPath("$.productId", is(7)));
+    }
+
+    @DisplayName("Unknown tracking IDs are not found")
+    @Test
+    void givenUnknownTrackingId_whenIngestionStatus_thenNotFound() throws Exception {
+        // Given - precondition or setup
+        given(productIngestion.status("missing")).willReturn(Optional.empty());
+
+        // When - action or the behavior that we are go int to test
+        ResultActions response = mockMvc.perform(get(endPoint + "/ingestions/{trackingId}", "missing"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,212 @@
+package com.vg.jenkins.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("Read/write routing data source test")
+@ExtendWith(MockitoExtension.class)
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica1;
+
+    @Mock
+    private DataSource replica2;
+
+    private final Connection primaryConnection = mock(Connection.class);
+
+    private final Connection replica1Connection = mock(Connection.class);
+
+    private final Connection replica2Connection = mock(Connection.class);
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource = new ReadWriteRoutingDataSource(primary, List.of(replica1, replica2), 5_000, clock::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadYourWrites.clear();
+    }
+
+    @DisplayName("Connections outside read-only transactions come from the primary")
+    @Test
+    void givenNoReadOnlyTransaction_whenGetConnection_thenPrimary() throws SQLException {
+        // Given - precondition or setup
+        given(primary.getConnection()).willReturn(primaryConnection);
+
+        // When - action or the behavior that we are go int to test
+        Connection connection = routingDataSource.getConnection();
+
+        // then - verify the output
+        assertThat(connection).isSameAs(primaryConnection);
+        verify(replica1, never()).getConnection();
+    }
+
+    @DisplayName("Read-only transactions alternate between replicas")
+    @Test
+    void givenReadOnlyTransaction_whenGetConnection_thenRoundRobinReplicas() throws SQLException {
+        // Given - precondition or setup
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        given(replica1.getConnection()).willReturn(replica1Connection);
+        given(replica2.getConnection()).willReturn(replica2Connection);
+
+        // When - action or the behavior that we are go int to test
+        List<Connection> connections = List.of(routingDataSource.getConnection(), routingDataSource.getConnection(),
+                routingDataSource.getConnection());
+
+        // then - verify the output
+        assertThat(connections).containsExactly(replica1Connection, replica2Connection, replica1Connection);
+    }
+
+    @DisplayName("A failing replica is skipped until its retry period has passed")
+    @Test
+    void givenFailingReplica_whenGetConnection_thenSkippedUntilRetry() throws SQLException {
+        // Given - precondition or setup
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        given(replica1.getConnection()).willThrow(new SQLException("down")).willReturn(replica1Connection);
+        given(replica2.getConnection()).willReturn(replica2Connection);
+
+        // When - action or the behavior that we are go int to test
+        Connection failedOver = routingDataSource.getConnection();
+        Connection whileDown = routingDataSource.getConnection();
+        Connection stillDown = routingDataSource.getConnection();
+        clock.addAndGet(5_000);
+        routingDataSource.getConnection();
+        Connection recovered = routingDataSource.getConnection();
+
+        // then - verify the output
+        assertThat(failedOver).isSameAs(replica2Connection);
+        assertThat(whileDown).isSameAs(replica2Connection);
+        assertThat(stillDown).isSameAs(replica2Connection);
+        assertThat(recovered).isSameAs(replica1Connection);
+    }
+
+    @DisplayName("Reads fall back to the primary when every replica is down")
+    @Test
+    void givenAllReplicasDown_whenGetConnection_thenPrimary() throws SQLException {
+        // Given - precondition or setup
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        given(replica1.getConnection()).willThrow(new SQLException("down"));
+        given(replica2.getConnection()).willThrow(new SQLException("down"));
+        given(primary.getConnection()).willReturn(primaryConnection);
+
+        // When - action or the behavior that we are go int to test
+        Connection connection = routingDataSource.getConnection();
+
+        // then - verify the output
+        assertThat(connection).isSameAs(primaryConnection);
+    }
+
+    @DisplayName("Reads pinned by read-your-writes stay on the primary")
+    @Test
+    void givenPinnedToPrimary_whenGetConnectionInReadOnlyTransaction_thenPrimary() throws SQLException {
+        // Given - precondition or setup
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReadYourWrites.pinToPrimary();
+        given(primary.getConnection()).willReturn(primaryConnection);
+
+        // When - action or the behavior that we are go int to test
+        Connection connection = routingDataSource.getConnection();
+
+        // then - verify the output
+        assertThat(connection).isSameAs(primaryConnection);
+        verify(replica1, never()).getConnection();
+        verify(replica2, never()).getConnection();
+    }
+
+    @DisplayName("Reads made under PrimaryReads stay on the primary")
+    @Test
+    void givenPrimaryReads_whenGetConnectionInReadOnlyTransaction_thenPrimary() throws SQLException {
+        // Given - precondition or setup
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        given(primary.getConnection()).willReturn(primaryConnection);
+        given(replica1.getConnection()).willReturn(replica1Connection);
+
+        // When - action or the behavior that we are go int to test
+        Connection connection = PrimaryReads.call(this::connect);
+        Connection afterwards = routingDataSource.getConnection();
+
+        // then - verify the output
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(afterwards).isSameAs(replica1Connection);
+    }
+
+    @DisplayName("A replica that falls behind is skipped until a probe finds it in sync")
+    @Test
+    void givenLaggingReplica_whenProbed_thenSkippedUntilInSync() throws SQLException {
+        // Given - precondition or setup
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        given(replica2.getConnection()).willReturn(replica2Connection);
+        given(replica1.getConnection()).willReturn(replica1Connection);
+        AtomicLong replica1Lag = new AtomicLong(3_000);
+        ReplicaLag lag = (primaryDataSource, replica) -> replica == replica1 ? replica1Lag.get() : 0;
+
+        // When - action or the behavior that we are go int to test
+        routingDataSource.probe(lag, 1_000);
+        List<Connection> whileBehind = List.of(routingDataSource.getConnection(), routingDataSource.getConnection());
+        replica1Lag.set(200);
+        routingDataSource.probe(lag, 1_000);
+        List<Connection> inSync = List.of(routingDataSource.getConnection(), routingDataSource.getConnection());
+
+        // then - verify the output
+        assertThat(whileBehind).containsOnly(replica2Connection);
+        assertThat(inSync).containsExactlyInAnyOrder(replica1Connection, replica2Connection);
+    }
+
+    @DisplayName("A replica that can't be probed is skipped")
+    @Test
+    void givenUnreachableReplica_whenProbed_thenSkipped() throws SQLException {
+        // Given - precondition or setup
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        given(replica2.getConnection()).willReturn(replica2Connection);
+        ReplicaLag lag = (primaryDataSource, replica) -> {
+            if (replica == replica1) {
+                throw new SQLException("Connection is not available, request timed out after 500ms");
+            }
+            return 0;
+        };
+
+        // When - action or the behavior that we are go int to test
+        routingDataSource.probe(lag, 1_000);
+        List<Connection> connections = List.of(routingDataSource.getConnection(), routingDataSource.getConnection());
+
+        // then - verify the output
+        assertThat(connections).containsOnly(replica2Connection);
+        verify(replica1, never()).getConnection();
+    }
+
+    private Connection connect() {
+        try {
+            return routingDataSource.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
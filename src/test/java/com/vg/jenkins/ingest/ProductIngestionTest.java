@@ -0,0 +1,206 @@
+package com.vg.jenkins.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.dto.IngestionStatus;
+import com.vg.jenkins.dto.ProductBatchResult;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.exception.IngestionQueueFullException;
+import com.vg.jenkins.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("Product ingestion test")
+@ExtendWith(MockitoExtension.class)
+class ProductIngestionTest {
+
+    @Mock
+    private ProductService productService;
+
+    @TempDir
+    Path journalDirectory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private ProductProperties productProperties;
+
+    @BeforeEach
+    void setUp() {
+        productProperties = new ProductProperties();
+        productProperties.getIngestion().setEnabled(true);
+        productProperties.getIngestion().setJournalPath(journalDirectory.resolve("ingestion.journal").toString());
+    }
+
+    @DisplayName("Submitted products are written and their status reports the new ID")
+    @Test
+    void givenSubmittedProducts_whenDrained_thenCompletedWithProductId() {
+        // Given - precondition or setup
+        willAnswer(invocation -> created(invocation.getArgument(0))).given(productService).saveAll(anyList());
+        ProductIngestion productIngestion = new ProductIngestion(productService, productProperties, objectMapper);
+        productIngestion.start();
+
+        // When - action or the behavior that we are go int to test
+        IngestionStatus first = productIngestion.submit(product("Product 1"));
+        IngestionStatus second = productIngestion.submit(product("Product 2"));
+        productIngestion.stop();
+
+        // then - verify the output
+        assertThat(first.getStatus()).isEqualTo(IngestionStatus.Status.PENDING);
+        assertThat(productIngestion.status(first.getTrackingId())).get()
+                .extracting(IngestionStatus::getStatus, IngestionStatus::getProductId)
+                .containsExactly(IngestionStatus.Status.COMPLETED, 1L);
+        assertThat(productIngestion.status(second.getTrackingId())).get()
+                .extracting(IngestionStatus::getStatus, IngestionStatus::getProductId)
+                .containsExactly(IngestionStatus.Status.COMPLETED, 2L);
+        assertThat(productIngestion.outstanding()).isZero();
+    }
+
+    @DisplayName("Saves beyond the capacity are rejected while earlier ones are still being written")
+    @Test
+    void givenFullQueue_whenSubmit_thenRejected() throws Exception {
+        // Given - precondition or setup
+        productProperties.getIngestion().setCapacity(1);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            release.await();
+            return created(invocation.getArgument(0));
+        }).given(productService).saveAll(anyList());
+        ProductIngestion productIngestion = new ProductIngestion(productService, productProperties, objectMapper);
+        productIngestion.start();
+        productIngestion.submit(product("Product 1"));
+
+        // When - action or the behavior that we are go int to test
+        try {
+            assertThatThrownBy(() -> productIngestion.submit(product("Product 2")))
+                    .isInstanceOf(IngestionQueueFullException.class);
+        } finally {
+            release.countDown();
+            productIngestion.stop();
+        }
+
+        // then - verify the output
+        assertThat(productIngestion.outstanding()).isZero();
+    }
+
+    @DisplayName("Concurrent saves are each in the journal by the time they are acknowledged")
+    @Test
+    void givenConcurrentSubmits_whenAcknowledged_thenAllJournaled() throws Exception {
+        // Given - precondition or setup
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            release.await();
+            return created(invocation.getArgument(0));
+        }).given(productService).saveAll(anyList());
+        ProductIngestion productIngestion = new ProductIngestion(productService, productProperties, objectMapper);
+        productIngestion.start();
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+
+        // When - action or the behavior that we are go int to test
+        List<String> journaled;
+        try {
+            List<Future<IngestionStatus>> submits = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                String name = "Product " + i;
+                submits.add(clients.submit(() -> productIngestion.submit(product(name))));
+            }
+            for (Future<IngestionStatus> submit : submits) {
+                submit.get(5, TimeUnit.SECONDS);
+            }
+            journaled = Files.readAllLines(Path.of(productProperties.getIngestion().getJournalPath()));
+        } finally {
+            clients.shutdown();
+            release.countDown();
+            productIngestion.stop();
+        }
+
+        // then - verify the output
+        assertThat(journaled).hasSize(32).allMatch(line -> line.contains("\"ACCEPTED\""));
+        assertThat(productIngestion.outstanding()).isZero();
+    }
+
+    @DisplayName("Products that fail to save are reported as failed")
+    @Test
+    void givenFailingSave_whenDrained_thenFailed() {
+        // Given - precondition or setup
+        given(productService.saveAll(anyList()))
+                .willReturn(List.of(ProductBatchResult.failed(0, null, "constraint violation")));
+        ProductIngestion productIngestion = new ProductIngestion(productService, productProperties, objectMapper);
+        productIngestion.start();
+
+        // When - action or the behavior that we are go int to test
+        IngestionStatus status = productIngestion.submit(product("Product 1"));
+        productIngestion.stop();
+
+        // then - verify the output
+        assertThat(productIngestion.status(status.getTrackingId())).get()
+                .extracting(IngestionStatus::getStatus, IngestionStatus::getMessage)
+                .containsExactly(IngestionStatus.Status.FAILED, "constraint violation");
+    }
+
+    @DisplayName("Products accepted before a crash are written on the next start")
+    @Test
+    void givenUnfinishedJournalEntries_whenStart_thenRecoveredAndWritten() throws Exception {
+        // Given - precondition or setup
+        Path journal = Path.of(productProperties.getIngestion().getJournalPath());
+        Files.write(journal, List.of(
+                objectMapper.writeValueAsString(IngestionJournal.Entry.accepted("a", product("Written"))),
+                objectMapper.writeValueAsString(IngestionJournal.Entry.accepted("b", product("Lost"))),
+                objectMapper.writeValueAsString(IngestionJournal.Entry.done("a")),
+                "{\"type\":\"ACCEPTED\",\"trackingId\":\"c\",\"prod"));
+        willAnswer(invocation -> created(invocation.getArgument(0))).given(productService).saveAll(anyList());
+        ProductIngestion productIngestion = new ProductIngestion(productService, productProperties, objectMapper);
+
+        // When - action or the behavior that we are go int to test
+        productIngestion.start();
+        productIngestion.stop();
+
+        // then - verify the output
+        verify(productService).saveAll(List.of(product("Lost")));
+        assertThat(productIngestion.status("b")).get()
+                .extracting(IngestionStatus::getStatus)
+                .isEqualTo(IngestionStatus.Status.COMPLETED);
+        assertThat(productIngestion.status("a")).isEmpty();
+        assertThat(Files.size(journal)).isZero();
+    }
+
+    private static ProductDTO product(String name) {
+        return ProductDTO.builder()
+                .name(name)
+                .price(BigDecimal.valueOf(10.00))
+                .build();
+    }
+
+    private List<ProductBatchResult> created(List<ProductDTO> products) {
+        List<ProductBatchResult> results = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            results.add(ProductBatchResult.of(i, ids.incrementAndGet(), ProductBatchResult.Status.CREATED));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,67 @@
+package com.vg.jenkins.load;
+
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.model.Product;
+import com.vg.jenkins.repository.ProductRepository;
+import com.vg.jenkins.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test against the H2 test profile, opt-in with {@code ./mvnw verify -Dloadtest=true}. Subclasses pick
+ * the execution mode; compare their output lines to see throughput and p99 for each.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+abstract class AbstractProductLoadIT {
+
+    static final int CLIENTS = Integer.getInteger("loadtest.clients", 1000);
+
+    static final int REQUESTS_PER_CLIENT = Integer.getInteger("loadtest.requests", 50);
+
+    static final int PRODUCTS = 1000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    abstract String label();
+
+    @BeforeEach
+    void seed() {
+        if (productRepository.count() == 0) {
+            productService.saveAll(IntStream.range(0, PRODUCTS)
+                    .mapToObj(i -> ProductDTO.builder()
+                            .name("Product " + i)
+                            .description("load test")
+                            .price(BigDecimal.valueOf(i, 2))
+                            .build())
+                    .toList());
+        }
+    }
+
+    @Test
+    void givenConcurrentClients_whenReadingProducts_thenReportThroughputAndP99() throws Exception {
+        long maxProductId = productRepository.findAll().stream()
+                .mapToLong(Product::getProductId)
+                .max()
+                .orElseThrow();
+
+        LoadTestSupport.Result result = LoadTestSupport.run(label(), "http://localhost:" + port,
+                CLIENTS, REQUESTS_PER_CLIENT, maxProductId);
+
+        assertThat(result.failed()).isZero();
+    }
+}
@@ -0,0 +1,130 @@
+package com.vg.jenkins.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives a fixed number of concurrent closed-loop clients against the product API and reports
+ * throughput, latency percentiles and how many requests the bulkhead shed. The server runs in the same
+ * JVM, so the extra threads and peak heap growth during the run show what each stack spends per
+ * connection; the client side is identical across runs and cancels out in a comparison. Results are logged
+ * under {@code com.vg.jenkins.load}, which the load tests raise to INFO.
+ */
+final class LoadTestSupport {
+
+    static final String LOG_LEVEL = "logging.level.com.vg.jenkins.load=info";
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestSupport.class);
+
+    private LoadTestSupport() {
+    }
+
+    record Result(String label, int requests, int ok, int rejected, int failed, double throughput,
+                  double p50Millis, double p99Millis, double maxMillis, int extraThreads, double heapKbPerClient) {
+
+        @Override
+        public String toString() {
+            return String.format("%-9s requests=%d ok=%d rejected=%d failed=%d throughput=%.0f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms"
+                            + " extra-threads=%d heap/client=%.1f KB",
+                    label, requests, ok, rejected, failed, throughput, p50Millis, p99Millis, maxMillis,
+                    extraThreads, heapKbPerClient);
+        }
+    }
+
+    static Result run(String label, String baseUrl, int clients, int requestsPerClient, long maxProductId) throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        int baselineThreads = threadBean.getThreadCount();
+        long baselineHeap = memoryBean.getHeapMemoryUsage().getUsed();
+        threadBean.resetPeakThreadCount();
+        AtomicLong peakHeap = new AtomicLong(baselineHeap);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakHeap.accumulateAndGet(memoryBean.getHeapMemoryUsage().getUsed(), Math::max),
+                0, 50, TimeUnit.MILLISECONDS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<long[]>> futures = new ArrayList<>(clients);
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            futures.add(executor.submit(() -> {
+                long[] latencies = new long[requestsPerClient];
+                for (int i = 0; i < requestsPerClient; i++) {
+                    long id = ThreadLocalRandom.current().nextLong(1, maxProductId + 1);
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/products/" + id))
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build();
+                    long requestStart = System.nanoTime();
+                    try {
+                        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status == 200) {
+                            ok.incrementAndGet();
+                        } else if (status == 503) {
+                            rejected.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - requestStart;
+                }
+                return latencies;
+            }));
+        }
+
+        long[] all = new long[clients * requestsPerClient];
+        int n = 0;
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            System.arraycopy(latencies, 0, all, n, latencies.length);
+            n += latencies.length;
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+        sampler.shutdown();
+        // The client pool and the sampler are the same for every stack; what remains are the server's threads
+        int extraThreads = threadBean.getPeakThreadCount() - baselineThreads - clients - 1;
+        double heapKbPerClient = (peakHeap.get() - baselineHeap) / 1024.0 / clients;
+
+        Arrays.sort(all);
+        Result result = new Result(label, all.length, ok.get(), rejected.get(), failed.get(), all.length / elapsedSeconds,
+                percentile(all, 0.50), percentile(all, 0.99), all[all.length - 1] / 1e6, extraThreads, heapKbPerClient);
+        log.info("{}", result);
+        return result;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,16 @@
+package com.vg.jenkins.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@DisplayName("Load test on the default Tomcat thread pool")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.threads.virtual.enabled=false", "product.rate-limit.enabled=false",
+                LoadTestSupport.LOG_LEVEL})
+class PlatformThreadsLoadIT extends AbstractProductLoadIT {
+
+    @Override
+    String label() {
+        return "platform";
+    }
+}
@@ -0,0 +1,19 @@
+package com.vg.jenkins.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@DisplayName("Load test on virtual threads")
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.threads.virtual.enabled=true", "product.rate-limit.enabled=false",
+                LoadTestSupport.LOG_LEVEL})
+class VirtualThreadsLoadIT extends AbstractProductLoadIT {
+
+    @Override
+    String label() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,107 @@
+package com.vg.jenkins.metrics;
+
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.service.ProductServiceImpl;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Product performance endpoint test")
+@ExtendWith(MockitoExtension.class)
+class ProductPerformanceEndpointTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Statistics statistics;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProductPerformanceEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentiles(0.5, 0.99).build().merge(config);
+            }
+        });
+        given(entityManagerFactory.unwrap(SessionFactory.class)).willReturn(sessionFactory);
+        given(sessionFactory.getStatistics()).willReturn(statistics);
+        endpoint = new ProductPerformanceEndpoint(meterRegistry, entityManagerFactory, new ProductProperties());
+    }
+
+    @DisplayName("Report contains timer percentiles and not-found counts")
+    @Test
+    void givenRecordedMetrics_whenReport_thenTimersAndCountersIncluded() {
+        // Given - precondition or setup
+        Timer.builder(ProductPerformanceEndpoint.REPOSITORY_METRIC)
+                .tags("repository", "ProductRepository", "method", "findById")
+                .register(meterRegistry)
+                .record(Duration.ofMillis(20));
+        meterRegistry.counter(ProductServiceImpl.NOT_FOUND_METRIC, "operation", "findById").increment();
+
+        // When - action or the behavior that we are go int to test
+        ProductPerformanceEndpoint.PerformanceReport report = endpoint.report();
+
+        // then - verify the output
+        assertThat(report.repositories()).hasSize(1);
+        ProductPerformanceEndpoint.TimerView repository = report.repositories().get(0);
+        assertThat(repository.tags()).containsEntry("method", "findById");
+        assertThat(repository.count()).isEqualTo(1);
+        assertThat(repository.percentilesMillis()).containsKeys("p50", "p99");
+        assertThat(report.notFound()).containsEntry("findById", 1.0);
+        assertThat(report.hibernate().enabled()).isFalse();
+    }
+
+    @DisplayName("Only queries at or above the threshold are sampled, slowest first")
+    @Test
+    void givenHibernateStatistics_whenReport_thenSlowQueriesSampled() {
+        // Given - precondition or setup
+        QueryStatistics slow = mock(QueryStatistics.class);
+        QueryStatistics slower = mock(QueryStatistics.class);
+        QueryStatistics fast = mock(QueryStatistics.class);
+        given(slow.getExecutionMaxTime()).willReturn(150L);
+        given(slower.getExecutionMaxTime()).willReturn(900L);
+        given(fast.getExecutionMaxTime()).willReturn(5L);
+        given(statistics.isStatisticsEnabled()).willReturn(true);
+        given(statistics.getQueries()).willReturn(new String[]{"slow", "slower", "fast"});
+        given(statistics.getQueryStatistics("slow")).willReturn(slow);
+        given(statistics.getQueryStatistics("slower")).willReturn(slower);
+        given(statistics.getQueryStatistics("fast")).willReturn(fast);
+        given(statistics.getEntityLoadCount()).willReturn(42L);
+
+        // When - action or the behavior that we are go int to test
+        ProductPerformanceEndpoint.HibernateView hibernate = endpoint.report().hibernate();
+
+        // then - verify the output
+        assertThat(hibernate.entitiesLoaded()).isEqualTo(42L);
+        assertThat(hibernate.slowQueries())
+                .extracting(ProductPerformanceEndpoint.SlowQuery::query)
+                .containsExactly("slower", "slow");
+    }
+}
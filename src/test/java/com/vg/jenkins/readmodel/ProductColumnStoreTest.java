@@ -0,0 +1,180 @@
+package com.vg.jenkins.readmodel;
+
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductField;
+import com.vg.jenkins.event.ProductChangedEvent;
+import com.vg.jenkins.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+
+@DisplayName("Product column store test")
+@ExtendWith(MockitoExtension.class)
+class ProductColumnStoreTest {
+
+    @Mock
+    private ObjectProvider<ProductService> productServiceProvider;
+
+    @Mock
+    private ProductService productService;
+
+    private ProductColumnStore columnStore;
+
+    @BeforeEach
+    void setUp() {
+        ProductProperties productProperties = new ProductProperties();
+        productProperties.getReadModel().setEnabled(true);
+        productProperties.getReadModel().setInitialRows(16);
+        productProperties.getReadModel().setInitialArenaBytes(1024);
+        columnStore = new ProductColumnStore(productProperties, productServiceProvider);
+
+        given(productServiceProvider.getObject()).willReturn(productService);
+        willAnswer(invocation -> {
+            Consumer<ProductDTO> consumer = invocation.getArgument(0);
+            for (long id = 1; id <= 40; id++) {
+                consumer.accept(product(id, "Product " + id, "1" + id + ".25"));
+            }
+            return null;
+        }).given(productService).streamAll(any());
+        columnStore.load();
+    }
+
+    @DisplayName("The loaded catalog is served by ID with every field intact")
+    @Test
+    void givenLoadedCatalog_whenFindById_thenProductRebuiltFromColumns() {
+        // When - action or the behavior that we are go int to test
+        ProductDTO product = columnStore.findById(7L).orElseThrow();
+
+        // then - verify the output
+        assertThat(columnStore.isServing()).isTrue();
+        assertThat(columnStore.size()).isEqualTo(40);
+        assertThat(product).isEqualTo(product(7L, "Product 7", "17.25"));
+        assertThat(columnStore.findById(99L)).isEmpty();
+    }
+
+    @DisplayName("Pages follow the ID order, also for a row inserted out of order")
+    @Test
+    void givenOutOfOrderInsert_whenFindPage_thenIdOrder() {
+        // Given - precondition or setup
+        columnStore.remove(12L);
+        columnStore.put(product(41L, "Product 41", "9.99"));
+        columnStore.remove(41L);
+        columnStore.put(product(45L, "Product 45", "9.99"));
+        columnStore.put(product(43L, "Product 43", "9.99"));
+
+        // When - action or the behavior that we are go int to test
+        List<ProductDTO> page = columnStore.findPage(10L, 3);
+        List<ProductDTO> tail = columnStore.findPage(40L, 10);
+
+        // then - verify the output
+        assertThat(page).extracting(ProductDTO::getProductId).containsExactly(11L, 13L, 14L);
+        assertThat(tail).extracting(ProductDTO::getProductId).containsExactly(43L, 45L);
+    }
+
+    @DisplayName("Updates keep the creation date and replace the text")
+    @Test
+    void givenUpdateEvent_whenFindById_thenMergedRow() {
+        // Given - precondition or setup
+        columnStore.onProductChanged(ProductChangedEvent.updated(ProductDTO.builder()
+                .productId(3L)
+                .name("Renamed — ñ")
+                .price(new BigDecimal("5.5"))
+                .updatedAt(LocalDate.of(2024, 6, 2))
+                .build()));
+
+        // When - action or the behavior that we are go int to test
+        ProductDTO product = columnStore.findById(3L).orElseThrow();
+
+        // then - verify the output
+        assertThat(product.getName()).isEqualTo("Renamed — ñ");
+        assertThat(product.getDescription()).isNull();
+        assertThat(product.getPrice()).isEqualTo(new BigDecimal("5.50"));
+        assertThat(product.getCreatedAt()).isEqualTo(LocalDate.of(2024, 1, 3));
+        assertThat(product.getVersion()).isEqualTo(2L);
+    }
+
+    @DisplayName("Field pages hold only the selected properties")
+    @Test
+    void givenFields_whenFindPageFields_thenSelectedPropertiesOnly() {
+        // When - action or the behavior that we are go int to test
+        List<Map<String, Object>> page = columnStore.findPageFields(0L, 2, ProductField.parse("price"));
+
+        // then - verify the output
+        assertThat(page).hasSize(2);
+        assertThat(page.get(0)).containsExactly(Map.entry("productId", 1L), Map.entry("price", new BigDecimal("11.25")));
+    }
+
+    @DisplayName("A stale copy does not bring back a deleted product")
+    @Test
+    void givenDeletedProduct_whenStaleCopyPut_thenStaysDeleted() {
+        // Given - precondition or setup
+        columnStore.onProductChanged(ProductChangedEvent.deleted(5L));
+
+        // When - action or the behavior that we are go int to test
+        columnStore.put(product(5L, "Product 5", "15.25"));
+
+        // then - verify the output
+        assertThat(columnStore.findById(5L)).isEmpty();
+        assertThat(columnStore.size()).isEqualTo(39);
+    }
+
+    @DisplayName("Changes that commit during the load are applied after the streamed rows")
+    @Test
+    void givenChangesDuringLoad_whenLoadFinishes_thenChangesWin() {
+        // Given - precondition or setup
+        ProductProperties productProperties = new ProductProperties();
+        productProperties.getReadModel().setEnabled(true);
+        ProductColumnStore loadingStore = new ProductColumnStore(productProperties, productServiceProvider);
+        willAnswer(invocation -> {
+            Consumer<ProductDTO> consumer = invocation.getArgument(0);
+            loadingStore.onProductChanged(ProductChangedEvent.deleted(2L));
+            loadingStore.onProductChanged(ProductChangedEvent.updated(ProductDTO.builder()
+                    .productId(3L)
+                    .name("Renamed")
+                    .version(2L)
+                    .build()));
+            for (long id = 1; id <= 3; id++) {
+                consumer.accept(product(id, "Product " + id, "1" + id + ".25"));
+            }
+            return null;
+        }).given(productService).streamAll(any());
+
+        // When - action or the behavior that we are go int to test
+        loadingStore.load();
+
+        // then - verify the output
+        assertThat(loadingStore.findById(2L)).isEmpty();
+        ProductDTO renamed = loadingStore.findById(3L).orElseThrow();
+        assertThat(renamed.getName()).isEqualTo("Renamed");
+        assertThat(renamed.getCreatedAt()).isEqualTo(LocalDate.of(2024, 1, 3));
+        assertThat(loadingStore.size()).isEqualTo(2);
+    }
+
+    private static ProductDTO product(long id, String name, String price) {
+        return ProductDTO.builder()
+                .productId(id)
+                .name(name)
+                .description("Description of " + name)
+                .price(new BigDecimal(price))
+                .createdAt(LocalDate.of(2024, 1, 1).plusDays(id - 1))
+                .updatedAt(LocalDate.of(2024, 6, 1))
+                .version(1L)
+                .build();
+    }
+}
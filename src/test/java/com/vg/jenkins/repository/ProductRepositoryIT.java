@@ -1,16 +1,20 @@
 package com.vg.jenkins.repository;
 
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductField;
 import com.vg.jenkins.model.Product;
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @DisplayName("Product repository test")
@@ -120,4 +124,114 @@ class ProductRepositoryIT {
         assertThat(product.getUpdatedAt()).isNull();
     }
 
-}
\ No newline at end of file
+
+    @DisplayName("Junit test for versioned updateProduct method")
+    @Test
+    void givenSavedProduct_whenUpdateProductWithVersion_thenOnlyCurrentVersionMatches() {
+        // Given - precondition or setup
+        Product savedProduct = productRepository.saveAndFlush(Product.builder()
+                .name("Product 1")
+                .description("test")
+                .price(BigDecimal.valueOf(10.00))
+                .createdAt(LocalDate.now())
+                .build());
+        long id = savedProduct.getProductId();
+        long version = savedProduct.getVersion();
+
+        // When - action or the behavior that we are go int to test
+        int staleRows = productRepository.updateProduct(id, "Product 1", "stale", BigDecimal.ONE, LocalDate.now(), version + 1);
+        int updatedRows = productRepository.updateProduct(id, "Product 1", "update", BigDecimal.ONE, LocalDate.now(), version);
+
+        // then - verify the output
+        assertThat(staleRows).isZero();
+        assertThat(updatedRows).isEqualTo(1);
+        Product reloaded = productRepository.findById(id).orElseThrow();
+        assertThat(reloaded.getDescription()).isEqualTo("update");
+        assertThat(reloaded.getVersion()).isEqualTo(version + 1);
+    }
+
+    @DisplayName("Junit test for deleteProduct method")
+    @Test
+    void givenSavedProduct_whenDeleteProduct_thenReturnAffectedRows() {
+        // Given - precondition or setup
+        Product savedProduct = productRepository.saveAndFlush(Product.builder()
+                .name("Product 1")
+                .createdAt(LocalDate.now())
+                .build());
+
+        // When - action or the behavior that we are go int to test
+        int deletedRows = productRepository.deleteProduct(savedProduct.getProductId());
+        int missingRows = productRepository.deleteProduct(savedProduct.getProductId());
+
+        // then - verify the output
+        assertThat(deletedRows).isEqualTo(1);
+        assertThat(missingRows).isZero();
+    }
+
+    @DisplayName("Junit test for findPageProjected method")
+    @Test
+    void givenSavedProducts_whenFindPageProjected_thenReturnDTOsAfterCursor() {
+        // Given - precondition or setup
+        Product first = productRepository.saveAndFlush(Product.builder()
+                .name("Product 1")
+                .price(BigDecimal.valueOf(10.00))
+                .createdAt(LocalDate.now())
+                .build());
+        Product second = productRepository.saveAndFlush(Product.builder()
+                .name("Product 2")
+                .price(BigDecimal.valueOf(20.00))
+                .createdAt(LocalDate.now())
+                .build());
+
+        // When - action or the behavior that we are go int to test
+        List<ProductDTO> page = productRepository.findPageProjected(first.getProductId(), Limit.of(10));
+
+        // then - verify the output
+        assertThat(page).hasSize(1);
+        assertThat(page.get(0).getProductId()).isEqualTo(second.getProductId());
+        assertThat(page.get(0).getName()).isEqualTo("Product 2");
+        assertThat(page.get(0).getVersion()).isEqualTo(second.getVersion());
+    }
+
+    @DisplayName("Junit test for findProjectedByIds method")
+    @Test
+    void givenSavedProducts_whenFindProjectedByIds_thenReturnOnlyExistingDTOs() {
+        // Given - precondition or setup
+        Product savedProduct = productRepository.saveAndFlush(Product.builder()
+                .name("Product 1")
+                .price(BigDecimal.valueOf(10.00))
+                .createdAt(LocalDate.now())
+                .build());
+
+        // When - action or the behavior that we are go int to test
+        List<ProductDTO> products = productRepository.findProjectedByIds(
+                List.of(savedProduct.getProductId(), savedProduct.getProductId() + 1000));
+
+        // then - verify the output
+        assertThat(products).hasSize(1);
+        assertThat(products.get(0).getName()).isEqualTo("Product 1");
+        assertThat(products.get(0).getVersion()).isEqualTo(savedProduct.getVersion());
+    }
+
+    @DisplayName("Junit test for findPageFields method")
+    @Test
+    void givenSavedProduct_whenFindPageFields_thenReturnOnlySelectedFields() {
+        // Given - precondition or setup
+        Product savedProduct = productRepository.saveAndFlush(Product.builder()
+                .name("Product 1")
+                .description("test")
+                .price(BigDecimal.valueOf(10.00))
+                .createdAt(LocalDate.now())
+                .build());
+
+        // When - action or the behavior that we are go int to test
+        List<Map<String, Object>> page = productRepository.findPageFields(ProductField.parse("price,name"),
+                savedProduct.getProductId() - 1, 10);
+
+        // then - verify the output
+        assertThat(page).hasSize(1);
+        assertThat(page.get(0)).containsOnlyKeys("productId", "name", "price");
+        assertThat(page.get(0).keySet()).containsExactly("productId", "name", "price");
+        assertThat(page.get(0).get("name")).isEqualTo("Product 1");
+    }
+}
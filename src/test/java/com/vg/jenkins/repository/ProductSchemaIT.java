@@ -0,0 +1,129 @@
+package com.vg.jenkins.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the migrations against H2 in MySQL compatibility mode and checks that the queries behind the
+ * exposed access patterns are planned on an index rather than a table scan.
+ */
+@DisplayName("Product schema test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:schema;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class ProductSchemaIT {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Flyway flyway;
+
+    @DisplayName("The migrations are applied in order")
+    @Test
+    void givenMigrations_whenStarted_thenAllVersionsApplied() {
+        // When - action or the behavior that we are go int to test
+        List<String> versions = Arrays.stream(flyway.info().applied())
+                .map(migration -> migration.getVersion().getVersion())
+                .toList();
+
+        // then - verify the output
+        assertThat(versions).containsExactly("1", "2", "3", "4");
+    }
+
+    @DisplayName("A database created by ddl-auto is baselined and brought up to date")
+    @Test
+    void givenLegacySchema_whenMigrated_thenVersionSequenceAndOutboxAdded() {
+        // Given - precondition or setup
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:legacy;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+        legacy.execute("create table products (product_id bigint generated by default as identity primary key, "
+                + "name varchar(255), description varchar(255), price numeric(38, 2), created_at date, "
+                + "updated_at date)");
+        legacy.update("insert into products (name, price) values ('Product 1', 10), ('Product 2', 20)");
+        legacy.update("insert into products (product_id, name, price) values (120, 'Product 120', 30)");
+
+        // When - action or the behavior that we are go int to test
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        // then - verify the output
+        assertThat(legacy.queryForList("select version from products", Long.class)).containsOnly(0L);
+        // The pooled optimizer hands out the block ending at the value, which must lie above every existing ID
+        Long nextValue = legacy.queryForObject("select next value for product_seq", Long.class);
+        assertThat(nextValue - 50).isGreaterThanOrEqualTo(120L);
+        assertThat(legacy.queryForObject("select count(*) from product_changes", Long.class)).isZero();
+    }
+
+    @DisplayName("Lookups by name use the name index")
+    @Test
+    void givenNameLookup_whenExplain_thenNameIndexUsed() {
+        // When - action or the behavior that we are go int to test
+        String plan = explain("select product_id from products where name = 'Product 1'");
+
+        // then - verify the output
+        assertThat(plan).containsIgnoringCase("idx_products_name");
+    }
+
+    @DisplayName("Price ranges use the price index")
+    @Test
+    void givenPriceRange_whenExplain_thenPriceIndexUsed() {
+        // When - action or the behavior that we are go int to test
+        String plan = explain("select product_id from products where price between 10 and 20");
+
+        // then - verify the output
+        assertThat(plan).containsIgnoringCase("idx_products_price");
+    }
+
+    @DisplayName("Creation-date ranges use the created_at index")
+    @Test
+    void givenCreatedAtRange_whenExplain_thenCreatedAtIndexUsed() {
+        // When - action or the behavior that we are go int to test
+        String plan = explain("select product_id from products where created_at >= date '2024-01-01'");
+
+        // then - verify the output
+        assertThat(plan).containsIgnoringCase("idx_products_created_at");
+    }
+
+    @DisplayName("Pruning old changes uses the recorded_at index")
+    @Test
+    void givenChangePrune_whenExplain_thenRecordedAtIndexUsed() {
+        // When - action or the behavior that we are go int to test
+        String plan = explain("delete from product_changes where recorded_at < timestamp '2024-01-01 00:00:00'");
+
+        // then - verify the output
+        assertThat(plan).containsIgnoringCase("idx_product_changes_recorded_at");
+    }
+
+    @DisplayName("Keyset pages are read along the primary key")
+    @Test
+    void givenKeysetPage_whenExplain_thenPrimaryKeyUsed() {
+        // When - action or the behavior that we are go int to test
+        String plan = explain("select product_id from products where product_id > 100 order by product_id limit 50");
+
+        // then - verify the output
+        assertThat(plan).containsIgnoringCase("primary_key").doesNotContainIgnoringCase("tableScan");
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class);
+    }
+}
@@ -0,0 +1,214 @@
+package com.vg.jenkins.search;
+
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductSearchCriteria;
+import com.vg.jenkins.dto.ProductSearchResult;
+import com.vg.jenkins.event.ProductChangedEvent;
+import com.vg.jenkins.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+
+@DisplayName("Product search index test")
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ObjectProvider<ProductService> productServiceProvider;
+
+    @Mock
+    private ProductService productService;
+
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        productSearchIndex = new ProductSearchIndex(productServiceProvider);
+        productSearchIndex.put(product(1L, "Red phone", "Smart phone with case", "199.99", LocalDate.of(2024, 1, 10)));
+        productSearchIndex.put(product(2L, "Blue phone", "Budget smartphone", "99.50", LocalDate.of(2024, 2, 10)));
+        productSearchIndex.put(product(3L, "Red chair", "Wooden chair", "45.00", LocalDate.of(2024, 3, 10)));
+    }
+
+    @DisplayName("Text terms are combined with AND and match by prefix")
+    @Test
+    void givenTextQuery_whenSearch_thenReturnProductsMatchingAllTerms() {
+        // When - action or the behavior that we are go int to test
+        ProductSearchResult result = productSearchIndex.search(ProductSearchCriteria.builder().q("red pho").build());
+
+        // then - verify the output
+        assertThat(result.getTotal()).isEqualTo(1);
+        assertThat(result.getItems()).extracting(ProductDTO::getProductId).containsExactly(1L);
+    }
+
+    @DisplayName("Price and date ranges filter and sort the results")
+    @Test
+    void givenRanges_whenSearch_thenFilterAndSortByPrice() {
+        // When - action or the behavior that we are go int to test
+        ProductSearchResult result = productSearchIndex.search(ProductSearchCriteria.builder()
+                .minPrice(new BigDecimal("40"))
+                .maxPrice(new BigDecimal("150"))
+                .createdFrom(LocalDate.of(2024, 2, 1))
+                .sort(ProductSearchCriteria.SortField.PRICE)
+                .descending(true)
+                .build());
+
+        // then - verify the output
+        assertThat(result.getItems()).extracting(ProductDTO::getProductId).containsExactly(2L, 3L);
+    }
+
+    @DisplayName("Results are paged after sorting")
+    @Test
+    void givenPage_whenSearch_thenReturnRequestedSlice() {
+        // When - action or the behavior that we are go int to test
+        ProductSearchResult result = productSearchIndex.search(ProductSearchCriteria.builder()
+                .sort(ProductSearchCriteria.SortField.NAME)
+                .page(1)
+                .size(2)
+                .build());
+
+        // then - verify the output
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getItems()).extracting(ProductDTO::getProductId).containsExactly(1L);
+    }
+
+    @DisplayName("Update events re-index terms and keep the creation date")
+    @Test
+    void givenUpdateEvent_whenSearch_thenOldTermsNoLongerMatch() {
+        // Given - precondition or setup
+        ProductDTO update = ProductDTO.builder()
+                .productId(3L)
+                .name("Green chair")
+                .description("Wooden chair")
+                .price(new BigDecimal("45.00"))
+                .build();
+
+        // When - action or the behavior that we are go int to test
+        productSearchIndex.onProductChanged(ProductChangedEvent.updated(update));
+
+        // then - verify the output
+        assertThat(productSearchIndex.search(ProductSearchCriteria.builder().q("red").build()).getItems())
+                .extracting(ProductDTO::getProductId).containsExactly(1L);
+        ProductSearchResult green = productSearchIndex.search(ProductSearchCriteria.builder().q("green").build());
+        assertThat(green.getItems()).singleElement()
+                .satisfies(product -> assertThat(product.getCreatedAt()).isEqualTo(LocalDate.of(2024, 3, 10)));
+    }
+
+    @DisplayName("Delete events remove the product from every index")
+    @Test
+    void givenDeleteEvent_whenSearch_thenProductIsGone() {
+        // When - action or the behavior that we are go int to test
+        productSearchIndex.onProductChanged(ProductChangedEvent.deleted(2L));
+
+        // then - verify the output
+        assertThat(productSearchIndex.size()).isEqualTo(2);
+        assertThat(productSearchIndex.search(ProductSearchCriteria.builder().maxPrice(new BigDecimal("100")).build())
+                .getItems()).extracting(ProductDTO::getProductId).containsExactly(3L);
+    }
+
+    @DisplayName("Rebuild loads every product from the service stream")
+    @Test
+    void givenStoredProducts_whenRebuild_thenIndexContainsThem() {
+        // Given - precondition or setup
+        ProductSearchIndex emptyIndex = new ProductSearchIndex(productServiceProvider);
+        given(productServiceProvider.getObject()).willReturn(productService);
+        willAnswer(invocation -> {
+            Consumer<ProductDTO> consumer = invocation.getArgument(0);
+            consumer.accept(product(10L, "Lamp", "Desk lamp", "20.00", LocalDate.of(2024, 4, 1)));
+            return null;
+        }).given(productService).streamAll(any());
+
+        // When - action or the behavior that we are go int to test
+        emptyIndex.rebuild();
+
+        // then - verify the output
+        assertThat(emptyIndex.size()).isEqualTo(1);
+        assertThat(emptyIndex.search(ProductSearchCriteria.builder().q("desk").build()).getTotal()).isEqualTo(1);
+    }
+
+    @DisplayName("Pages walk the sorted price index, with unpriced products last and first when descending")
+    @Test
+    void givenUnpricedProducts_whenSearchSortedByPrice_thenNullsLastAndPagedInOrder() {
+        // Given - precondition or setup
+        productSearchIndex.put(ProductDTO.builder().productId(4L).name("Gift card").version(0L).build());
+        productSearchIndex.put(product(5L, "Blue chair", "Wooden chair", "45.0", LocalDate.of(2024, 4, 10)));
+
+        // When - action or the behavior that we are go int to test
+        ProductSearchResult ascending = productSearchIndex.search(ProductSearchCriteria.builder()
+                .sort(ProductSearchCriteria.SortField.PRICE)
+                .page(1)
+                .size(2)
+                .build());
+        ProductSearchResult descending = productSearchIndex.search(ProductSearchCriteria.builder()
+                .sort(ProductSearchCriteria.SortField.PRICE)
+                .descending(true)
+                .size(3)
+                .build());
+
+        // then - verify the output
+        assertThat(ascending.getTotal()).isEqualTo(5);
+        assertThat(ascending.getItems()).extracting(ProductDTO::getProductId).containsExactly(2L, 1L);
+        assertThat(descending.getItems()).extracting(ProductDTO::getProductId).containsExactly(4L, 1L, 2L);
+    }
+
+    @DisplayName("Returned products are copies that cannot change the index")
+    @Test
+    void givenSearchResult_whenItemChanged_thenIndexUnchanged() {
+        // Given - precondition or setup
+        ProductDTO item = productSearchIndex.search(ProductSearchCriteria.builder().q("chair").build())
+                .getItems().get(0);
+
+        // When - action or the behavior that we are go int to test
+        item.setPrice(new BigDecimal("1.00"));
+
+        // then - verify the output
+        assertThat(productSearchIndex.search(ProductSearchCriteria.builder().q("chair").build()).getItems())
+                .singleElement()
+                .satisfies(product -> assertThat(product.getPrice()).isEqualByComparingTo("45.00"));
+    }
+
+    @DisplayName("A delete that commits while the rebuild streams does not bring the product back")
+    @Test
+    void givenDeleteDuringRebuild_whenRebuildFinishes_thenProductStaysDeleted() {
+        // Given - precondition or setup
+        ProductSearchIndex emptyIndex = new ProductSearchIndex(productServiceProvider);
+        given(productServiceProvider.getObject()).willReturn(productService);
+        willAnswer(invocation -> {
+            Consumer<ProductDTO> consumer = invocation.getArgument(0);
+            consumer.accept(product(10L, "Lamp", "Desk lamp", "20.00", LocalDate.of(2024, 4, 1)));
+            emptyIndex.onProductChanged(ProductChangedEvent.deleted(11L));
+            consumer.accept(product(11L, "Lamp shade", "Desk lamp shade", "5.00", LocalDate.of(2024, 4, 1)));
+            return null;
+        }).given(productService).streamAll(any());
+
+        // When - action or the behavior that we are go int to test
+        emptyIndex.rebuild();
+
+        // then - verify the output
+        assertThat(emptyIndex.size()).isEqualTo(1);
+        assertThat(emptyIndex.search(ProductSearchCriteria.builder().q("shade").build()).getTotal()).isZero();
+    }
+
+    private static ProductDTO product(Long id, String name, String description, String price, LocalDate createdAt) {
+        return ProductDTO.builder()
+                .productId(id)
+                .name(name)
+                .description(description)
+                .price(new BigDecimal(price))
+                .createdAt(createdAt)
+                .version(0L)
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.vg.jenkins.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Catalog version test")
+class CatalogVersionTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private CatalogVersion catalogVersion;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("create table product_changes (sequence_number bigint generated by default as "
+                + "identity primary key, product_id bigint not null, type varchar(16) not null, "
+                + "payload varchar(4000), recorded_at timestamp(6) not null)");
+        catalogVersion = new CatalogVersion(jdbcTemplate);
+    }
+
+    @DisplayName("Every product change produces a new version")
+    @Test
+    void givenProductChange_whenCurrent_thenVersionChanges() {
+        // Given - precondition or setup
+        String before = catalogVersion.current();
+
+        // When - action or the behavior that we are go int to test
+        record(null);
+
+        // then - verify the output
+        assertThat(catalogVersion.current()).isNotEqualTo(before);
+    }
+
+    @DisplayName("A change committing below the highest sequence still produces a new version")
+    @Test
+    void givenLateCommitBelowHighestSequence_whenCurrent_thenVersionChanges() {
+        // Given - precondition or setup
+        record(1L);
+        record(3L);
+        String before = catalogVersion.current();
+
+        // When - action or the behavior that we are go int to test
+        record(2L);
+
+        // then - verify the output
+        assertThat(catalogVersion.current()).isNotEqualTo(before);
+    }
+
+    @DisplayName("Instances reading the same database share the version")
+    @Test
+    void givenTwoInstances_whenCurrent_thenVersionsMatch() {
+        // Given - precondition or setup
+        record(null);
+
+        // When - action or the behavior that we are go int to test
+        String first = catalogVersion.current();
+        String second = new CatalogVersion(jdbcTemplate).current();
+
+        // then - verify the output
+        assertThat(first).isEqualTo(second);
+    }
+
+    private void record(Long sequence) {
+        if (sequence == null) {
+            jdbcTemplate.update("insert into product_changes (product_id, type, recorded_at) "
+                    + "values (1, 'DELETED', current_timestamp)");
+        } else {
+            jdbcTemplate.update("insert into product_changes (sequence_number, product_id, type, recorded_at) "
+                    + "values (?, 1, 'DELETED', current_timestamp)", sequence);
+        }
+    }
+}
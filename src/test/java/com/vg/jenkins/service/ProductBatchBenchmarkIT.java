@@ -0,0 +1,82 @@
+package com.vg.jenkins.service;
+
+import com.vg.jenkins.dto.ProductBatchResult;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the one-by-one save path with the chunked batch path on the H2 test profile. Wall-clock timings
+ * are too noisy for the regular IT run, so it is opt-in like the load tests: {@code ./mvnw verify -Dloadtest=true}.
+ */
+@DisplayName("Product batch benchmark")
+@SpringBootTest(properties = "logging.level.com.vg.jenkins.service.ProductBatchBenchmarkIT=info")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class ProductBatchBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductBatchBenchmarkIT.class);
+
+    private static final int PRODUCTS = 5000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("One-by-one save vs batch save")
+    @Test
+    void givenProducts_whenSavedOneByOneAndInBatch_thenReportThroughput() {
+        // Given - precondition or setup
+        List<ProductDTO> singleProducts = products("single");
+        List<ProductDTO> batchProducts = products("batch");
+
+        // When - action or the behavior that we are go int to test
+        long singleStart = System.nanoTime();
+        singleProducts.forEach(productService::save);
+        long singleNanos = System.nanoTime() - singleStart;
+
+        long batchStart = System.nanoTime();
+        List<ProductBatchResult> results = productService.saveAll(batchProducts);
+        long batchNanos = System.nanoTime() - batchStart;
+
+        // then - verify the output
+        assertThat(results).extracting(ProductBatchResult::getStatus)
+                .containsOnly(ProductBatchResult.Status.CREATED);
+        assertThat(productRepository.count()).isEqualTo(2L * PRODUCTS);
+
+        log.info("one-by-one: {} products in {} ms ({}/s)",
+                PRODUCTS, singleNanos / 1_000_000, Math.round(PRODUCTS / (singleNanos / 1e9)));
+        log.info("batch:      {} products in {} ms ({}/s)",
+                PRODUCTS, batchNanos / 1_000_000, Math.round(PRODUCTS / (batchNanos / 1e9)));
+        assertThat(batchNanos).isLessThan(singleNanos);
+    }
+
+    private static List<ProductDTO> products(String prefix) {
+        return IntStream.range(0, PRODUCTS)
+                .mapToObj(i -> ProductDTO.builder()
+                        .name(prefix + " product " + i)
+                        .description("benchmark")
+                        .price(BigDecimal.valueOf(i, 2))
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,96 @@
+package com.vg.jenkins.service;
+
+import com.vg.jenkins.config.CacheConfig;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.model.Product;
+import com.vg.jenkins.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("Product cache test")
+@SpringBootTest
+class ProductCacheIT {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private ProductRepository productRepository;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).clear();
+        product = Product.builder()
+                .productId(1L)
+                .name("Product 1")
+                .description("test")
+                .price(BigDecimal.valueOf(10.00))
+                .createdAt(LocalDate.now())
+                .build();
+        given(productRepository.findById(1L)).willReturn(Optional.of(product));
+    }
+
+    @DisplayName("Repeated findById is served from the cache")
+    @Test
+    void givenCachedProduct_whenFindByIdTwice_thenRepositoryHitOnce() {
+        // When - action or the behavior that we are go int to test
+        ProductDTO first = productService.findById(1L);
+        ProductDTO second = productService.findById(1L);
+
+        // then - verify the output
+        assertThat(second).isEqualTo(first);
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    @DisplayName("Update evicts the cached product")
+    @Test
+    void givenCachedProduct_whenUpdate_thenNextReadGoesToRepository() {
+        // Given - precondition or setup
+        given(productRepository.updateProduct(eq(1L), any(), any(), any(), any(), any())).willReturn(1);
+        given(productRepository.findProjectedById(1L)).willReturn(Optional.of(
+                ProductDTO.builder().productId(1L).name("Product 1").description("update").version(1L).build()));
+        productService.findById(1L);
+
+        // When - action or the behavior that we are go int to test
+        productService.update(1L, ProductDTO.builder().name("Product 1").description("update").build());
+        productService.findById(1L);
+
+        // then - verify the output
+        verify(productRepository, times(2)).findById(1L);
+    }
+
+    @DisplayName("Delete evicts the cached product")
+    @Test
+    void givenCachedProduct_whenDelete_thenEntryRemoved() {
+        // Given - precondition or setup
+        given(productRepository.deleteProduct(1L)).willReturn(1);
+        productService.findById(1L);
+
+        // When - action or the behavior that we are go int to test
+        productService.delete(1L);
+
+        // then - verify the output
+        assertThat(cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).get(1L)).isNull();
+    }
+}
@@ -0,0 +1,153 @@
+package com.vg.jenkins.service;
+
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.event.ProductChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Product read coalescer test")
+class ProductReadCoalescerTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final CountDownLatch loading = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @DisplayName("Concurrent reads of the same product share one load")
+    @Test
+    void givenLoadInFlight_whenSameProductRead_thenLoadShared() throws Exception {
+        // Given - precondition or setup
+        ProductReadCoalescer coalescer = coalescer(10, 10_000);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        coalescer.bindTo(meterRegistry);
+        Future<ProductDTO> leader = executor.submit(() -> coalescer.product(1L, blockingLoad()));
+        loading.await();
+
+        // When - action or the behavior that we are go int to test
+        List<Future<ProductDTO>> followers = List.of(
+                executor.submit(() -> coalescer.product(1L, blockingLoad())),
+                executor.submit(() -> coalescer.product(1L, blockingLoad())));
+        awaitJoined(meterRegistry, 2);
+        release.countDown();
+
+        // then - verify the output
+        ProductDTO product = leader.get(5, TimeUnit.SECONDS);
+        for (Future<ProductDTO> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(product);
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @DisplayName("Readers past the waiter limit load on their own")
+    @Test
+    void givenWaiterLimitReached_whenProductRead_thenOwnLoad() throws Exception {
+        // Given - precondition or setup
+        ProductReadCoalescer coalescer = coalescer(0, 10_000);
+        executor.submit(() -> coalescer.product(1L, blockingLoad()));
+        loading.await();
+
+        // When - action or the behavior that we are go int to test
+        ProductDTO product = coalescer.product(1L, () -> ProductDTO.builder().productId(1L).name("own").build());
+
+        // then - verify the output
+        assertThat(product.getName()).isEqualTo("own");
+    }
+
+    @DisplayName("A reader stops waiting for a slow load and loads on its own")
+    @Test
+    void givenSlowLoad_whenWaitExpires_thenOwnLoad() throws Exception {
+        // Given - precondition or setup
+        ProductReadCoalescer coalescer = coalescer(10, 50);
+        executor.submit(() -> coalescer.product(1L, blockingLoad()));
+        loading.await();
+
+        // When - action or the behavior that we are go int to test
+        ProductDTO product = coalescer.product(1L, () -> ProductDTO.builder().productId(1L).name("own").build());
+
+        // then - verify the output
+        assertThat(product.getName()).isEqualTo("own");
+    }
+
+    @DisplayName("A committed change makes later reads start a new load")
+    @Test
+    void givenProductChanged_whenProductRead_thenNewLoad() throws Exception {
+        // Given - precondition or setup
+        ProductReadCoalescer coalescer = coalescer(10, 10_000);
+        executor.submit(() -> coalescer.product(1L, blockingLoad()));
+        loading.await();
+
+        // When - action or the behavior that we are go int to test
+        coalescer.onProductChanged(ProductChangedEvent.deleted(1L));
+        ProductDTO product = coalescer.product(1L, () -> ProductDTO.builder().productId(1L).name("fresh").build());
+
+        // then - verify the output
+        assertThat(product.getName()).isEqualTo("fresh");
+    }
+
+    @DisplayName("A page read under a newer catalog version does not join a load started under an older one")
+    @Test
+    void givenPageLoadInFlight_whenReadUnderNewerVersion_thenNewLoad() throws Exception {
+        // Given - precondition or setup
+        ProductReadCoalescer coalescer = coalescer(10, 10_000);
+        executor.submit(() -> coalescer.page("e-1", 0L, 20, null, () -> List.of(blockingLoad().get())));
+        loading.await();
+
+        // When - action or the behavior that we are go int to test
+        List<ProductDTO> page = coalescer.page("e-2", 0L, 20, null,
+                () -> List.of(ProductDTO.builder().productId(1L).name("fresh").build()));
+
+        // then - verify the output
+        assertThat(page).extracting(ProductDTO::getName).containsExactly("fresh");
+    }
+
+    private ProductReadCoalescer coalescer(int maxWaiters, long maxWaitMillis) {
+        ProductProperties productProperties = new ProductProperties();
+        productProperties.getCoalescing().setMaxWaiters(maxWaiters);
+        productProperties.getCoalescing().setMaxWaitMillis(maxWaitMillis);
+        return new ProductReadCoalescer(productProperties);
+    }
+
+    private Supplier<ProductDTO> blockingLoad() {
+        return () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ProductDTO.builder().productId(1L).name("loaded").build();
+        };
+    }
+
+    private static void awaitJoined(SimpleMeterRegistry meterRegistry, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get(ProductReadCoalescer.JOINED_METRIC).tag("read", "product").functionCounter().count()
+                < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -1,26 +1,58 @@
 package com.vg.jenkins.service;
 
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.dto.ProductBatchResult;
 import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductField;
+import com.vg.jenkins.dto.ProductLookupResult;
+import com.vg.jenkins.dto.ProductSearchCriteria;
+import com.vg.jenkins.dto.ProductSearchResult;
+import com.vg.jenkins.dto.ProductStats;
+import com.vg.jenkins.event.ProductChangedEvent;
+import com.vg.jenkins.exception.ProductNotFoundException;
 import com.vg.jenkins.mapper.ProductMapper;
 import com.vg.jenkins.model.Product;
 import com.vg.jenkins.repository.ProductRepository;
+import com.vg.jenkins.readmodel.ProductColumnStore;
+import com.vg.jenkins.search.ProductSearchIndex;
+import com.vg.jenkins.stats.ProductStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @DisplayName("Product service test")
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +64,41 @@ class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private TransactionOperations transactionOperations = new TransactionOperations() {
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            return action.doInTransaction(new SimpleTransactionStatus());
+        }
+    };
+
+    @Spy
+    private ProductProperties productProperties = new ProductProperties();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @Mock
+    private ProductStatistics productStatistics;
+
+    @Mock
+    private ProductColumnStore columnStore;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ProductReadCoalescer readCoalescer = new ProductReadCoalescer(new ProductProperties());
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -39,7 +106,7 @@ class ProductServiceTest {
     @Test
     void givenProductsList_whenFindAllProducts_thenReturnProductsList() {
         // Given - precondition or setup
-        Product product = Product.builder()
+        ProductDTO productDTO = ProductDTO.builder()
                 .productId(1L)
                 .name("Product 1")
                 .description("test")
@@ -47,7 +114,7 @@ class ProductServiceTest {
                 .createdAt(LocalDate.now())
                 .build();
 
-        Product product2 = Product.builder()
+        ProductDTO productDTO2 = ProductDTO.builder()
                 .productId(2L)
                 .name("Product 2")
                 .description("test2")
@@ -55,31 +122,93 @@ class ProductServiceTest {
                 .createdAt(LocalDate.now())
                 .build();
 
+        given(productRepository.findAllProjected()).willReturn(List.of(productDTO, productDTO2));
+
+        // When - action or the behavior that we are go int to test
+        List<ProductDTO> productDTOList = productService.findAll();
+
+        // then - verify the output
+        assertThat(productDTOList).containsExactly(productDTO, productDTO2);
+        verify(productMapper, never()).mapToDTO(any());
+    }
+
+    @DisplayName("Junit test for method findPage")
+    @Test
+    void givenCursor_whenFindPage_thenReturnProductsAfterCursor() {
+        // Given - precondition or setup
         ProductDTO productDTO = ProductDTO.builder()
-                .name(product.getName())
-                .description(product.getDescription())
-                .price(product.getPrice())
-                .createdAt(product.getCreatedAt())
-                .updatedAt(product.getUpdatedAt())
+                .productId(11L)
+                .name("Product 11")
                 .build();
 
-        ProductDTO productDTO2 = ProductDTO.builder()
-                .name(product2.getName())
-                .description(product2.getDescription())
-                .price(product2.getPrice())
-                .createdAt(product2.getCreatedAt())
-                .updatedAt(product2.getUpdatedAt())
-                .build();
+        given(productRepository.findPageProjected(10L, Limit.of(5))).willReturn(List.of(productDTO));
 
-        given(productRepository.findAll()).willReturn(List.of(product, product2));
-        given(productMapper.mapToDTO(product)).willReturn(productDTO);
-        given(productMapper.mapToDTO(product2)).willReturn(productDTO2);
+        // When - action or the behavior that we are go int to test
+        List<ProductDTO> page = productService.findPage(10L, 5, null);
+
+        // then - verify the output
+        assertThat(page).containsExactly(productDTO);
+    }
+
+    @DisplayName("Junit test for method findPage without cursor")
+    @Test
+    void givenNoCursor_whenFindPage_thenStartFromFirstProduct() {
+        // Given - precondition or setup
+        given(productRepository.findPageProjected(eq(0L), any(Limit.class))).willReturn(List.of());
 
         // When - action or the behavior that we are go int to test
-        List<ProductDTO> productDTOList = productService.findAll();
+        List<ProductDTO> page = productService.findPage(null, 5, null);
+
+        // then - verify the output
+        assertThat(page).isEmpty();
+    }
+
+    @DisplayName("Junit test for method findPage served by the column store")
+    @Test
+    void givenColumnStoreServing_whenFindPage_thenRepositoryNotQueried() {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder().productId(11L).name("Product 11").build();
+        given(columnStore.isServing()).willReturn(true);
+        given(columnStore.findPage(10L, 5)).willReturn(List.of(productDTO));
+
+        // When - action or the behavior that we are go int to test
+        List<ProductDTO> page = productService.findPage(10L, 5, null);
+
+        // then - verify the output
+        assertThat(page).containsExactly(productDTO);
+        verify(productRepository, never()).findPageProjected(any(Long.class), any(Limit.class));
+    }
+
+    @DisplayName("Junit test for method findPageFields")
+    @Test
+    void givenFields_whenFindPageFields_thenDelegateToProjection() {
+        // Given - precondition or setup
+        Set<ProductField> fields = ProductField.parse("name");
+        List<Map<String, Object>> rows = List.of(Map.of("productId", 1L, "name", "Product 1"));
+        given(productRepository.findPageFields(fields, 0L, 5)).willReturn(rows);
+
+        // When - action or the behavior that we are go int to test
+        List<Map<String, Object>> page = productService.findPageFields(null, 5, fields, null);
+
+        // then - verify the output
+        assertThat(page).isSameAs(rows);
+    }
+
+    @DisplayName("Junit test for method streamAll")
+    @Test
+    void givenProducts_whenStreamAll_thenEmitEachProduct() {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder().productId(1L).name("Product 1").build();
+        ProductDTO productDTO2 = ProductDTO.builder().productId(2L).name("Product 2").build();
+
+        given(productRepository.streamAllProjected()).willReturn(Stream.of(productDTO, productDTO2));
+
+        // When - action or the behavior that we are go int to test
+        List<ProductDTO> emitted = new ArrayList<>();
+        productService.streamAll(emitted::add);
 
         // then - verify the output
-        assertThat(productDTOList).hasSize(2);
+        assertThat(emitted).containsExactly(productDTO, productDTO2);
     }
 
     @DisplayName("Junit test for saveProduct method")
@@ -130,9 +259,19 @@ class ProductServiceTest {
                 .updatedAt(LocalDate.now())
                 .build();
 
-        given(productRepository.findById(product.getProductId())).willReturn(Optional.of(product));
-        given(productRepository.save(product)).willReturn(product);
-        given(productMapper.mapToDTO(product)).willReturn(productDTO);
+        ProductDTO storedProduct = ProductDTO.builder()
+                .productId(product.getProductId())
+                .name(product.getName())
+                .description("update")
+                .price(product.getPrice())
+                .createdAt(product.getCreatedAt())
+                .updatedAt(LocalDate.now())
+                .version(1L)
+                .build();
+
+        given(productRepository.updateProduct(eq(product.getProductId().longValue()), eq("Product 1"), eq("update"),
+                eq(product.getPrice()), any(LocalDate.class), isNull())).willReturn(1);
+        given(productRepository.findProjectedById(product.getProductId())).willReturn(Optional.of(storedProduct));
 
         // When - action or the behavior that we are go int to test
         ProductDTO updatedProduct = productService.update(product.getProductId(), productDTO);
@@ -145,6 +284,38 @@ class ProductServiceTest {
         assertThat(updatedProduct.getUpdatedAt()).isEqualTo(LocalDate.now());
     }
 
+    @DisplayName("Junit test for UpdateProduct method returns and publishes the stored row, not the request body")
+    @Test
+    void givenUnversionedUpdate_whenUpdateProduct_thenStoredRowReturnedAndPublished() {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder()
+                .name("Product 1")
+                .description("update")
+                .createdAt(LocalDate.of(2000, 1, 1))
+                .build();
+        ProductDTO storedProduct = ProductDTO.builder()
+                .productId(1L)
+                .name("Product 1")
+                .description("update")
+                .createdAt(LocalDate.of(2024, 5, 1))
+                .updatedAt(LocalDate.now())
+                .version(7L)
+                .build();
+
+        given(productRepository.updateProduct(eq(1L), any(), any(), any(), any(LocalDate.class), isNull()))
+                .willReturn(1);
+        given(productRepository.findProjectedById(1L)).willReturn(Optional.of(storedProduct));
+
+        // When - action or the behavior that we are go int to test
+        ProductDTO updatedProduct = productService.update(1L, productDTO);
+
+        // then - verify the output
+        assertThat(updatedProduct).isSameAs(storedProduct);
+        assertThat(updatedProduct.getVersion()).isEqualTo(7L);
+        assertThat(updatedProduct.getCreatedAt()).isEqualTo(LocalDate.of(2024, 5, 1));
+        verify(eventPublisher).publishEvent(ProductChangedEvent.updated(storedProduct));
+    }
+
     @DisplayName("Junit test for deleteProduct method")
     @Test
     void givenProductObject_whenDeleteProduct_thenNothing() {
@@ -157,13 +328,83 @@ class ProductServiceTest {
                 .createdAt(LocalDate.now())
                 .build();
 
-        given(productRepository.findById(product.getProductId())).willReturn(Optional.of(product));
+        given(productRepository.deleteProduct(product.getProductId())).willReturn(1);
 
         // When - action or the behavior that we are go int to test
         productService.delete(product.getProductId());
 
         // then - verify the output
-        verify(productRepository).deleteById(product.getProductId());
+        verify(productRepository).deleteProduct(product.getProductId());
+        verify(productRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(product.getProductId()));
+    }
+
+    @DisplayName("Junit test for deleteProduct method when the product does not exist")
+    @Test
+    void givenMissingProduct_whenDeleteProduct_thenThrowNotFound() {
+        // Given - precondition or setup
+        given(productRepository.deleteProduct(99L)).willReturn(0);
+
+        // When - action or the behavior that we are go int to test
+        Throwable thrown = catchThrowable(() -> productService.delete(99L));
+
+        // then - verify the output
+        assertThat(thrown).isInstanceOf(ProductNotFoundException.class);
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @DisplayName("Junit test for UpdateProduct method with the current version")
+    @Test
+    void givenCurrentVersion_whenUpdateProduct_thenReturnNextVersion() {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder()
+                .name("Product 1")
+                .description("update")
+                .version(3L)
+                .build();
+
+        given(productRepository.updateProduct(eq(1L), any(), any(), any(), any(LocalDate.class), eq(3L))).willReturn(1);
+        given(productRepository.findProjectedById(1L)).willReturn(Optional.of(
+                ProductDTO.builder().productId(1L).name("Product 1").description("update").version(4L).build()));
+
+        // When - action or the behavior that we are go int to test
+        ProductDTO updatedProduct = productService.update(1L, productDTO);
+
+        // then - verify the output
+        assertThat(updatedProduct.getProductId()).isEqualTo(1L);
+        assertThat(updatedProduct.getVersion()).isEqualTo(4L);
+    }
+
+    @DisplayName("Junit test for UpdateProduct method with a stale version")
+    @Test
+    void givenStaleVersion_whenUpdateProduct_thenThrowConflict() {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder().name("Product 1").version(2L).build();
+
+        given(productRepository.updateProduct(eq(1L), any(), any(), any(), any(LocalDate.class), eq(2L))).willReturn(0);
+        given(productRepository.existsById(1L)).willReturn(true);
+
+        // When - action or the behavior that we are go int to test
+        Throwable thrown = catchThrowable(() -> productService.update(1L, productDTO));
+
+        // then - verify the output
+        assertThat(thrown).isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @DisplayName("Junit test for UpdateProduct method when the product does not exist")
+    @Test
+    void givenMissingProduct_whenUpdateProduct_thenThrowNotFound() {
+        // Given - precondition or setup
+        ProductDTO productDTO = ProductDTO.builder().name("Product 1").build();
+
+        given(productRepository.updateProduct(eq(99L), any(), any(), any(), any(LocalDate.class), isNull())).willReturn(0);
+
+        // When - action or the behavior that we are go int to test
+        Throwable thrown = catchThrowable(() -> productService.update(99L, productDTO));
+
+        // then - verify the output
+        assertThat(thrown).isInstanceOf(ProductNotFoundException.class);
+        verify(productRepository, never()).existsById(any());
     }
 
     @DisplayName("Junit test for findProductById method")
@@ -200,4 +441,206 @@ class ProductServiceTest {
         assertThat(productDTO.getUpdatedAt()).isEqualTo(LocalDate.now());
 
     }
-}
\ No newline at end of file
+
+    @DisplayName("Junit test for saveAll method")
+    @Test
+    void givenProductList_whenSaveAll_thenReturnCreatedResultPerItem() {
+        // Given - precondition or setup
+        productProperties.getBatch().setChunkSize(2);
+        List<ProductDTO> productDTOList = List.of(
+                ProductDTO.builder().name("Product 1").build(),
+                ProductDTO.builder().name("Product 2").build(),
+                ProductDTO.builder().name("Product 3").build());
+
+        given(productMapper.mapToEntity(any(ProductDTO.class))).willAnswer(invocation -> new Product());
+        given(productRepository.saveAll(anyList())).willAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            long id = 1;
+            for (Product product : products) {
+                product.setProductId(id++);
+            }
+            return products;
+        });
+        given(productMapper.mapToDTO(any(Product.class))).willAnswer(invocation ->
+                ProductDTO.builder().productId(invocation.<Product>getArgument(0).getProductId()).build());
+
+        // When - action or the behavior that we are go int to test
+        List<ProductBatchResult> results = productService.saveAll(productDTOList);
+
+        // then - verify the output
+        assertThat(results).hasSize(3);
+        assertThat(results).extracting(ProductBatchResult::getIndex).containsExactly(0, 1, 2);
+        assertThat(results).extracting(ProductBatchResult::getStatus)
+                .containsOnly(ProductBatchResult.Status.CREATED);
+        assertThat(productDTOList).allSatisfy(product -> assertThat(product.getCreatedAt()).isEqualTo(LocalDate.now()));
+        verify(entityManager, times(2)).clear();
+        verify(eventPublisher, times(3)).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @DisplayName("Junit test for saveAll method when a chunk fails")
+    @Test
+    void givenFailingChunk_whenSaveAll_thenReportFailedItems() {
+        // Given - precondition or setup
+        List<ProductDTO> productDTOList = List.of(ProductDTO.builder().name("Product 1").build());
+
+        given(productMapper.mapToEntity(any(ProductDTO.class))).willAnswer(invocation -> new Product());
+        given(productRepository.saveAll(anyList())).willThrow(new IllegalStateException("boom"));
+
+        // When - action or the behavior that we are go int to test
+        List<ProductBatchResult> results = productService.saveAll(productDTOList);
+
+        // then - verify the output
+        assertThat(results).singleElement()
+                .satisfies(result -> {
+                    assertThat(result.getStatus()).isEqualTo(ProductBatchResult.Status.FAILED);
+                    assertThat(result.getMessage()).isEqualTo("boom");
+                });
+    }
+
+    @DisplayName("Junit test for updateAll method")
+    @Test
+    void givenProductList_whenUpdateAll_thenUpdateExistingAndReportMissing() {
+        // Given - precondition or setup
+        Product product = Product.builder()
+                .productId(1L)
+                .name("Product 1")
+                .description("test")
+                .price(BigDecimal.valueOf(10.00))
+                .build();
+
+        List<ProductDTO> productDTOList = List.of(
+                ProductDTO.builder().productId(1L).name("Product 1").description("update").build(),
+                ProductDTO.builder().productId(2L).name("Product 2").build());
+
+        given(productRepository.findAllById(anyCollection())).willReturn(List.of(product));
+        given(productMapper.mapToDTO(product)).willReturn(ProductDTO.builder().productId(1L).build());
+
+        // When - action or the behavior that we are go int to test
+        List<ProductBatchResult> results = productService.updateAll(productDTOList);
+
+        // then - verify the output
+        assertThat(results).extracting(ProductBatchResult::getStatus)
+                .containsExactly(ProductBatchResult.Status.UPDATED, ProductBatchResult.Status.NOT_FOUND);
+        assertThat(product.getDescription()).isEqualTo("update");
+        assertThat(product.getUpdatedAt()).isEqualTo(LocalDate.now());
+        verify(productRepository).flush();
+    }
+
+    @DisplayName("Junit test for deleteAll method")
+    @Test
+    void givenIdList_whenDeleteAll_thenDeleteExistingInOneStatement() {
+        // Given - precondition or setup
+        given(productRepository.findExistingIds(anyCollection())).willReturn(List.of(1L));
+
+        // When - action or the behavior that we are go int to test
+        List<ProductBatchResult> results = productService.deleteAll(List.of(1L, 2L));
+
+        // then - verify the output
+        assertThat(results).extracting(ProductBatchResult::getStatus)
+                .containsExactly(ProductBatchResult.Status.DELETED, ProductBatchResult.Status.NOT_FOUND);
+        verify(productRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(1L));
+    }
+
+    @DisplayName("Junit test for deleteAll method without matches")
+    @Test
+    void givenUnknownIds_whenDeleteAll_thenSkipDeleteStatement() {
+        // Given - precondition or setup
+        given(productRepository.findExistingIds(anyCollection())).willReturn(List.of());
+
+        // When - action or the behavior that we are go int to test
+        List<ProductBatchResult> results = productService.deleteAll(List.of(3L));
+
+        // then - verify the output
+        assertThat(results).extracting(ProductBatchResult::getStatus)
+                .containsExactly(ProductBatchResult.Status.NOT_FOUND);
+        verify(productRepository, never()).deleteAllByIdInBatch(anyCollection());
+    }
+
+    @DisplayName("Junit test for findAllById method")
+    @Test
+    void givenIdList_whenFindAllById_thenResultsInRequestOrderWithMissingInline() {
+        // Given - precondition or setup
+        productProperties.getBatch().setChunkSize(2);
+        given(productRepository.findProjectedByIds(List.of(3L, 1L))).willReturn(List.of(
+                ProductDTO.builder().productId(1L).name("Product 1").build(),
+                ProductDTO.builder().productId(3L).name("Product 3").build()));
+        given(productRepository.findProjectedByIds(List.of(2L, 9L))).willReturn(List.of(
+                ProductDTO.builder().productId(2L).name("Product 2").build()));
+
+        // When - action or the behavior that we are go int to test
+        List<ProductLookupResult> results = productService.findAllById(List.of(3L, 1L, 3L, 2L, 9L));
+
+        // then - verify the output
+        assertThat(results).extracting(ProductLookupResult::getProductId).containsExactly(3L, 1L, 3L, 2L, 9L);
+        assertThat(results).extracting(ProductLookupResult::getStatus).containsExactly(
+                ProductLookupResult.Status.FOUND, ProductLookupResult.Status.FOUND, ProductLookupResult.Status.FOUND,
+                ProductLookupResult.Status.FOUND, ProductLookupResult.Status.NOT_FOUND);
+        assertThat(results.get(0).getProduct().getName()).isEqualTo("Product 3");
+        assertThat(results.get(4).getProduct()).isNull();
+        verify(productRepository, times(2)).findProjectedByIds(anyCollection());
+        assertThat(meterRegistry.get(ProductServiceImpl.NOT_FOUND_METRIC).tag("operation", "findAllById").counter().count())
+                .isEqualTo(1);
+    }
+
+    @DisplayName("Junit test for search method")
+    @Test
+    void givenCriteria_whenSearch_thenDelegateToIndex() {
+        // Given - precondition or setup
+        ProductSearchCriteria criteria = ProductSearchCriteria.builder().q("phone").build();
+        ProductSearchResult searchResult = ProductSearchResult.builder().total(0).items(List.of()).build();
+        given(productSearchIndex.search(criteria)).willReturn(searchResult);
+
+        // When - action or the behavior that we are go int to test
+        ProductSearchResult result = productService.search(criteria);
+
+        // then - verify the output
+        assertThat(result).isSameAs(searchResult);
+        verify(productRepository, never()).findAll();
+    }
+
+    @DisplayName("Junit test for stats method")
+    @Test
+    void givenDateRange_whenStats_thenDelegateToStatistics() {
+        // Given - precondition or setup
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        ProductStats stats = ProductStats.builder().from(from).count(3).build();
+        given(productStatistics.stats(from, null)).willReturn(stats);
+
+        // When - action or the behavior that we are go int to test
+        ProductStats result = productService.stats(from, null);
+
+        // then - verify the output
+        assertThat(result).isSameAs(stats);
+        verify(productRepository, never()).findAll();
+    }
+
+    @DisplayName("Junit test for findVersion method")
+    @Test
+    void givenProductId_whenFindVersion_thenReturnVersionWithoutLoadingEntity() {
+        // Given - precondition or setup
+        given(productRepository.findVersionById(1L)).willReturn(Optional.of(3L));
+
+        // When - action or the behavior that we are go int to test
+        long version = productService.findVersion(1L);
+
+        // then - verify the output
+        assertThat(version).isEqualTo(3L);
+        verify(productRepository, never()).findById(any());
+    }
+
+    @DisplayName("Junit test for findVersion method when the product does not exist")
+    @Test
+    void givenMissingProductId_whenFindVersion_thenThrowNotFound() {
+        // Given - precondition or setup
+        given(productRepository.findVersionById(99L)).willReturn(Optional.empty());
+
+        // When - action or the behavior that we are go int to test
+        Throwable thrown = catchThrowable(() -> productService.findVersion(99L));
+
+        // then - verify the output
+        assertThat(thrown).isInstanceOf(ProductNotFoundException.class);
+        assertThat(meterRegistry.get(ProductServiceImpl.NOT_FOUND_METRIC).tag("operation", "findVersion").counter().count())
+                .isEqualTo(1.0);
+    }
+}
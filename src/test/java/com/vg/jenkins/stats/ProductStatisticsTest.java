@@ -0,0 +1,150 @@
+package com.vg.jenkins.stats;
+
+import com.vg.jenkins.dto.ProductDTO;
+import com.vg.jenkins.dto.ProductStats;
+import com.vg.jenkins.event.ProductChangedEvent;
+import com.vg.jenkins.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+
+@DisplayName("Product statistics test")
+@ExtendWith(MockitoExtension.class)
+class ProductStatisticsTest {
+
+    @Mock
+    private ObjectProvider<ProductService> productServiceProvider;
+
+    @Mock
+    private ProductService productService;
+
+    private ProductStatistics productStatistics;
+
+    @BeforeEach
+    void setUp() {
+        productStatistics = new ProductStatistics(productServiceProvider);
+        productStatistics.put(product(1L, "0.10", LocalDate.of(2024, 1, 10)));
+        productStatistics.put(product(2L, "0.20", LocalDate.of(2024, 1, 10)));
+        productStatistics.put(product(3L, "45.00", LocalDate.of(2024, 3, 10)));
+    }
+
+    @DisplayName("Catalog aggregates are exact in decimal")
+    @Test
+    void givenProducts_whenStats_thenExactAggregates() {
+        // When - action or the behavior that we are go int to test
+        ProductStats stats = productStatistics.stats(null, null);
+
+        // then - verify the output
+        assertThat(stats.getCount()).isEqualTo(3);
+        assertThat(stats.getSumPrice()).isEqualTo(new BigDecimal("45.30"));
+        assertThat(stats.getMinPrice()).isEqualTo(new BigDecimal("0.10"));
+        assertThat(stats.getMaxPrice()).isEqualTo(new BigDecimal("45.00"));
+        assertThat(stats.getAveragePrice()).isEqualTo(new BigDecimal("15.1000"));
+        assertThat(stats.getCreatedPerDay())
+                .containsExactly(Map.entry(LocalDate.of(2024, 1, 10), 2L),
+                        Map.entry(LocalDate.of(2024, 3, 10), 1L));
+    }
+
+    @DisplayName("A date range is answered from the daily rollups")
+    @Test
+    void givenDateRange_whenStats_thenOnlyDaysInRange() {
+        // When - action or the behavior that we are go int to test
+        ProductStats stats = productStatistics.stats(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+
+        // then - verify the output
+        assertThat(stats.getCount()).isEqualTo(2);
+        assertThat(stats.getSumPrice()).isEqualTo(new BigDecimal("0.30"));
+        assertThat(stats.getMaxPrice()).isEqualTo(new BigDecimal("0.20"));
+        assertThat(stats.getCreatedPerDay()).containsOnlyKeys(LocalDate.of(2024, 1, 10));
+    }
+
+    @DisplayName("Updates and deletes take back what the product contributed")
+    @Test
+    void givenUpdateAndDelete_whenStats_thenAggregatesFollow() {
+        // Given - precondition or setup
+        productStatistics.onProductChanged(ProductChangedEvent.updated(
+                ProductDTO.builder().productId(1L).price(new BigDecimal("5.00")).build()));
+        productStatistics.onProductChanged(ProductChangedEvent.deleted(3L));
+
+        // When - action or the behavior that we are go int to test
+        ProductStats stats = productStatistics.stats(null, null);
+
+        // then - verify the output
+        assertThat(stats.getCount()).isEqualTo(2);
+        assertThat(stats.getSumPrice()).isEqualTo(new BigDecimal("5.20"));
+        assertThat(stats.getMinPrice()).isEqualTo(new BigDecimal("0.20"));
+        assertThat(stats.getMaxPrice()).isEqualTo(new BigDecimal("5.00"));
+        assertThat(stats.getCreatedPerDay()).containsOnlyKeys(LocalDate.of(2024, 1, 10));
+    }
+
+    @DisplayName("Rebuild replaces the aggregates with what the service streams")
+    @Test
+    void givenStoredProducts_whenRebuild_thenAggregatesReloaded() {
+        // Given - precondition or setup
+        given(productServiceProvider.getObject()).willReturn(productService);
+        willAnswer(invocation -> {
+            Consumer<ProductDTO> consumer = invocation.getArgument(0);
+            consumer.accept(product(7L, "12.34", LocalDate.of(2024, 5, 1)));
+            return null;
+        }).given(productService).streamAll(any());
+
+        // When - action or the behavior that we are go int to test
+        productStatistics.rebuild();
+        ProductStats stats = productStatistics.stats(null, null);
+
+        // then - verify the output
+        assertThat(stats.getCount()).isEqualTo(1);
+        assertThat(stats.getSumPrice()).isEqualTo(new BigDecimal("12.34"));
+        assertThat(stats.getCreatedPerDay()).containsOnlyKeys(LocalDate.of(2024, 5, 1));
+    }
+
+    @DisplayName("Changes that commit while the rebuild streams are applied after the streamed rows")
+    @Test
+    void givenChangesDuringRebuild_whenRebuildFinishes_thenChangesWin() {
+        // Given - precondition or setup
+        given(productServiceProvider.getObject()).willReturn(productService);
+        willAnswer(invocation -> {
+            Consumer<ProductDTO> consumer = invocation.getArgument(0);
+            productStatistics.onProductChanged(ProductChangedEvent.updated(
+                    ProductDTO.builder().productId(7L).price(new BigDecimal("20.00")).version(1L).build()));
+            productStatistics.onProductChanged(ProductChangedEvent.deleted(8L));
+            consumer.accept(ProductDTO.builder().productId(7L).price(new BigDecimal("12.34"))
+                    .createdAt(LocalDate.of(2024, 5, 1)).version(0L).build());
+            consumer.accept(ProductDTO.builder().productId(8L).price(new BigDecimal("1.00"))
+                    .createdAt(LocalDate.of(2024, 5, 2)).version(0L).build());
+            return null;
+        }).given(productService).streamAll(any());
+
+        // When - action or the behavior that we are go int to test
+        productStatistics.rebuild();
+        ProductStats stats = productStatistics.stats(null, null);
+
+        // then - verify the output
+        assertThat(stats.getCount()).isEqualTo(1);
+        assertThat(stats.getSumPrice()).isEqualTo(new BigDecimal("20.00"));
+        assertThat(stats.getCreatedPerDay()).containsExactly(Map.entry(LocalDate.of(2024, 5, 1), 1L));
+    }
+
+    private static ProductDTO product(Long id, String price, LocalDate createdAt) {
+        return ProductDTO.builder()
+                .productId(id)
+                .name("Product " + id)
+                .price(new BigDecimal(price))
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.vg.jenkins.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Product warm-up test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"product.warmup.enabled=true", "product.warmup.requests-per-round=20",
+                "product.warmup.min-rounds=2", "product.warmup.settled-rounds=1",
+                "product.warmup.max-duration-millis=20000"})
+class ProductWarmupIT {
+
+    @Autowired
+    private ProductWarmup productWarmup;
+
+    @Autowired
+    private ReadinessRecorder readinessRecorder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DisplayName("Readiness is reported only after the warm-up rounds have run")
+    @Test
+    void givenWarmupEnabled_whenStarted_thenReadyAfterWarmup() {
+        // then - verify the output
+        assertThat(readinessRecorder.states)
+                .containsSubsequence(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC);
+        assertThat(readinessRecorder.roundsWhenReady).isGreaterThanOrEqualTo(2);
+        assertThat(meterRegistry.get(ProductWarmup.DURATION_METRIC).timeGauge().value(TimeUnit.NANOSECONDS))
+                .isPositive();
+        assertThat(meterRegistry.get(ProductWarmup.LATENCY_METRIC)
+                .tag("round", "first").tag("quantile", "0.99").timeGauge().value(TimeUnit.NANOSECONDS))
+                .isPositive();
+    }
+
+    @TestConfiguration
+    static class ReadinessConfig {
+
+        @Bean
+        ReadinessRecorder readinessRecorder(ProductWarmup productWarmup) {
+            return new ReadinessRecorder(productWarmup);
+        }
+    }
+
+    static class ReadinessRecorder {
+
+        private final ProductWarmup productWarmup;
+
+        private final List<ReadinessState> states = new CopyOnWriteArrayList<>();
+
+        private volatile int roundsWhenReady = -1;
+
+        ReadinessRecorder(ProductWarmup productWarmup) {
+            this.productWarmup = productWarmup;
+        }
+
+        @EventListener
+        void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+            states.add(event.getState());
+            if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+                roundsWhenReady = productWarmup.rounds();
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.vg.jenkins.web;
+
+import com.vg.jenkins.config.ProductProperties;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Bulkhead filter test")
+class BulkheadFilterTest {
+
+    private BulkheadFilter bulkheadFilter;
+
+    @BeforeEach
+    void setUp() {
+        ProductProperties productProperties = new ProductProperties();
+        productProperties.getBulkhead().setMaxConcurrentRequests(1);
+        productProperties.getBulkhead().setAcquireTimeoutMillis(10);
+        bulkheadFilter = new BulkheadFilter(productProperties);
+    }
+
+    @DisplayName("Permit is released after a request completes")
+    @Test
+    void givenFreePermit_whenRequestCompletes_thenPermitReleased() throws Exception {
+        // Given - precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When - action or the behavior that we are go int to test
+        bulkheadFilter.doFilter(request, response, new MockFilterChain());
+
+        // then - verify the output
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(bulkheadFilter.availablePermits()).isEqualTo(1);
+    }
+
+    @DisplayName("Requests beyond the limit are rejected with 503")
+    @Test
+    void givenAllPermitsTaken_whenRequestArrives_thenServiceUnavailable() throws Exception {
+        // Given - precondition or setup
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch leave = new CountDownLatch(1);
+        FilterChain blockingChain = (req, res) -> {
+            inside.countDown();
+            try {
+                leave.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> holder = executor.submit(() -> {
+            bulkheadFilter.doFilter(new MockHttpServletRequest("GET", "/api/v1/products"),
+                    new MockHttpServletResponse(), blockingChain);
+            return null;
+        });
+        inside.await();
+
+        // When - action or the behavior that we are go int to test
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        bulkheadFilter.doFilter(new MockHttpServletRequest("GET", "/api/v1/products/1"), response, new MockFilterChain());
+
+        // then - verify the output
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+        leave.countDown();
+        holder.get();
+        executor.shutdown();
+        assertThat(bulkheadFilter.availablePermits()).isEqualTo(1);
+    }
+
+    @DisplayName("Non API paths bypass the bulkhead")
+    @Test
+    void givenActuatorPath_whenAllPermitsTaken_thenRequestPasses() throws Exception {
+        // Given - precondition or setup
+        ProductProperties productProperties = new ProductProperties();
+        productProperties.getBulkhead().setMaxConcurrentRequests(0);
+        BulkheadFilter closedFilter = new BulkheadFilter(productProperties);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When - action or the behavior that we are go int to test
+        closedFilter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, new MockFilterChain());
+
+        // then - verify the output
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+}
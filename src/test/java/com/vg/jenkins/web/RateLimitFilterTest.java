@@ -0,0 +1,159 @@
+package com.vg.jenkins.web;
+
+import com.vg.jenkins.config.ProductProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Rate limit filter test")
+class RateLimitFilterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        ProductProperties productProperties = new ProductProperties();
+        productProperties.getRateLimit().setRequestsPerSecond(1);
+        productProperties.getRateLimit().setBurst(2);
+        productProperties.getRateLimit().setMaxConcurrentLists(1);
+        productProperties.getRateLimit().setApiKeys(Set.of("client-a", "client-b"));
+        rateLimitFilter = new RateLimitFilter(productProperties, nanos::get);
+        rateLimitFilter.bindTo(meterRegistry);
+    }
+
+    @DisplayName("A client past its burst is rejected with 429 until the bucket refills")
+    @Test
+    void givenBurstUsed_whenRequestArrives_thenTooManyRequestsUntilRefill() throws Exception {
+        // Given - precondition or setup
+        filter(get("/api/v1/products/1", "client-a"));
+        filter(get("/api/v1/products/1", "client-a"));
+
+        // When - action or the behavior that we are go int to test
+        MockHttpServletResponse rejected = filter(get("/api/v1/products/1", "client-a"));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        MockHttpServletResponse refilled = filter(get("/api/v1/products/1", "client-a"));
+
+        // then - verify the output
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(refilled.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get(RateLimitFilter.REJECTED_METRIC)
+                .tag("reason", "rate").tag("endpoint", "read").counter().count()).isEqualTo(1);
+    }
+
+    @DisplayName("Each API key has its own bucket")
+    @Test
+    void givenOtherClientLimited_whenRequestArrives_thenPasses() throws Exception {
+        // Given - precondition or setup
+        for (int i = 0; i < 3; i++) {
+            filter(get("/api/v1/products/1", "client-a"));
+        }
+
+        // When - action or the behavior that we are go int to test
+        MockHttpServletResponse response = filter(get("/api/v1/products/1", "client-b"));
+
+        // then - verify the output
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get(RateLimitFilter.CLIENTS_METRIC).gauge().value()).isEqualTo(2);
+    }
+
+    @DisplayName("Unknown API keys share the bucket of their remote address")
+    @Test
+    void givenUnknownApiKeys_whenRequestsArrive_thenLimitedByAddress() throws Exception {
+        // Given - precondition or setup
+        filter(get("/api/v1/products/1", "made-up-1"));
+        filter(get("/api/v1/products/1", "made-up-2"));
+
+        // When - action or the behavior that we are go int to test
+        MockHttpServletResponse response = filter(get("/api/v1/products/1", "made-up-3"));
+
+        // then - verify the output
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(meterRegistry.get(RateLimitFilter.CLIENTS_METRIC).gauge().value()).isEqualTo(1);
+    }
+
+    @DisplayName("A full list limit rejects lists but not point reads")
+    @Test
+    void givenListInFlight_whenSecondList_thenTooManyRequests() throws Exception {
+        // Given - precondition or setup
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch leave = new CountDownLatch(1);
+        FilterChain blockingChain = (req, res) -> {
+            inside.countDown();
+            try {
+                leave.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> holder = executor.submit(() -> {
+            rateLimitFilter.doFilter(get(RateLimitFilter.LIST_PATH, "client-a"), new MockHttpServletResponse(),
+                    blockingChain);
+            return null;
+        });
+        inside.await();
+
+        // When - action or the behavior that we are go int to test
+        MockHttpServletResponse list = filter(get(RateLimitFilter.LIST_PATH, "client-b"));
+        MockHttpServletResponse pointRead = filter(get("/api/v1/products/1", "client-b"));
+
+        // then - verify the output
+        assertThat(list.getStatus()).isEqualTo(429);
+        assertThat(pointRead.getStatus()).isEqualTo(200);
+
+        leave.countDown();
+        holder.get();
+        executor.shutdown();
+        assertThat(rateLimitFilter.availablePermits(RateLimitFilter.Endpoint.LIST)).isEqualTo(1);
+    }
+
+    @DisplayName("Writes are classified apart from reads")
+    @Test
+    void givenMethods_whenClassified_thenListReadAndWrite() {
+        // then - verify the output
+        assertThat(RateLimitFilter.endpoint(new MockHttpServletRequest("GET", "/api/v1/products")))
+                .isEqualTo(RateLimitFilter.Endpoint.LIST);
+        assertThat(RateLimitFilter.endpoint(new MockHttpServletRequest("GET", "/api/v1/products/search")))
+                .isEqualTo(RateLimitFilter.Endpoint.READ);
+        assertThat(RateLimitFilter.endpoint(new MockHttpServletRequest("POST", "/api/v1/products:batch")))
+                .isEqualTo(RateLimitFilter.Endpoint.WRITE);
+        assertThat(RateLimitFilter.endpoint(new MockHttpServletRequest("POST", "/api/v1/products:batchGet")))
+                .isEqualTo(RateLimitFilter.Endpoint.READ);
+        MockHttpServletRequest multiGet = new MockHttpServletRequest("GET", "/api/v1/products");
+        multiGet.setParameter("ids", "1,2");
+        assertThat(RateLimitFilter.endpoint(multiGet)).isEqualTo(RateLimitFilter.Endpoint.READ);
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest get(String uri, String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader("X-API-Key", apiKey);
+        return request;
+    }
+}
@@ -0,0 +1,96 @@
+package com.vg.jenkins.web;
+
+import com.vg.jenkins.config.ProductProperties;
+import com.vg.jenkins.datasource.ReadYourWrites;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Read-your-writes filter test")
+class ReadYourWritesFilterTest {
+
+    private ReadYourWritesFilter readYourWritesFilter;
+
+    @BeforeEach
+    void setUp() {
+        ProductProperties productProperties = new ProductProperties();
+        productProperties.getRouting().setEnabled(true);
+        readYourWritesFilter = new ReadYourWritesFilter(productProperties);
+    }
+
+    @DisplayName("A write stamps the read-your-writes cookie")
+    @Test
+    void givenPostRequest_whenFiltered_thenCookieSet() throws Exception {
+        // Given - precondition or setup
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        long before = System.currentTimeMillis();
+
+        // When - action or the behavior that we are go int to test
+        readYourWritesFilter.doFilter(new MockHttpServletRequest("POST", "/api/v1/products"), response,
+                new MockFilterChain());
+
+        // then - verify the output
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(Long.parseLong(cookie.getValue())).isGreaterThanOrEqualTo(before + 2_000);
+        assertThat(cookie.isHttpOnly()).isTrue();
+    }
+
+    @DisplayName("A read with an unexpired cookie is pinned to the primary for the request only")
+    @Test
+    void givenUnexpiredCookie_whenGetFiltered_thenPinnedDuringChain() throws Exception {
+        // Given - precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME,
+                String.valueOf(System.currentTimeMillis() + 60_000)));
+        AtomicBoolean pinnedInChain = new AtomicBoolean();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                pinnedInChain.set(ReadYourWrites.isPinnedToPrimary());
+            }
+        });
+
+        // When - action or the behavior that we are go int to test
+        readYourWritesFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // then - verify the output
+        assertThat(pinnedInChain).isTrue();
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isFalse();
+    }
+
+    @DisplayName("A read with an expired cookie is not pinned")
+    @Test
+    void givenExpiredCookie_whenGetFiltered_thenNotPinned() throws Exception {
+        // Given - precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME,
+                String.valueOf(System.currentTimeMillis() - 1)));
+        AtomicBoolean pinnedInChain = new AtomicBoolean(true);
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                pinnedInChain.set(ReadYourWrites.isPinnedToPrimary());
+            }
+        });
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When - action or the behavior that we are go int to test
+        readYourWritesFilter.doFilter(request, response, chain);
+
+        // then - verify the output
+        assertThat(pinnedInChain).isFalse();
+        assertThat(response.getCookie(ReadYourWritesFilter.COOKIE_NAME)).isNull();
+    }
+}
@@ -0,0 +1,83 @@
+package com.vg.jenkins.web;
+
+import com.vg.jenkins.metrics.PersistenceActivityListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Request metrics filter test")
+class RequestMetricsFilterTest {
+
+    private final PersistenceActivityListener listener = new PersistenceActivityListener();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RequestMetricsFilter requestMetricsFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestMetricsFilter = new RequestMetricsFilter();
+        requestMetricsFilter.bindTo(meterRegistry);
+    }
+
+    @DisplayName("Statements and loaded entities are recorded per URI template")
+    @Test
+    void givenApiRequest_whenStatementsExecuted_thenRecordedPerUriTemplate() throws Exception {
+        // Given - precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/products/{id}");
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                listener.inspect("select 1");
+                listener.inspect("select 2");
+                listener.onPostLoad(null);
+            }
+        });
+
+        // When - action or the behavior that we are go int to test
+        requestMetricsFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // then - verify the output
+        assertThat(meterRegistry.get(RequestMetricsFilter.STATEMENTS_METRIC)
+                .tag("uri", "/api/v1/products/{id}").summary().totalAmount()).isEqualTo(2.0);
+        assertThat(meterRegistry.get(RequestMetricsFilter.ENTITIES_LOADED_METRIC)
+                .tag("uri", "/api/v1/products/{id}").summary().totalAmount()).isEqualTo(1.0);
+    }
+
+    @DisplayName("Statements outside a request are not counted")
+    @Test
+    void givenNoRequest_whenStatementExecuted_thenNothingRecorded() throws Exception {
+        // Given - precondition or setup
+        listener.inspect("select 1");
+
+        // When - action or the behavior that we are go int to test
+        requestMetricsFilter.doFilter(new MockHttpServletRequest("GET", "/api/v1/products"),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        // then - verify the output
+        assertThat(meterRegistry.get(RequestMetricsFilter.STATEMENTS_METRIC).summary().totalAmount()).isZero();
+    }
+
+    @DisplayName("Non API paths are not recorded")
+    @Test
+    void givenActuatorPath_whenFiltered_thenNothingRecorded() throws Exception {
+        // When - action or the behavior that we are go int to test
+        requestMetricsFilter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        // then - verify the output
+        assertThat(meterRegistry.find(RequestMetricsFilter.STATEMENTS_METRIC).summary()).isNull();
+    }
+}